@@ -1,10 +1,32 @@
 package com.quiz;
 
 import com.quiz.controllers.QuizController;
+import com.quiz.controllers.QuizEventHub;
+import com.quiz.logging.Log;
+import com.quiz.metrics.ServerMetrics;
+import com.quiz.persistence.ResultsLog;
+import com.quiz.questions.QuestionCatalog;
+import com.quiz.questions.QuestionSampler;
+import com.quiz.server.HttpEngine;
+import com.quiz.server.MetricsFilter;
+import com.quiz.server.OverloadFilter;
+import com.quiz.server.RateLimitFilter;
+import com.quiz.server.RateLimiter;
+import com.quiz.server.RequestExecutor;
+import com.quiz.server.ServerConfig;
+import com.quiz.server.StaticAssetCache;
+import com.quiz.server.nio.NioHttpServer;
+import com.quiz.services.Leaderboard;
 import com.quiz.services.QuizService;
+import com.quiz.services.SessionRegistry;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
 import java.io.IOException;
-import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Main application class for the Interactive Single-Player Quiz Application
@@ -14,32 +36,33 @@ public class QuizApplication {
     
     public static void main(String[] args) {
         try {
-            // Get port from environment variable or use default
-            int port = Integer.parseInt(System.getenv().getOrDefault("PORT", "8080"));
+            ServerConfig config = ServerConfig.fromArgs(args);
+            Log.configure(
+                Log.Level.parse(config.getString("log-level", "QUIZ_LOG_LEVEL", "info")),
+                config.getInt("log-buffer", "QUIZ_LOG_BUFFER", 8192),
+                System.out
+            );
             
-            // Initialize the HTTP server
-            HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+            // Get port from flag, environment variable or use default
+            int port = config.getInt("port", "PORT", 8080);
             
-            // Initialize services
-            QuizService quizService = new QuizService();
-            QuizController quizController = new QuizController(quizService);
+            // Run requests on virtual threads, a bounded worker pool, or the dispatcher thread
+            RequestExecutor executor = RequestExecutor.fromConfig(config);
+            List<Closeable> resources = new ArrayList<>();
+            HttpServer server = createServer(config, port, executor, resources);
             
-            // Set up API endpoints
-            server.createContext("/api/quiz/start", quizController::startQuiz);
-            server.createContext("/api/quiz/question", quizController::getCurrentQuestion);
-            server.createContext("/api/quiz/answer", quizController::submitAnswer);
-            server.createContext("/api/quiz/results", quizController::getResults);
-            server.createContext("/api/quiz/reset", quizController::resetQuiz);
-            
-            // Serve static files (HTML, CSS, JS)
-            server.createContext("/", quizController::serveStaticFiles);
-            
-            // Enable CORS for all endpoints
-            server.setExecutor(null);
+            // Stop taking requests, let the running ones finish, then flush what they left behind
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(1);
+                executor.shutdown();
+                closeAll(resources);
+                Log.flush();
+            }, "quiz-shutdown"));
             
             System.out.println("🚀 Quiz Application Server started on http://localhost:" + port);
             System.out.println("📚 Open your browser and navigate to the URL above to start the quiz!");
             System.out.println("💡 Features: Custom Data Structures (Stack & LinkedList), Java Questions, Timer, Fun Facts!");
+            System.out.println("⚙️ Request executor: " + executor);
             System.out.println("🎯 Press Ctrl+C to stop the server");
             
             server.start();
@@ -49,4 +72,117 @@ public class QuizApplication {
             e.printStackTrace();
         }
     }
+    
+    /**
+     * Build the HTTP server with every quiz endpoint registered (not yet started)
+     * Shared by main() and the in-process mode of the load generator
+     * @param resources receives what must be closed, in order, once the server and executor have stopped
+     */
+    public static HttpServer createServer(ServerConfig config, int port, RequestExecutor executor,
+                                          List<Closeable> resources) throws IOException {
+        HttpEngine engine = HttpEngine.fromConfig(config);
+        HttpServer server = engine.create(config, port);
+        Log.info("HTTP engine: {}", server instanceof NioHttpServer ? server : engine);
+        
+        // Initialize services, rebuilding the leaderboard from the results log when one is configured
+        Leaderboard leaderboard = Leaderboard.fromConfig(config);
+        ResultsLog resultsLog = ResultsLog.fromConfig(config);
+        if (resultsLog != null) {
+            int restored = resultsLog.open(leaderboard::record);
+            Log.info("Replayed {} completed quizzes from {}", restored, resultsLog);
+        }
+        QuizService quizService = new QuizService(
+            SessionRegistry.fromConfig(config),
+            QuestionCatalog.fromConfig(config),
+            QuestionSampler.fromConfig(config),
+            leaderboard
+        );
+        if (resultsLog != null) {
+            quizService.addCompletionListener(resultsLog::append);
+        }
+        ServerMetrics metrics = new ServerMetrics();
+        quizService.addCompletionListener(result -> metrics.sessionCompleted());
+        metrics.addGauge("active_sessions", "Live quiz sessions", quizService::getActiveSessionCount);
+        metrics.addGauge("leaderboard_entries", "Completed quizzes on the leaderboard", leaderboard::size);
+        if (resultsLog != null) {
+            metrics.addGauge("results_log_dropped", "Completed quizzes dropped because the results log fell behind",
+                resultsLog::getDroppedCount);
+        }
+        QuizEventHub events = QuizEventHub.fromConfig(config, quizService);
+        // Closed in this order: streams end, then the reaper stops, then the log drains what completed
+        resources.add(events::shutdown);
+        resources.add(quizService);
+        if (resultsLog != null) {
+            resources.add(resultsLog);
+        }
+        metrics.addGauge("event_streams", "Open Server-Sent Event streams", events::getOpenStreamCount);
+        if (server instanceof NioHttpServer) {
+            metrics.addGauge("http_connections", "Open client connections", ((NioHttpServer) server)::getConnectionCount);
+        }
+        StaticAssetCache staticAssets = StaticAssetCache.fromConfig(config);
+        String adminToken = config.getString("admin-token", "QUIZ_ADMIN_TOKEN", null);
+        QuizController quizController = new QuizController(quizService, staticAssets, adminToken, metrics, events);
+        
+        // Set up API endpoints
+        List<Filter> filters = new ArrayList<>();
+        RateLimiter rateLimiter = RateLimiter.fromConfig(config);
+        if (rateLimiter != null) {
+            RateLimiter addressLimiter = RateLimiter.forAddresses(config);
+            Log.info("Rate limiting sessions: {}, addresses: {}", rateLimiter, addressLimiter);
+            filters.add(new RateLimitFilter(rateLimiter, addressLimiter, exchange -> {
+                // Starting a quiz is charged to the address only, whatever session the caller already has
+                if ("/api/quiz/start".equals(exchange.getRequestURI().getPath())) {
+                    return null;
+                }
+                String sessionId = QuizController.resolveSessionId(exchange);
+                return sessionId != null && quizService.hasSession(sessionId) ? sessionId : null;
+            }, config.getBoolean("trust-forwarded-for", "QUIZ_TRUST_FORWARDED_FOR", false)));
+            metrics.addGauge("rate_limited_clients", "Sessions with a rate limit bucket", rateLimiter::getTrackedClients);
+            metrics.addGauge("rate_limited_addresses", "Client addresses with a rate limit bucket", addressLimiter::getTrackedClients);
+        }
+        filters.add(new OverloadFilter());
+        addContext(server, "/api/quiz/start", quizController::startQuiz, metrics, filters);
+        addContext(server, "/api/quiz/question", quizController::getCurrentQuestion, metrics, filters);
+        addContext(server, "/api/quiz/bundle", quizController::getBundle, metrics, filters);
+        addContext(server, "/api/quiz/events", quizController::getEvents, metrics, filters);
+        addContext(server, "/api/quiz/answer", quizController::submitAnswer, metrics, filters);
+        addContext(server, "/api/quiz/answers/batch", quizController::submitAnswers, metrics, filters);
+        addContext(server, "/api/quiz/results", quizController::getResults, metrics, filters);
+        addContext(server, "/api/quiz/reset", quizController::resetQuiz, metrics, filters);
+        addContext(server, "/api/leaderboard", quizController::getLeaderboard, metrics, filters);
+        addContext(server, "/api/leaderboard/rank", quizController::getLeaderboardRank, metrics, filters);
+        addContext(server, "/api/admin/questions", quizController::questionBank, metrics, filters);
+        addContext(server, "/api/analytics/questions", quizController::getQuestionAnalytics, metrics, filters);
+        addContext(server, "/api/metrics", quizController::getMetrics, metrics, filters);
+        
+        // Serve static files (HTML, CSS, JS)
+        addContext(server, "/", quizController::serveStaticFiles, metrics, filters);
+        
+        server.setExecutor(executor);
+        return server;
+    }
+    
+    /**
+     * Close each resource in order, logging failures so one cannot keep the rest open
+     */
+    public static void closeAll(List<Closeable> resources) {
+        for (Closeable resource : resources) {
+            try {
+                resource.close();
+            } catch (IOException | RuntimeException e) {
+                Log.error("Failed to close {}", resource, e);
+            }
+        }
+    }
+    
+    /**
+     * Register a handler with its route's metrics filter and the shared filters (rate limit, overload) in front of it
+     * Metrics come first so requests refused with 429 or 503 are still counted
+     */
+    private static void addContext(HttpServer server, String path, HttpHandler handler, ServerMetrics metrics,
+                                   List<Filter> filters) {
+        HttpContext context = server.createContext(path, handler);
+        context.getFilters().add(new MetricsFilter(metrics.route(path)));
+        context.getFilters().addAll(filters);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.quiz.analytics;
+
+import com.quiz.models.Question;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AnswerAnalytics aggregates every graded answer per question ID for GET /api/analytics/questions
+ * Figures cover every answer since startup, including answers later undone or belonging to sessions
+ * that were reset. Recording takes no lock: a map lookup (the entry is created once per question)
+ * and a few striped counter updates.
+ */
+public class AnswerAnalytics {
+    private final ConcurrentHashMap<Integer, QuestionStats> questions = new ConcurrentHashMap<>();
+    
+    /**
+     * Record a graded answer to a question
+     */
+    public void record(Question question, int selectedAnswerIndex, boolean isCorrect, long timeSpent) {
+        QuestionStats stats = questions.get(question.getId());
+        if (stats == null) {
+            String[] options = question.getOptions();
+            stats = questions.computeIfAbsent(question.getId(),
+                id -> new QuestionStats(id, options != null ? options.length : 0));
+        }
+        stats.record(selectedAnswerIndex, isCorrect, timeSpent);
+    }
+    
+    /**
+     * Get the statistics of a question, or null if it has not been answered yet
+     */
+    public QuestionStats get(int questionId) {
+        return questions.get(questionId);
+    }
+}
\ No newline at end of file
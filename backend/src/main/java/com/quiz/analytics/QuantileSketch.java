@@ -0,0 +1,120 @@
+package com.quiz.analytics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming quantile sketch with 2% relative accuracy, contention-free to record into and mergeable
+ * Values land in logarithmic buckets (as in DDSketch), each GAMMA times wider than the one before, so
+ * answering a quantile with the bucket's midpoint is off by at most 2% of the true value whatever
+ * the distribution. Each bucket is a LongAdder, as in metrics.Histogram, so answers to the same question
+ * in similar times bump separate cells instead of all hitting one counter; a bucket's adder is
+ * created the first time a value lands in it, since most of the ~380 buckets never do. Merging two
+ * sketches adds their buckets, which is why per-question sketches can be combined into overall
+ * figures (or, later, across servers) without keeping any samples. Values are non-negative
+ * milliseconds up to an hour; larger values count as an hour.
+ */
+public final class QuantileSketch {
+    private static final double RELATIVE_ACCURACY = 0.02;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final long MAX_VALUE = 3_600_000L;
+    // Bucket 0 holds zeros; bucket i >= 1 holds values in (GAMMA^(i-2), GAMMA^(i-1)]
+    private static final int BUCKETS = bucketOf(MAX_VALUE) + 1;
+    
+    private final AtomicReferenceArray<LongAdder> counts = new AtomicReferenceArray<>(BUCKETS);
+    
+    /**
+     * Record one value (negative values count as zero)
+     */
+    public void record(long value) {
+        bucket(bucketOf(Math.min(value, MAX_VALUE))).increment();
+    }
+    
+    /**
+     * Add every value recorded in another sketch to this one
+     */
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.countAt(i);
+            if (count != 0) {
+                bucket(i).add(count);
+            }
+        }
+    }
+    
+    /**
+     * Get number of values recorded
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += countAt(i);
+        }
+        return total;
+    }
+    
+    /**
+     * Estimate the given quantiles (each between 0 and 1) from one pass over the buckets
+     * @param quantiles in ascending order
+     * @return an estimate per quantile, or all zeros if nothing was recorded
+     */
+    public long[] quantiles(double... quantiles) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = countAt(i);
+            total += snapshot[i];
+        }
+        long[] estimates = new long[quantiles.length];
+        if (total == 0) {
+            return estimates;
+        }
+        
+        int bucket = 0;
+        long seen = snapshot[0];
+        for (int q = 0; q < quantiles.length; q++) {
+            // Rank of the wanted value among the recorded ones, 0-based
+            long rank = (long) (Math.max(0, Math.min(1, quantiles[q])) * (total - 1));
+            while (seen <= rank && bucket < BUCKETS - 1) {
+                seen += snapshot[++bucket];
+            }
+            estimates[q] = estimate(bucket);
+        }
+        return estimates;
+    }
+    
+    /**
+     * Get a bucket's adder, creating it on first use; racing creators agree on whichever was set first
+     */
+    private LongAdder bucket(int index) {
+        LongAdder adder = counts.get(index);
+        if (adder == null) {
+            LongAdder created = new LongAdder();
+            adder = counts.compareAndSet(index, null, created) ? created : counts.get(index);
+        }
+        return adder;
+    }
+    
+    private long countAt(int index) {
+        LongAdder adder = counts.get(index);
+        return adder != null ? adder.sum() : 0;
+    }
+    
+    private static int bucketOf(long value) {
+        if (value <= 0) {
+            return 0;
+        }
+        return 1 + (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+    
+    /**
+     * Midpoint of a bucket in relative terms, the value that bounds the error by RELATIVE_ACCURACY
+     */
+    private static long estimate(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        return Math.round(2 * Math.pow(GAMMA, bucket - 1) / (GAMMA + 1));
+    }
+}
\ No newline at end of file
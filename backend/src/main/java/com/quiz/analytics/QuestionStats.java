@@ -0,0 +1,77 @@
+package com.quiz.analytics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running answer statistics for one question: attempts, correct answers, how often each option was
+ * chosen, unanswered (timed out) attempts and a time-to-answer sketch
+ * Counters are LongAdders, so players answering the same question at once update separate cells
+ * instead of contending on one.
+ */
+public final class QuestionStats {
+    private final int questionId;
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder correct = new LongAdder();
+    private final LongAdder unanswered = new LongAdder();
+    private final LongAdder[] options;
+    private final QuantileSketch timeToAnswer = new QuantileSketch();
+    
+    /**
+     * @param optionCount options the question had when first answered; later choices beyond it count as unanswered
+     */
+    public QuestionStats(int questionId, int optionCount) {
+        this.questionId = questionId;
+        this.options = new LongAdder[Math.max(0, optionCount)];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Record one graded answer
+     * @param selectedOption index of the chosen option, or -1 when time ran out
+     */
+    public void record(int selectedOption, boolean isCorrect, long timeSpentMillis) {
+        attempts.increment();
+        if (isCorrect) {
+            correct.increment();
+        }
+        if (selectedOption >= 0 && selectedOption < options.length) {
+            options[selectedOption].increment();
+        } else {
+            unanswered.increment();
+        }
+        timeToAnswer.record(timeSpentMillis);
+    }
+    
+    public int getQuestionId() {
+        return questionId;
+    }
+    
+    public long getAttempts() {
+        return attempts.sum();
+    }
+    
+    public long getCorrect() {
+        return correct.sum();
+    }
+    
+    public long getUnanswered() {
+        return unanswered.sum();
+    }
+    
+    /**
+     * Get how many times each option was chosen
+     */
+    public long[] getOptionCounts() {
+        long[] counts = new long[options.length];
+        for (int i = 0; i < options.length; i++) {
+            counts[i] = options[i].sum();
+        }
+        return counts;
+    }
+    
+    public QuantileSketch getTimeToAnswer() {
+        return timeToAnswer;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.quiz.controllers;
+
+import com.quiz.json.JsonWriter;
+import com.quiz.models.Question;
+import com.quiz.questions.QuestionSnapshot;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pre-serialized JSON for the questions of the current question bank version
+ * Questions never change within a version, so their fixed parts are encoded once as UTF-8 object
+ * members (no braces) and spliced between the per-session fields with JsonWriter.rawMembers:
+ *   question members - "id", "text", "options", "difficulty" (what players may see before answering)
+ *   answer members   - "correctAnswer", "correctAnswerText", "funFact" (revealed after answering)
+ * Fragments are encoded the first time a question is used, so memory-mapped banks stay lazy, and
+ * reused by every session until the bank is reloaded. Sessions still pinned to an older version get
+ * their fragments encoded on each request instead, which only happens while they finish after a reload.
+ */
+public final class QuestionJsonCache {
+    
+    /**
+     * Encoded fragments for one snapshot, filled lazily by bank position
+     */
+    private static final class Fragments {
+        final QuestionSnapshot snapshot;
+        final AtomicReferenceArray<byte[]> questionMembers;
+        final AtomicReferenceArray<byte[]> answerMembers;
+        
+        Fragments(QuestionSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.questionMembers = new AtomicReferenceArray<>(snapshot.size());
+            this.answerMembers = new AtomicReferenceArray<>(snapshot.size());
+        }
+    }
+    
+    private volatile Fragments current;
+    
+    /**
+     * Get the public members of the question at a bank position: "id", "text", "options", "difficulty"
+     */
+    public byte[] questionMembers(QuestionSnapshot snapshot, int position) {
+        Fragments fragments = fragmentsFor(snapshot);
+        if (fragments == null) {
+            return encodeQuestionMembers(snapshot.get(position));
+        }
+        byte[] json = fragments.questionMembers.get(position);
+        if (json == null) {
+            // Two threads may encode the same question at once; the copies are identical
+            json = encodeQuestionMembers(snapshot.get(position));
+            fragments.questionMembers.lazySet(position, json);
+        }
+        return json;
+    }
+    
+    /**
+     * Get the answer members of the question at a bank position: "correctAnswer", "correctAnswerText", "funFact"
+     */
+    public byte[] answerMembers(QuestionSnapshot snapshot, int position) {
+        Fragments fragments = fragmentsFor(snapshot);
+        if (fragments == null) {
+            return encodeAnswerMembers(snapshot.get(position));
+        }
+        byte[] json = fragments.answerMembers.get(position);
+        if (json == null) {
+            json = encodeAnswerMembers(snapshot.get(position));
+            fragments.answerMembers.lazySet(position, json);
+        }
+        return json;
+    }
+    
+    /**
+     * Get the cache for a snapshot, replacing the cache when a newer snapshot appears
+     * @return null for a snapshot older than the cached one
+     */
+    private Fragments fragmentsFor(QuestionSnapshot snapshot) {
+        Fragments fragments = current;
+        if (fragments != null && fragments.snapshot == snapshot) {
+            return fragments;
+        }
+        if (fragments != null && fragments.snapshot.getVersion() >= snapshot.getVersion()) {
+            return null;
+        }
+        synchronized (this) {
+            fragments = current;
+            if (fragments == null || fragments.snapshot.getVersion() < snapshot.getVersion()) {
+                fragments = new Fragments(snapshot);
+                current = fragments;
+            }
+            return fragments.snapshot == snapshot ? fragments : null;
+        }
+    }
+    
+    private static byte[] encodeQuestionMembers(Question question) {
+        JsonWriter json = new JsonWriter(256);
+        json.beginObject()
+            .field("id", question.getId())
+            .field("text", question.getQuestionText())
+            .field("options", question.getOptions())
+            .field("difficulty", question.getDifficulty())
+            .endObject();
+        return members(json);
+    }
+    
+    private static byte[] encodeAnswerMembers(Question question) {
+        JsonWriter json = new JsonWriter(256);
+        json.beginObject()
+            .field("correctAnswer", question.getCorrectAnswerIndex())
+            .field("correctAnswerText", question.getCorrectAnswer())
+            .field("funFact", question.getFunFact())
+            .endObject();
+        return members(json);
+    }
+    
+    /**
+     * Strip the braces from an encoded object, leaving its members
+     */
+    private static byte[] members(JsonWriter json) {
+        byte[] object = json.toByteArray();
+        byte[] members = new byte[object.length - 2];
+        System.arraycopy(object, 1, members, 0, members.length);
+        return members;
+    }
+}
\ No newline at end of file
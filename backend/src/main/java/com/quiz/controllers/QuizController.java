@@ -1,26 +1,69 @@
 package com.quiz.controllers;
 
-import com.quiz.models.Question;
+import com.quiz.json.JsonReader;
+import com.quiz.json.JsonWriter;
+import com.quiz.logging.Log;
+import com.quiz.metrics.ServerMetrics;
+import com.quiz.models.AnswerResult;
+import com.quiz.models.AnswerSubmission;
+import com.quiz.models.LeaderboardEntry;
 import com.quiz.models.QuizSession;
 import com.quiz.models.UserAnswer;
+import com.quiz.questions.QuestionCatalog;
+import com.quiz.questions.QuestionSnapshot;
+import com.quiz.server.StaticAssetCache;
+import com.quiz.services.Leaderboard;
 import com.quiz.services.QuizService;
+import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * QuizController handles HTTP requests and responses for the quiz application
  * Provides REST API endpoints for frontend communication
+ * Each request is resolved to its own session via the X-Session-Id header or the session cookie
  */
 public class QuizController {
+    private static final String SESSION_HEADER = "X-Session-Id";
+    private static final String SESSION_COOKIE = "QUIZ_SESSION";
+    private static final int MAX_BATCH_ANSWERS = 256;
+    private static final int MAX_BATCH_BYTES = 64 * 1024; // 256 answers at well over 100 bytes each
+    private static final int DEFAULT_LEADERBOARD_LIMIT = 10;
+    private static final int MAX_LEADERBOARD_LIMIT = 100;
+    
     private final QuizService quizService;
+    private final StaticAssetCache staticAssets;
+    private final byte[] adminToken; // null disables the admin endpoints
+    private final QuestionJsonCache questionJson = new QuestionJsonCache();
+    private final ServerMetrics metrics;
+    private final QuizEventHub events;
+    
+    public QuizController(QuizService quizService, StaticAssetCache staticAssets) {
+        this(quizService, staticAssets, null);
+    }
+    
+    public QuizController(QuizService quizService, StaticAssetCache staticAssets, String adminToken) {
+        this(quizService, staticAssets, adminToken, new ServerMetrics());
+    }
+    
+    public QuizController(QuizService quizService, StaticAssetCache staticAssets, String adminToken, ServerMetrics metrics) {
+        this(quizService, staticAssets, adminToken, metrics, new QuizEventHub(quizService));
+    }
     
-    public QuizController(QuizService quizService) {
+    public QuizController(QuizService quizService, StaticAssetCache staticAssets, String adminToken, ServerMetrics metrics,
+                          QuizEventHub events) {
         this.quizService = quizService;
+        this.staticAssets = staticAssets;
+        this.adminToken = adminToken != null ? adminToken.getBytes(StandardCharsets.UTF_8) : null;
+        this.metrics = metrics;
+        this.events = events;
     }
     
     /**
@@ -37,16 +80,15 @@ public class QuizController {
             String playerName = params.getOrDefault("playerName", "Anonymous Player");
             
             QuizSession session = quizService.startQuiz(playerName);
+            metrics.sessionStarted();
+            setSessionCookie(exchange, session.getSessionId());
             
-            String jsonResponse = String.format(
-                "{\"success\": true, \"sessionId\": \"%s\", \"totalQuestions\": %d, \"message\": \"Quiz started successfully!\"}",
-                session.getSessionId(),
-                session.getTotalQuestions()
-            );
+            JsonWriter json = JsonWriter.acquire();
+            QuizResponses.writeStarted(json, session);
             
-            sendJsonResponse(exchange, 200, jsonResponse);
+            sendJsonResponse(exchange, 200, json);
         } else {
-            sendJsonResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            sendError(exchange, 405, "Method not allowed");
         }
     }
     
@@ -58,41 +100,53 @@ public class QuizController {
         if ("GET".equals(exchange.getRequestMethod())) {
             enableCORS(exchange);
             
-            System.out.println("=== GET CURRENT QUESTION REQUEST ===");
-            
-            Question question = quizService.getCurrentQuestion();
-            QuizSession session = quizService.getCurrentSession();
-            
-            System.out.println("Session: " + (session != null ? session.toString() : "null"));
-            System.out.println("Question: " + (question != null ? question.toString() : "null"));
-            
+            String sessionId = resolveSessionId(exchange);
+            QuizSession session = quizService.getSession(sessionId);
+            JsonWriter json = null;
             if (session != null) {
-                System.out.println("Current question index: " + session.getCurrentQuestionIndex());
-                System.out.println("Total questions: " + quizService.getTotalQuestions());
+                synchronized (session) {
+                    if (session.getCurrentQuestionIndex() < session.getTotalQuestions()) {
+                        json = JsonWriter.acquire();
+                        QuizResponses.writeQuestion(json, session, questionJson);
+                    }
+                }
             }
             
-            if (question == null || session == null) {
-                System.out.println("Returning 404: No active quiz session or quiz completed");
-                sendJsonResponse(exchange, 404, "{\"error\": \"No active quiz session or quiz completed\"}");
+            Log.debug("GET question: session={} live={} found={}", sessionId, session != null, json != null);
+            
+            if (json == null) {
+                sendError(exchange, 404, "No active quiz session or quiz completed");
                 return;
             }
             
-            String optionsJson = formatOptionsAsJson(question.getOptions());
+            sendJsonResponse(exchange, 200, json);
+        } else {
+            sendError(exchange, 405, "Method not allowed");
+        }
+    }
+    
+    /**
+     * Get every question of the session in one response, so the client can prefetch the whole quiz
+     * GET /api/quiz/bundle
+     */
+    public void getBundle(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            enableCORS(exchange);
+            
+            QuizSession session = quizService.getSession(resolveSessionId(exchange));
+            if (session == null) {
+                sendError(exchange, 404, "No active quiz session");
+                return;
+            }
             
-            String jsonResponse = String.format(
-                "{\"success\": true, \"question\": {\"id\": %d, \"text\": \"%s\", \"options\": %s, \"difficulty\": \"%s\", \"questionNumber\": %d, \"totalQuestions\": %d, \"currentScore\": %d}}",
-                question.getId(),
-                escapeJson(question.getQuestionText()),
-                optionsJson,
-                question.getDifficulty(),
-                session.getCurrentQuestionIndex() + 1,
-                session.getTotalQuestions(),
-                session.getScore()
-            );
+            JsonWriter json = JsonWriter.acquire();
+            synchronized (session) {
+                QuizResponses.writeBundle(json, session, questionJson);
+            }
             
-            sendJsonResponse(exchange, 200, jsonResponse);
+            sendJsonResponse(exchange, 200, json);
         } else {
-            sendJsonResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            sendError(exchange, 405, "Method not allowed");
         }
     }
     
@@ -104,50 +158,111 @@ public class QuizController {
         if ("POST".equals(exchange.getRequestMethod())) {
             enableCORS(exchange);
             
-            System.out.println("=== SUBMIT ANSWER REQUEST ===");
-            
             String requestBody = readRequestBody(exchange);
             Map<String, String> params = parseFormData(requestBody);
             
-            System.out.println("Request params: " + params);
-            
             try {
                 int selectedAnswer = Integer.parseInt(params.get("selectedAnswer"));
                 long timeSpent = Long.parseLong(params.getOrDefault("timeSpent", "0"));
                 
-                System.out.println("Selected answer: " + selectedAnswer + ", Time spent: " + timeSpent);
-                
-                Question currentQuestion = quizService.getCurrentQuestion();
-                if (currentQuestion == null) {
-                    System.out.println("No current question available");
-                    sendJsonResponse(exchange, 404, "{\"error\": \"No current question available\"}");
+                String sessionId = resolveSessionId(exchange);
+                AnswerResult result = quizService.answerCurrentQuestion(sessionId, selectedAnswer, timeSpent);
+                if (result == null) {
+                    sendError(exchange, 404, "No current question available");
                     return;
                 }
+                metrics.answersGraded(1);
+                QuizSession session = quizService.getSession(sessionId);
                 
-                System.out.println("Current question before submit: " + currentQuestion.getId());
-                boolean isCorrect = quizService.submitAnswer(selectedAnswer, timeSpent);
-                QuizSession session = quizService.getCurrentSession();
+                Log.debug("POST answer: selected={} timeSpent={} session={}", selectedAnswer, timeSpent, sessionId);
                 
-                System.out.println("Answer correct: " + isCorrect);
-                System.out.println("Session after submit: " + (session != null ? session.toString() : "null"));
+                if (session == null) {
+                    // Session was reset by another request from the same player mid-submit
+                    sendError(exchange, 404, "No active quiz session");
+                    return;
+                }
                 
-                String jsonResponse = String.format(
-                    "{\"success\": true, \"isCorrect\": %s, \"correctAnswer\": %d, \"correctAnswerText\": \"%s\", \"funFact\": \"%s\", \"score\": %d, \"isQuizCompleted\": %s}",
-                    isCorrect,
-                    currentQuestion.getCorrectAnswerIndex(),
-                    escapeJson(currentQuestion.getCorrectAnswer()),
-                    escapeJson(currentQuestion.getFunFact()),
-                    session.getScore(),
-                    session.isCompleted()
-                );
+                JsonWriter json = JsonWriter.acquire();
+                QuizResponses.writeAnswerResult(json, result, session, questionJson);
                 
-                sendJsonResponse(exchange, 200, jsonResponse);
+                sendJsonResponse(exchange, 200, json);
+                events.publishAnswers(session, questionJson);
                 
             } catch (NumberFormatException e) {
-                sendJsonResponse(exchange, 400, "{\"error\": \"Invalid answer format\"}");
+                sendError(exchange, 400, "Invalid answer format");
+            }
+        } else {
+            sendError(exchange, 405, "Method not allowed");
+        }
+    }
+    
+    /**
+     * Submit several answers in one round trip, graded in order
+     * POST /api/quiz/answers/batch with {"answers": [{"questionId", "selectedAnswer", "timeSpent"}, ...]}
+     * (or a bare array). Each answer gets its own status; answers to questions already answered are
+     * reported as duplicates, so a batch can be resent safely after a lost response
+     */
+    public void submitAnswers(HttpExchange exchange) throws IOException {
+        if ("POST".equals(exchange.getRequestMethod())) {
+            enableCORS(exchange);
+            
+            AnswerSubmission[] submissions;
+            try {
+                submissions = parseAnswerBatch(readRequestBody(exchange, MAX_BATCH_BYTES));
+            } catch (BatchTooLargeException e) {
+                sendError(exchange, 413, e.getMessage());
+                return;
+            } catch (IOException e) {
+                sendError(exchange, 400, "Invalid answer batch: " + e.getMessage());
+                return;
+            }
+            
+            String sessionId = resolveSessionId(exchange);
+            AnswerResult[] results = quizService.submitAnswers(sessionId, submissions);
+            if (results != null) {
+                metrics.answersGraded(countGraded(results));
+            }
+            QuizSession session = quizService.getSession(sessionId);
+            
+            Log.debug("POST answers/batch: answers={} session={}", submissions.length, sessionId);
+            
+            if (results == null || session == null) {
+                sendError(exchange, 404, "No active quiz session");
+                return;
             }
+            
+            JsonWriter json = JsonWriter.acquire();
+            QuizResponses.writeBatchResult(json, results, session, questionJson);
+            
+            sendJsonResponse(exchange, 200, json);
+            events.publishAnswers(session, questionJson);
         } else {
-            sendJsonResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            sendError(exchange, 405, "Method not allowed");
+        }
+    }
+    
+    /**
+     * Stream the session's state as Server-Sent Events: question changes, progress after every answer,
+     * a tick every second and completion (see QuizEventHub)
+     * GET /api/quiz/events
+     * The handler returns as soon as the stream is open; the hub writes to it from then on
+     */
+    public void getEvents(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            enableCORS(exchange);
+            
+            QuizSession session = quizService.getSession(resolveSessionId(exchange));
+            if (session == null) {
+                sendError(exchange, 404, "No active quiz session");
+                return;
+            }
+            
+            if (events.subscribe(exchange, session, questionJson) == null) {
+                exchange.getResponseHeaders().set("Retry-After", "5");
+                sendError(exchange, 503, "Too many open event streams");
+            }
+        } else {
+            sendError(exchange, 405, "Method not allowed");
         }
     }
     
@@ -159,34 +274,98 @@ public class QuizController {
         if ("GET".equals(exchange.getRequestMethod())) {
             enableCORS(exchange);
             
-            QuizSession session = quizService.getResults();
+            String sessionId = resolveSessionId(exchange);
+            QuizSession session = quizService.getResults(sessionId);
             
             if (session == null) {
-                sendJsonResponse(exchange, 404, "{\"error\": \"No quiz session found\"}");
+                sendError(exchange, 404, "No quiz session found");
                 return;
             }
             
-            UserAnswer[] answers = quizService.getAllAnswers();
-            String answersJson = formatAnswersAsJson(answers);
-            
-            String jsonResponse = String.format(
-                "{\"success\": true, \"results\": {\"sessionId\": \"%s\", \"playerName\": \"%s\", \"score\": %d, \"finalScore\": %d, \"correctAnswers\": %d, \"totalQuestions\": %d, \"accuracy\": %.1f, \"timeBonus\": %d, \"totalTimeSpent\": %d, \"isCompleted\": %s, \"answers\": %s}}",
-                session.getSessionId(),
-                session.getPlayerName() != null ? escapeJson(session.getPlayerName()) : "Anonymous",
-                session.getScore(),
-                session.getFinalScore(),
-                session.getCorrectAnswers(),
-                session.getTotalQuestions(),
-                session.getAccuracy(),
-                session.getTimeBonus(),
-                session.getTotalTimeSpent(),
-                session.isCompleted(),
-                answersJson
-            );
-            
-            sendJsonResponse(exchange, 200, jsonResponse);
+            UserAnswer[] answers = quizService.getAllAnswers(sessionId);
+            
+            JsonWriter json = JsonWriter.acquire();
+            QuizResponses.writeResults(json, session, answers);
+            
+            sendJsonResponse(exchange, 200, json);
+        } else {
+            sendError(exchange, 405, "Method not allowed");
+        }
+    }
+    
+    /**
+     * Get the best completed quizzes, best first
+     * GET /api/leaderboard?limit=N (default 10, at most 100)
+     */
+    public void getLeaderboard(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            enableCORS(exchange);
+            
+            int limit = DEFAULT_LEADERBOARD_LIMIT;
+            String limitParam = parseFormData(exchange.getRequestURI().getRawQuery()).get("limit");
+            if (limitParam != null) {
+                try {
+                    limit = Math.max(1, Math.min(MAX_LEADERBOARD_LIMIT, Integer.parseInt(limitParam)));
+                } catch (NumberFormatException e) {
+                    sendError(exchange, 400, "Invalid limit");
+                    return;
+                }
+            }
+            
+            Leaderboard leaderboard = quizService.getLeaderboard();
+            JsonWriter json = JsonWriter.acquire();
+            QuizResponses.writeLeaderboard(json, leaderboard.top(limit), leaderboard.size());
+            
+            sendJsonResponse(exchange, 200, json);
         } else {
-            sendJsonResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            sendError(exchange, 405, "Method not allowed");
+        }
+    }
+    
+    /**
+     * Export server metrics in the Prometheus text format
+     * GET /api/metrics
+     */
+    public void getMetrics(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            StringBuilder text = new StringBuilder(8192);
+            metrics.writePrometheus(text);
+            byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+            
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        } else {
+            sendError(exchange, 405, "Method not allowed");
+        }
+    }
+    
+    /**
+     * Get the leaderboard rank of the caller's completed quiz
+     * GET /api/leaderboard/rank
+     */
+    public void getLeaderboardRank(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            enableCORS(exchange);
+            
+            String sessionId = resolveSessionId(exchange);
+            Leaderboard leaderboard = quizService.getLeaderboard();
+            LeaderboardEntry entry = leaderboard.getEntry(sessionId);
+            int rank = leaderboard.rank(sessionId);
+            if (entry == null || rank == 0) {
+                sendError(exchange, 404, "Quiz not completed or not on the leaderboard");
+                return;
+            }
+            
+            JsonWriter json = JsonWriter.acquire();
+            QuizResponses.writeLeaderboardRank(json, entry, rank, leaderboard.size());
+            
+            sendJsonResponse(exchange, 200, json);
+        } else {
+            sendError(exchange, 405, "Method not allowed");
         }
     }
     
@@ -198,75 +377,148 @@ public class QuizController {
         if ("POST".equals(exchange.getRequestMethod())) {
             enableCORS(exchange);
             
-            quizService.resetQuiz();
+            String sessionId = resolveSessionId(exchange);
+            quizService.resetQuiz(sessionId);
+            events.publishReset(sessionId);
+            clearSessionCookie(exchange);
             
-            String jsonResponse = "{\"success\": true, \"message\": \"Quiz reset successfully\"}";
-            sendJsonResponse(exchange, 200, jsonResponse);
+            JsonWriter json = JsonWriter.acquire();
+            QuizResponses.writeMessage(json, "Quiz reset successfully");
+            sendJsonResponse(exchange, 200, json);
         } else {
-            sendJsonResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            sendError(exchange, 405, "Method not allowed");
         }
     }
     
     /**
-     * Serve static files (HTML, CSS, JS)
+     * Show (GET) or reload (POST) the question bank; requires "Authorization: Bearer <admin token>"
+     * GET|POST /api/admin/questions
+     * A reload publishes a new snapshot for new sessions; running sessions keep their questions
      */
-    public void serveStaticFiles(HttpExchange exchange) throws IOException {
-        String path = exchange.getRequestURI().getPath();
+    public void questionBank(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (!"GET".equals(method) && !"POST".equals(method)) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        if (!requireAdmin(exchange)) {
+            return;
+        }
+        
+        QuestionCatalog catalog = quizService.getQuestionCatalog();
+        QuestionSnapshot snapshot = catalog.current();
+        if ("POST".equals(method)) {
+            if (!catalog.isReloadable()) {
+                sendError(exchange, 409, "Question bank was not loaded from a file");
+                return;
+            }
+            try {
+                snapshot = catalog.reload();
+            } catch (IOException e) {
+                Log.error("Question bank reload failed", e);
+                sendError(exchange, 500, "Reload failed, keeping version " + snapshot.getVersion() + ": " + e.getMessage());
+                return;
+            }
+        }
         
-        if (path.equals("/")) {
-            path = "/index.html";
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeQuestionBank(json, snapshot);
+        sendJsonResponse(exchange, 200, json);
+    }
+    
+    /**
+     * Handle GET /api/analytics/questions (admin only, as it reveals the answers): attempts, accuracy,
+     * option choices and time-to-answer per question since startup
+     */
+    public void getQuestionAnalytics(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        if (!requireAdmin(exchange)) {
+            return;
         }
         
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeQuestionAnalytics(json, quizService.getQuestionCatalog().current(), quizService.getAnswerAnalytics());
+        sendJsonResponse(exchange, 200, json);
+    }
+    
+    /**
+     * Serve static files (HTML, CSS, JS) from the in-memory asset cache
+     * Answers 304 when the client's ETag still matches and gzips when the client accepts it
+     */
+    public void serveStaticFiles(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        boolean headOnly = "HEAD".equals(method);
+        
         try {
-            // Get the frontend directory path
-            String projectRoot = System.getProperty("user.dir");
-            System.out.println("Current working directory: " + projectRoot);
+            StaticAssetCache.Asset asset = staticAssets.get(path);
             
-            // Ensure we're working from the project root
-            if (projectRoot.endsWith("backend")) {
-                projectRoot = projectRoot.substring(0, projectRoot.lastIndexOf("backend"));
+            if (asset == null) {
+                // File not found
+                Log.debug("File not found: {}", path);
+                byte[] notFoundResponse = ("<html><body><h1>404 - File Not Found</h1><p>The requested file was not found: "
+                    + escapeHtml(path) + "</p></body></html>").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+                exchange.sendResponseHeaders(404, notFoundResponse.length);
+                
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(notFoundResponse);
+                }
+                return;
             }
             
-            String frontendDir = projectRoot + File.separator + "frontend";
-            System.out.println("Frontend directory: " + frontendDir);
+            Headers requestHeaders = exchange.getRequestHeaders();
+            boolean gzip = asset.hasGzip() && acceptsGzip(requestHeaders.getFirst("Accept-Encoding"));
+            Headers responseHeaders = exchange.getResponseHeaders();
+            responseHeaders.set("ETag", asset.getEtag(gzip));
+            responseHeaders.set("Cache-Control", asset.getCacheControl());
+            if (asset.hasGzip()) {
+                responseHeaders.set("Vary", "Accept-Encoding");
+            }
             
-            String requestedFile = path.replace("/", File.separator);
-            Path filePath = Paths.get(frontendDir + requestedFile);
-            System.out.println("Requested file path: " + filePath.toString());
+            if (asset.matches(requestHeaders.getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
             
-            if (Files.exists(filePath) && !Files.isDirectory(filePath)) {
-                String contentType = getContentType(path);
-                exchange.getResponseHeaders().set("Content-Type", contentType);
-                
-                byte[] fileContent = Files.readAllBytes(filePath);
-                exchange.sendResponseHeaders(200, fileContent.length);
-                
-                try (OutputStream os = exchange.getResponseBody()) {
-                    os.write(fileContent);
-                }
-                System.out.println("Served file: " + filePath);
-            } else {
-                // File not found
-                System.out.println("File not found: " + filePath);
-                String notFoundResponse = "<html><body><h1>404 - File Not Found</h1><p>The requested file was not found: " + path + "</p><p>Looking in: " + frontendDir + "</p></body></html>";
-                exchange.getResponseHeaders().set("Content-Type", "text/html");
-                exchange.sendResponseHeaders(404, notFoundResponse.length());
-                
-                try (OutputStream os = exchange.getResponseBody()) {
-                    os.write(notFoundResponse.getBytes());
+            byte[] body = asset.getBody(gzip);
+            responseHeaders.set("Content-Type", asset.getContentType());
+            if (gzip) {
+                responseHeaders.set("Content-Encoding", "gzip");
+            }
+            
+            if (headOnly || body.length == 0) {
+                // -1 tells HttpServer there is no body; a length of 0 would mean chunked
+                if (headOnly) {
+                    responseHeaders.set("Content-Length", String.valueOf(body.length));
                 }
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
             }
+            
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+            metrics.staticBytesServed(body.length);
+            Log.debug("Served file: {} (gzip={})", path, gzip);
         } catch (Exception e) {
-            System.err.println("Error serving static file: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("Error serving static file {}", path, e);
             
             // Send error response
-            String errorResponse = "<html><body><h1>500 - Internal Server Error</h1><p>Error: " + e.getMessage() + "</p></body></html>";
-            exchange.getResponseHeaders().set("Content-Type", "text/html");
-            exchange.sendResponseHeaders(500, errorResponse.length());
+            byte[] errorResponse = ("<html><body><h1>500 - Internal Server Error</h1><p>Error: " + escapeHtml(e.getMessage())
+                + "</p></body></html>").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(500, errorResponse.length);
             
             try (OutputStream os = exchange.getResponseBody()) {
-                os.write(errorResponse.getBytes());
+                os.write(errorResponse);
             }
         }
     }
@@ -276,20 +528,96 @@ public class QuizController {
     private void enableCORS(HttpExchange exchange) {
         exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
         exchange.getResponseHeaders().set("Access-Control-Allow-Methods", "GET, POST, OPTIONS");
-        exchange.getResponseHeaders().set("Access-Control-Allow-Headers", "Content-Type");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Headers", "Content-Type, " + SESSION_HEADER);
+        exchange.getResponseHeaders().set("Access-Control-Expose-Headers", SESSION_HEADER);
     }
     
-    private void sendJsonResponse(HttpExchange exchange, int statusCode, String jsonResponse) throws IOException {
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        exchange.sendResponseHeaders(statusCode, jsonResponse.length());
+    /**
+     * Resolve the caller's session ID from the X-Session-Id header, falling back to the session cookie
+     */
+    public static String resolveSessionId(HttpExchange exchange) {
+        String headerValue = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        if (headerValue != null && !headerValue.isEmpty()) {
+            return headerValue.trim();
+        }
         
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(jsonResponse.getBytes());
+        List<String> cookieHeaders = exchange.getRequestHeaders().get("Cookie");
+        if (cookieHeaders == null) {
+            return null;
+        }
+        for (String cookieHeader : cookieHeaders) {
+            for (String cookie : cookieHeader.split(";")) {
+                String trimmed = cookie.trim();
+                if (trimmed.startsWith(SESSION_COOKIE + "=")) {
+                    return trimmed.substring(SESSION_COOKIE.length() + 1);
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Check the caller may use an admin endpoint, answering 404 (admin API disabled) or 401 if not
+     */
+    private boolean requireAdmin(HttpExchange exchange) throws IOException {
+        if (adminToken == null) {
+            sendError(exchange, 404, "Admin API is disabled");
+            return false;
         }
+        if (!isAdmin(exchange)) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            sendError(exchange, 401, "Invalid admin token");
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Check the bearer token in constant time
+     */
+    private boolean isAdmin(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        byte[] presented = authorization.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(presented, adminToken);
+    }
+    
+    private void setSessionCookie(HttpExchange exchange, String sessionId) {
+        exchange.getResponseHeaders().set(SESSION_HEADER, sessionId);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + sessionId + "; Path=/; HttpOnly; SameSite=Lax");
+    }
+    
+    private void clearSessionCookie(HttpExchange exchange) {
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0; HttpOnly; SameSite=Lax");
+    }
+    
+    /**
+     * Send an encoded JSON body; Content-Length is the exact UTF-8 byte count
+     * The writer goes back to the pool once the body has been written
+     */
+    private void sendJsonResponse(HttpExchange exchange, int statusCode, JsonWriter json) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(statusCode, json.size());
+            
+            try (OutputStream os = exchange.getResponseBody()) {
+                json.writeTo(os);
+            }
+        } finally {
+            JsonWriter.release(json);
+        }
+    }
+    
+    private void sendError(HttpExchange exchange, int statusCode, String message) throws IOException {
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeError(json, message);
+        sendJsonResponse(exchange, statusCode, json);
     }
     
     private String readRequestBody(HttpExchange exchange) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody()))) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
             StringBuilder body = new StringBuilder();
             String line;
             while ((line = reader.readLine()) != null) {
@@ -299,60 +627,158 @@ public class QuizController {
         }
     }
     
+    /**
+     * Read at most maxBytes of body, giving up as soon as the declared length or the bytes read exceed it
+     * @throws BatchTooLargeException if the body is larger than maxBytes
+     */
+    private String readRequestBody(HttpExchange exchange, int maxBytes) throws IOException {
+        String declared = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (declared != null) {
+            try {
+                if (Long.parseLong(declared.trim()) > maxBytes) {
+                    throw new BatchTooLargeException("Request body exceeds " + maxBytes + " bytes");
+                }
+            } catch (NumberFormatException e) {
+                // The server has already rejected unreadable lengths; count the bytes instead
+            }
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(Math.min(maxBytes, 8192));
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                if (body.size() + read > maxBytes) {
+                    throw new BatchTooLargeException("Request body exceeds " + maxBytes + " bytes");
+                }
+                body.write(chunk, 0, read);
+            }
+            return body.toString(StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * Parse {"answers": [...]} or a bare array of {"questionId", "selectedAnswer", "timeSpent"}
+     * @throws BatchTooLargeException as soon as the batch holds more than MAX_BATCH_ANSWERS answers
+     * @throws IOException if the body is not valid JSON or an answer lacks questionId or selectedAnswer
+     */
+    private AnswerSubmission[] parseAnswerBatch(String body) throws IOException {
+        List<AnswerSubmission> submissions = new ArrayList<>();
+        try (JsonReader json = new JsonReader(new StringReader(body))) {
+            if (json.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                json.beginObject();
+                while (json.hasNext()) {
+                    if ("answers".equals(json.nextName())) {
+                        readAnswers(json, submissions);
+                    } else {
+                        json.skipValue();
+                    }
+                }
+                json.endObject();
+            } else {
+                readAnswers(json, submissions);
+            }
+            json.peek(); // reject trailing content
+        }
+        return submissions.toArray(new AnswerSubmission[0]);
+    }
+    
+    private static int countGraded(AnswerResult[] results) {
+        int graded = 0;
+        for (AnswerResult result : results) {
+            if (result.getStatus() == AnswerResult.Status.GRADED) {
+                graded++;
+            }
+        }
+        return graded;
+    }
+    
+    private void readAnswers(JsonReader json, List<AnswerSubmission> submissions) throws IOException {
+        json.beginArray();
+        while (json.hasNext()) {
+            if (submissions.size() == MAX_BATCH_ANSWERS) {
+                throw new BatchTooLargeException("At most " + MAX_BATCH_ANSWERS + " answers per batch");
+            }
+            Integer questionId = null;
+            Integer selectedAnswer = null;
+            long timeSpent = 0;
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "questionId": questionId = json.nextInt(); break;
+                    case "selectedAnswer": selectedAnswer = json.nextInt(); break;
+                    case "timeSpent": timeSpent = json.nextLong(); break;
+                    default: json.skipValue(); break;
+                }
+            }
+            json.endObject();
+            if (questionId == null || selectedAnswer == null) {
+                throw new IOException("answer " + (submissions.size() + 1) + " needs questionId and selectedAnswer");
+            }
+            submissions.add(new AnswerSubmission(questionId, selectedAnswer, timeSpent));
+        }
+        json.endArray();
+    }
+    
     private Map<String, String> parseFormData(String formData) {
         Map<String, String> params = new HashMap<>();
         if (formData != null && !formData.isEmpty()) {
             String[] pairs = formData.split("&");
             for (String pair : pairs) {
-                String[] keyValue = pair.split("=");
-                if (keyValue.length == 2) {
-                    params.put(keyValue[0], keyValue[1]);
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    try {
+                        params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+                    } catch (IllegalArgumentException e) {
+                        // Malformed %-escape: skip the pair like any other unreadable field
+                    }
                 }
             }
         }
         return params;
     }
     
-    private String formatOptionsAsJson(String[] options) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < options.length; i++) {
-            if (i > 0) sb.append(", ");
-            sb.append("\"").append(escapeJson(options[i])).append("\"");
+    /**
+     * Escape text for an HTML body; request paths are echoed in error pages and must not inject markup
+     */
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
         }
-        sb.append("]");
-        return sb.toString();
-    }
-    
-    private String formatAnswersAsJson(UserAnswer[] answers) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < answers.length; i++) {
-            if (i > 0) sb.append(", ");
-            UserAnswer answer = answers[i];
-            sb.append(String.format(
-                "{\"questionId\": %d, \"selectedAnswer\": %d, \"isCorrect\": %s, \"timeSpent\": %d}",
-                answer.getQuestionId(),
-                answer.getSelectedAnswerIndex(),
-                answer.isCorrect(),
-                answer.getTimeSpent()
-            ));
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': escaped.append("&lt;"); break;
+                case '>': escaped.append("&gt;"); break;
+                case '&': escaped.append("&amp;"); break;
+                case '"': escaped.append("&quot;"); break;
+                case '\'': escaped.append("&#39;"); break;
+                default: escaped.append(c); break;
+            }
         }
-        sb.append("]");
-        return sb.toString();
+        return escaped.toString();
     }
     
-    private String escapeJson(String text) {
-        if (text == null) return "";
-        return text.replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "\\r");
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+        return false;
     }
     
-    private String getContentType(String path) {
-        if (path.endsWith(".html")) return "text/html";
-        if (path.endsWith(".css")) return "text/css";
-        if (path.endsWith(".js")) return "application/javascript";
-        if (path.endsWith(".json")) return "application/json";
-        if (path.endsWith(".png")) return "image/png";
-        if (path.endsWith(".jpg") || path.endsWith(".jpeg")) return "image/jpeg";
-        if (path.endsWith(".gif")) return "image/gif";
-        return "text/plain";
+    /** An answer batch over the byte or answer limit, answered with 413 rather than 400 */
+    private static final class BatchTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+        
+        BatchTooLargeException(String message) {
+            super(message);
+        }
     }
 }
\ No newline at end of file
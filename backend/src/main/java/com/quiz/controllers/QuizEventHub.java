@@ -0,0 +1,279 @@
+package com.quiz.controllers;
+
+import com.quiz.json.JsonWriter;
+import com.quiz.models.QuizSession;
+import com.quiz.server.EventStream;
+import com.quiz.server.ServerConfig;
+import com.quiz.services.QuizService;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * QuizEventHub pushes quiz state to the event streams of GET /api/quiz/events
+ * Events, each carrying JSON data:
+ *   question - same body as GET /api/quiz/question, on connect and whenever the current question changes
+ *   progress - score and answered count, on connect and after every answer
+ *   tick     - once a second: seconds since the current question was reached (also keeps proxies from timing out)
+ *   complete - final score; the stream then ends
+ *   reset    - the session was reset or expired; the stream then ends
+ * Streams are grouped by session. One ticker thread serves every stream and a few writer threads do
+ * all socket writes, so the thread count stays flat however many players are connected. Both are
+ * started with the first stream. Every tick also drops streams whose writes have stalled, including
+ * streams already ended, so a client that stops reading cannot hold a writer thread.
+ */
+public class QuizEventHub {
+    private static final int WRITER_THREADS = 2;
+    private static final byte[] RESET_DATA = "{}".getBytes(StandardCharsets.UTF_8);
+    
+    private final QuizService quizService;
+    private final int maxStreams;
+    private final ConcurrentHashMap<String, SessionStreams> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final Set<EventStream> liveStreams = ConcurrentHashMap.newKeySet(); // not yet closed, in a session or not
+    private ScheduledExecutorService ticker;
+    private ExecutorService writers;
+    
+    /**
+     * Streams of one session, plus when the session reached its current question
+     */
+    private static final class SessionStreams {
+        final List<EventStream> streams = new CopyOnWriteArrayList<>();
+        volatile int questionIndex;
+        volatile long questionSinceNanos;
+        
+        SessionStreams(int questionIndex) {
+            this.questionIndex = questionIndex;
+            this.questionSinceNanos = System.nanoTime();
+        }
+    }
+    
+    public QuizEventHub(QuizService quizService) {
+        this(quizService, 10_000);
+    }
+    
+    /**
+     * @param maxStreams open streams allowed across all sessions
+     */
+    public QuizEventHub(QuizService quizService, int maxStreams) {
+        this.quizService = quizService;
+        this.maxStreams = maxStreams;
+    }
+    
+    /**
+     * Build a hub from --max-event-streams/QUIZ_MAX_EVENT_STREAMS
+     */
+    public static QuizEventHub fromConfig(ServerConfig config, QuizService quizService) {
+        return new QuizEventHub(quizService, config.getInt("max-event-streams", "QUIZ_MAX_EVENT_STREAMS", 10_000));
+    }
+    
+    /**
+     * Open an event stream on an exchange and push the session's current state
+     * @return null without touching the exchange if the hub is at capacity
+     */
+    public EventStream subscribe(HttpExchange exchange, QuizSession session, QuestionJsonCache cache) throws IOException {
+        if (openStreams.incrementAndGet() > maxStreams) {
+            openStreams.decrementAndGet();
+            return null;
+        }
+        start();
+        EventStream stream;
+        try {
+            stream = EventStream.open(exchange, writers);
+        } catch (IOException e) {
+            openStreams.decrementAndGet();
+            throw e;
+        }
+        liveStreams.add(stream);
+        
+        // Register and send the initial state under the session lock, so an answer submitted meanwhile
+        // is pushed after the state it changes rather than before it
+        synchronized (session) {
+            int questionIndex = session.getCurrentQuestionIndex();
+            sessions.compute(session.getSessionId(), (id, state) -> {
+                if (state == null) {
+                    state = new SessionStreams(questionIndex);
+                }
+                state.streams.add(stream);
+                return state;
+            });
+            for (byte[] frame : stateFrames(session, cache, true)) {
+                stream.send(frame);
+            }
+            if (session.isCompleted()) {
+                stream.close();
+            }
+        }
+        return stream;
+    }
+    
+    /**
+     * Push a session's state after it has answered questions; completes its streams if the quiz is over
+     */
+    public void publishAnswers(QuizSession session, QuestionJsonCache cache) {
+        SessionStreams state = sessions.get(session.getSessionId());
+        if (state == null) {
+            return; // nobody is listening
+        }
+        // Sending only queues frames, so holding the lock here is cheap
+        synchronized (session) {
+            int questionIndex = session.getCurrentQuestionIndex();
+            boolean questionChanged = questionIndex != state.questionIndex;
+            if (questionChanged) {
+                state.questionIndex = questionIndex;
+                state.questionSinceNanos = System.nanoTime();
+            }
+            byte[][] frames = stateFrames(session, cache, questionChanged);
+            for (EventStream stream : state.streams) {
+                for (byte[] frame : frames) {
+                    stream.send(frame);
+                }
+                if (session.isCompleted()) {
+                    stream.close();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Tell a session's streams it was reset, then end them
+     */
+    public void publishReset(String sessionId) {
+        SessionStreams state = sessionId != null ? sessions.remove(sessionId) : null;
+        if (state != null) {
+            endAll(state);
+        }
+    }
+    
+    /**
+     * Get number of open streams
+     */
+    public int getOpenStreamCount() {
+        return openStreams.get();
+    }
+    
+    public int getMaxStreams() {
+        return maxStreams;
+    }
+    
+    /**
+     * End every stream and stop the ticker and writers
+     */
+    public synchronized void shutdown() {
+        for (String sessionId : sessions.keySet()) {
+            publishReset(sessionId);
+        }
+        if (ticker != null) {
+            ticker.shutdown();
+            writers.shutdown();
+        }
+    }
+    
+    /**
+     * Frames describing a session's state: progress, then the question or the completion
+     * Caller holds the session lock.
+     */
+    private static byte[][] stateFrames(QuizSession session, QuestionJsonCache cache, boolean includeQuestion) {
+        JsonWriter json = JsonWriter.acquire();
+        try {
+            QuizResponses.writeProgress(json, session);
+            byte[] progress = EventStream.frame("progress", json.toByteArray());
+            if (session.isCompleted()) {
+                json.reset();
+                QuizResponses.writeCompleted(json, session);
+                return new byte[][] {progress, EventStream.frame("complete", json.toByteArray())};
+            }
+            if (includeQuestion && session.getCurrentQuestionIndex() < session.getTotalQuestions()) {
+                json.reset();
+                QuizResponses.writeQuestion(json, session, cache);
+                return new byte[][] {progress, EventStream.frame("question", json.toByteArray())};
+            }
+            return new byte[][] {progress};
+        } finally {
+            JsonWriter.release(json);
+        }
+    }
+    
+    private synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        AtomicInteger writerCount = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(WRITER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "quiz-events-writer-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quiz-events-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Send every stream its tick, dropping closed or stalled streams and ending those whose session is gone
+     */
+    private void tick() {
+        long now = System.nanoTime();
+        for (EventStream stream : liveStreams) {
+            if (stream.isClosed()) {
+                liveStreams.remove(stream);
+            } else {
+                stream.dropIfStalled(now);
+            }
+        }
+        JsonWriter json = JsonWriter.acquire();
+        try {
+            for (Map.Entry<String, SessionStreams> entry : sessions.entrySet()) {
+                SessionStreams state = entry.getValue();
+                for (EventStream stream : state.streams) {
+                    if (stream.isClosed() && state.streams.remove(stream)) {
+                        openStreams.decrementAndGet();
+                    }
+                }
+                if (!quizService.hasSession(entry.getKey())) {
+                    if (sessions.remove(entry.getKey(), state)) {
+                        endAll(state);
+                    }
+                    continue;
+                }
+                // Drop the session's entry once its last stream is gone (compute keeps this atomic with subscribe)
+                if (sessions.computeIfPresent(entry.getKey(), (id, current) -> current.streams.isEmpty() ? null : current) == null) {
+                    continue;
+                }
+                
+                json.reset();
+                QuizResponses.writeTick(json, state.questionIndex + 1, TimeUnit.NANOSECONDS.toSeconds(now - state.questionSinceNanos));
+                byte[] frame = EventStream.frame("tick", json.toByteArray());
+                for (EventStream stream : state.streams) {
+                    stream.send(frame);
+                }
+            }
+        } finally {
+            JsonWriter.release(json);
+        }
+    }
+    
+    private void endAll(SessionStreams state) {
+        byte[] frame = EventStream.frame("reset", RESET_DATA);
+        for (EventStream stream : state.streams) {
+            stream.send(frame);
+            stream.close();
+            if (state.streams.remove(stream)) {
+                openStreams.decrementAndGet();
+            }
+        }
+    }
+}
\ No newline at end of file
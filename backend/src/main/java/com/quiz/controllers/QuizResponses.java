@@ -0,0 +1,365 @@
+package com.quiz.controllers;
+
+import com.quiz.analytics.AnswerAnalytics;
+import com.quiz.analytics.QuantileSketch;
+import com.quiz.analytics.QuestionStats;
+import com.quiz.json.JsonWriter;
+import com.quiz.models.AnswerResult;
+import com.quiz.models.LeaderboardEntry;
+import com.quiz.models.Question;
+import com.quiz.models.QuizSession;
+import com.quiz.models.UserAnswer;
+import com.quiz.questions.QuestionSnapshot;
+import java.util.Locale;
+
+/**
+ * QuizResponses encodes the JSON bodies returned by QuizController
+ * Kept separate from the HTTP plumbing so the encoders can be reused and benchmarked on their own
+ */
+public final class QuizResponses {
+    private static final QuantileSketch NO_ANSWERS = new QuantileSketch();
+    
+    private QuizResponses() {
+    }
+    
+    /**
+     * Body for POST /api/quiz/start
+     */
+    public static void writeStarted(JsonWriter json, QuizSession session) {
+        json.beginObject()
+            .field("success", true)
+            .field("sessionId", session.getSessionId())
+            .field("totalQuestions", session.getTotalQuestions())
+            .field("message", "Quiz started successfully!")
+            .endObject();
+    }
+    
+    /**
+     * Body for GET /api/quiz/question
+     */
+    public static void writeQuestion(JsonWriter json, Question question, QuizSession session) {
+        json.beginObject()
+            .field("success", true)
+            .name("question").beginObject()
+                .field("id", question.getId())
+                .field("text", question.getQuestionText())
+                .field("options", question.getOptions())
+                .field("difficulty", question.getDifficulty())
+                .field("questionNumber", session.getCurrentQuestionIndex() + 1)
+                .field("totalQuestions", session.getTotalQuestions())
+                .field("currentScore", session.getScore())
+            .endObject()
+            .endObject();
+    }
+    
+    /**
+     * Body for GET /api/quiz/question from cached fragments; only the session fields are encoded
+     * The caller holds the session lock and has checked the session has a current question
+     */
+    public static void writeQuestion(JsonWriter json, QuizSession session, QuestionJsonCache cache) {
+        int position = session.getQuestionOrder()[session.getCurrentQuestionIndex()];
+        json.beginObject()
+            .field("success", true)
+            .name("question").beginObject()
+                .rawMembers(cache.questionMembers(session.getQuestions(), position))
+                .field("questionNumber", session.getCurrentQuestionIndex() + 1)
+                .field("totalQuestions", session.getTotalQuestions())
+                .field("currentScore", session.getScore())
+            .endObject()
+            .endObject();
+    }
+    
+    /**
+     * Body for GET /api/quiz/bundle: every question of the session, in order, without answers or fun facts
+     * The questions are spliced in from pre-encoded fragments; only the session fields are encoded per request
+     */
+    public static void writeBundle(JsonWriter json, QuizSession session, QuestionJsonCache cache) {
+        QuestionSnapshot questions = session.getQuestions();
+        int[] questionOrder = session.getQuestionOrder();
+        json.beginObject()
+            .field("success", true)
+            .field("version", questions.getVersion())
+            .field("totalQuestions", session.getTotalQuestions())
+            .field("answeredQuestions", Math.min(session.getCurrentQuestionIndex(), session.getTotalQuestions()))
+            .field("currentScore", session.getScore())
+            .name("questions").beginArray();
+        for (int position : questionOrder) {
+            json.beginObject()
+                .rawMembers(cache.questionMembers(questions, position))
+                .endObject();
+        }
+        json.endArray()
+            .endObject();
+    }
+    
+    /**
+     * Body for POST /api/quiz/answer
+     */
+    public static void writeAnswerResult(JsonWriter json, Question question, boolean isCorrect, QuizSession session) {
+        json.beginObject()
+            .field("success", true)
+            .field("isCorrect", isCorrect)
+            .field("correctAnswer", question.getCorrectAnswerIndex())
+            .field("correctAnswerText", question.getCorrectAnswer())
+            .field("funFact", question.getFunFact())
+            .field("score", session.getScore())
+            .field("isQuizCompleted", session.isCompleted())
+            .endObject();
+    }
+    
+    /**
+     * Body for POST /api/quiz/answer from cached fragments; only the result and session fields are encoded
+     */
+    public static void writeAnswerResult(JsonWriter json, AnswerResult result, QuizSession session, QuestionJsonCache cache) {
+        json.beginObject()
+            .field("success", true)
+            .field("isCorrect", result.isCorrect())
+            .rawMembers(cache.answerMembers(session.getQuestions(), result.getQuestionPosition()))
+            .field("score", session.getScore())
+            .field("isQuizCompleted", session.isCompleted())
+            .endObject();
+    }
+    
+    /**
+     * Body for POST /api/quiz/answers/batch: one entry per submitted answer, then the session state
+     */
+    public static void writeBatchResult(JsonWriter json, AnswerResult[] results, QuizSession session, QuestionJsonCache cache) {
+        int graded = 0;
+        json.beginObject()
+            .field("success", true)
+            .name("results").beginArray();
+        for (AnswerResult result : results) {
+            json.beginObject()
+                .field("questionId", result.getSubmission().getQuestionId())
+                .field("status", result.getStatus().name().toLowerCase(Locale.ROOT));
+            if (result.getStatus() != AnswerResult.Status.REJECTED) {
+                json.field("isCorrect", result.isCorrect());
+            }
+            if (result.getStatus() == AnswerResult.Status.GRADED) {
+                graded++;
+                json.rawMembers(cache.answerMembers(session.getQuestions(), result.getQuestionPosition()));
+            }
+            json.endObject();
+        }
+        json.endArray()
+            .field("graded", graded)
+            .field("score", session.getScore())
+            .field("correctAnswers", session.getCorrectAnswers())
+            .field("answeredQuestions", Math.min(session.getCurrentQuestionIndex(), session.getTotalQuestions()))
+            .field("totalQuestions", session.getTotalQuestions())
+            .field("isQuizCompleted", session.isCompleted())
+            .endObject();
+    }
+    
+    /**
+     * Event data for the session's progress, pushed after every answer
+     */
+    public static void writeProgress(JsonWriter json, QuizSession session) {
+        json.beginObject()
+            .field("score", session.getScore())
+            .field("correctAnswers", session.getCorrectAnswers())
+            .field("answeredQuestions", Math.min(session.getCurrentQuestionIndex(), session.getTotalQuestions()))
+            .field("totalQuestions", session.getTotalQuestions())
+            .field("isQuizCompleted", session.isCompleted())
+            .endObject();
+    }
+    
+    /**
+     * Event data for a timer tick: seconds since the current question was reached
+     */
+    public static void writeTick(JsonWriter json, int questionNumber, long elapsedSeconds) {
+        json.beginObject()
+            .field("questionNumber", questionNumber)
+            .field("elapsed", elapsedSeconds)
+            .endObject();
+    }
+    
+    /**
+     * Event data for a completed quiz
+     */
+    public static void writeCompleted(JsonWriter json, QuizSession session) {
+        json.beginObject()
+            .field("score", session.getScore())
+            .field("finalScore", session.getFinalScore())
+            .field("correctAnswers", session.getCorrectAnswers())
+            .field("totalQuestions", session.getTotalQuestions())
+            .field("timeBonus", session.getTimeBonus())
+            .field("totalTimeSpent", session.getTotalTimeSpent())
+            .endObject();
+    }
+    
+    /**
+     * Body for GET /api/quiz/results
+     */
+    public static void writeResults(JsonWriter json, QuizSession session, UserAnswer[] answers) {
+        json.beginObject()
+            .field("success", true)
+            .name("results").beginObject()
+                .field("sessionId", session.getSessionId())
+                .field("playerName", session.getPlayerName() != null ? session.getPlayerName() : "Anonymous")
+                .field("score", session.getScore())
+                .field("finalScore", session.getFinalScore())
+                .field("correctAnswers", session.getCorrectAnswers())
+                .field("totalQuestions", session.getTotalQuestions())
+                .name("accuracy").valueOneDecimal(session.getAccuracy())
+                .field("timeBonus", session.getTimeBonus())
+                .field("totalTimeSpent", session.getTotalTimeSpent())
+                .field("isCompleted", session.isCompleted())
+                .name("answers");
+        writeAnswers(json, answers);
+        json.endObject()
+            .endObject();
+    }
+    
+    /**
+     * Body for a successful action that only carries a message
+     */
+    public static void writeMessage(JsonWriter json, String message) {
+        json.beginObject()
+            .field("success", true)
+            .field("message", message)
+            .endObject();
+    }
+    
+    /**
+     * Body for GET/POST /api/admin/questions
+     */
+    public static void writeQuestionBank(JsonWriter json, QuestionSnapshot snapshot) {
+        json.beginObject()
+            .field("success", true)
+            .field("version", snapshot.getVersion())
+            .field("questions", snapshot.size())
+            .field("source", snapshot.getSource())
+            .field("loadedAt", snapshot.getLoadedAtMillis())
+            .endObject();
+    }
+    
+    /**
+     * Body for GET /api/analytics/questions: answer statistics for every question in the current bank, and
+     * the same figures across all of them; time quantiles are estimates within 2%
+     */
+    public static void writeQuestionAnalytics(JsonWriter json, QuestionSnapshot snapshot, AnswerAnalytics analytics) {
+        QuantileSketch overallTime = new QuantileSketch();
+        long overallAttempts = 0;
+        long overallCorrect = 0;
+        
+        json.beginObject()
+            .field("success", true)
+            .field("version", snapshot.getVersion())
+            .name("questions").beginArray();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Question question = snapshot.get(i);
+            QuestionStats stats = analytics.get(question.getId());
+            long attempts = stats != null ? stats.getAttempts() : 0;
+            long correct = stats != null ? stats.getCorrect() : 0;
+            long[] optionCounts = stats != null ? stats.getOptionCounts() : new long[0];
+            String[] options = question.getOptions();
+            
+            json.beginObject()
+                .field("id", question.getId())
+                .field("text", question.getQuestionText())
+                .field("difficulty", question.getDifficulty())
+                .field("correctAnswer", question.getCorrectAnswerIndex())
+                .field("attempts", attempts)
+                .field("correct", correct)
+                .name("accuracy").valueOneDecimal(percent(correct, attempts))
+                .field("unanswered", stats != null ? stats.getUnanswered() : 0)
+                .name("options").beginArray();
+            for (int option = 0; option < options.length; option++) {
+                json.beginObject()
+                    .field("text", options[option])
+                    .field("count", option < optionCounts.length ? optionCounts[option] : 0)
+                    .endObject();
+            }
+            json.endArray();
+            if (stats != null) {
+                writeTimeQuantiles(json, stats.getTimeToAnswer());
+                overallTime.merge(stats.getTimeToAnswer());
+            } else {
+                writeTimeQuantiles(json, NO_ANSWERS);
+            }
+            json.endObject();
+            overallAttempts += attempts;
+            overallCorrect += correct;
+        }
+        json.endArray()
+            .name("overall").beginObject()
+            .field("attempts", overallAttempts)
+            .field("correct", overallCorrect)
+            .name("accuracy").valueOneDecimal(percent(overallCorrect, overallAttempts));
+        writeTimeQuantiles(json, overallTime);
+        json.endObject()
+            .endObject();
+    }
+    
+    private static void writeTimeQuantiles(JsonWriter json, QuantileSketch sketch) {
+        long[] quantiles = sketch.quantiles(0.5, 0.9, 0.99);
+        json.name("timeMs").beginObject()
+            .field("p50", quantiles[0])
+            .field("p90", quantiles[1])
+            .field("p99", quantiles[2])
+            .endObject();
+    }
+    
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : part * 100.0 / whole;
+    }
+    
+    /**
+     * Body for GET /api/leaderboard; entries never include session IDs, which act as credentials
+     */
+    public static void writeLeaderboard(JsonWriter json, LeaderboardEntry[] entries, int totalEntries) {
+        json.beginObject()
+            .field("success", true)
+            .field("totalEntries", totalEntries)
+            .name("entries").beginArray();
+        for (int i = 0; i < entries.length; i++) {
+            writeLeaderboardEntry(json.beginObject().field("rank", i + 1), entries[i]);
+            json.endObject();
+        }
+        json.endArray()
+            .endObject();
+    }
+    
+    /**
+     * Body for GET /api/leaderboard/rank
+     */
+    public static void writeLeaderboardRank(JsonWriter json, LeaderboardEntry entry, int rank, int totalEntries) {
+        json.beginObject()
+            .field("success", true)
+            .field("rank", rank)
+            .field("totalEntries", totalEntries)
+            .name("entry").beginObject();
+        writeLeaderboardEntry(json, entry);
+        json.endObject()
+            .endObject();
+    }
+    
+    private static void writeLeaderboardEntry(JsonWriter json, LeaderboardEntry entry) {
+        json.field("playerName", entry.getPlayerName())
+            .field("finalScore", entry.getFinalScore())
+            .field("correctAnswers", entry.getCorrectAnswers())
+            .field("totalQuestions", entry.getTotalQuestions())
+            .field("totalTimeSpent", entry.getTotalTimeSpent());
+    }
+    
+    /**
+     * Body for an error response
+     */
+    public static void writeError(JsonWriter json, String message) {
+        json.beginObject().field("error", message).endObject();
+    }
+    
+    public static void writeAnswers(JsonWriter json, UserAnswer[] answers) {
+        json.beginArray();
+        for (UserAnswer answer : answers) {
+            json.beginObject()
+                .field("questionId", answer.getQuestionId())
+                .field("selectedAnswer", answer.getSelectedAnswerIndex())
+                .field("isCorrect", answer.isCorrect())
+                .field("timeSpent", answer.getTimeSpent())
+                .endObject();
+        }
+        json.endArray();
+    }
+}
\ No newline at end of file
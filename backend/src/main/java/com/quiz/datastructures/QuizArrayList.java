@@ -0,0 +1,205 @@
+package com.quiz.datastructures;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Custom array-backed list for indexed question storage
+ * Same API as QuizLinkedList, but get(index) is O(1) instead of walking nodes,
+ * which matters once question banks grow past a handful of entries
+ */
+public class QuizArrayList<T> implements Iterable<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    private Object[] elements;
+    private int size;
+    private int modCount; // detects structural changes during iteration
+    
+    public QuizArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    public QuizArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity: " + initialCapacity);
+        }
+        this.elements = new Object[Math.max(1, initialCapacity)];
+        this.size = 0;
+    }
+    
+    /**
+     * Add element to the end of the list (amortized O(1))
+     */
+    public void add(T data) {
+        ensureCapacity(size + 1);
+        elements[size++] = data;
+        modCount++;
+    }
+    
+    /**
+     * Add element at specific index, shifting later elements right
+     */
+    public void add(int index, T data) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = data;
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * Add every element of an array in one copy
+     */
+    public void addAll(T[] items) {
+        ensureCapacity(size + items.length);
+        System.arraycopy(items, 0, elements, size, items.length);
+        size += items.length;
+        modCount++;
+    }
+    
+    /**
+     * Add every element of another collection in order
+     */
+    public void addAll(Iterable<? extends T> items) {
+        for (T item : items) {
+            add(item);
+        }
+    }
+    
+    /**
+     * Get element at specific index in O(1)
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) elements[index];
+    }
+    
+    /**
+     * Replace element at specific index, returning the old one
+     */
+    public T set(int index, T data) {
+        T previous = get(index);
+        elements[index] = data;
+        return previous;
+    }
+    
+    /**
+     * Remove element at specific index, shifting later elements left
+     */
+    public T remove(int index) {
+        T data = get(index);
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(elements, index + 1, elements, index, moved);
+        }
+        elements[--size] = null; // let the removed element be garbage collected
+        modCount++;
+        return data;
+    }
+    
+    /**
+     * Check if list contains element
+     */
+    public boolean contains(T data) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] != null && elements[i].equals(data)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Get size of the list
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Check if list is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Clear all elements
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[i] = null;
+        }
+        size = 0;
+        modCount++;
+    }
+    
+    /**
+     * Convert to array for easy iteration
+     */
+    @SuppressWarnings("unchecked")
+    public T[] toArray() {
+        Object[] array = new Object[size];
+        System.arraycopy(elements, 0, array, 0, size);
+        return (T[]) array;
+    }
+    
+    /**
+     * Iterate from first to last element
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final int expectedModCount = modCount;
+            private int cursor = 0;
+            
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+            
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                return (T) elements[cursor++];
+            }
+        };
+    }
+    
+    /**
+     * Display list contents (for debugging)
+     */
+    public void display() {
+        System.out.print("ArrayList: [");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) System.out.print(", ");
+            System.out.print(elements[i]);
+        }
+        System.out.println("]");
+    }
+    
+    /**
+     * Grow the backing array by 1.5x (or to the required size if larger)
+     */
+    private void ensureCapacity(int required) {
+        if (required > elements.length) {
+            int newCapacity = Math.max(required, elements.length + (elements.length >> 1) + 1);
+            Object[] grown = new Object[newCapacity];
+            System.arraycopy(elements, 0, grown, 0, size);
+            elements = grown;
+        }
+    }
+}
\ No newline at end of file
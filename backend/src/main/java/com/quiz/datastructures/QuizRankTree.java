@@ -0,0 +1,216 @@
+package com.quiz.datastructures;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Custom order-statistic tree (a treap whose nodes know their subtree size)
+ * Used by the leaderboard: insert, remove and "how many elements sort before x" are all
+ * O(log n) expected, and the first k elements are read in O(log n + k).
+ * Elements the comparator considers equal are kept once. Not thread-safe; callers lock.
+ */
+public class QuizRankTree<E> {
+    private final Comparator<? super E> comparator;
+    private Node<E> root;
+    
+    private static final class Node<E> {
+        final E value;
+        final int priority; // heap order on random priorities keeps the tree balanced in expectation
+        int size = 1;
+        Node<E> left;
+        Node<E> right;
+        
+        Node(E value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+    
+    public QuizRankTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+    
+    /**
+     * Add an element
+     * @return false if an equal element is already present
+     */
+    public boolean add(E value) {
+        int before = size();
+        root = insert(root, new Node<>(value, ThreadLocalRandom.current().nextInt()));
+        return size() != before;
+    }
+    
+    /**
+     * Remove an element
+     * @return false if no equal element was present
+     */
+    public boolean remove(E value) {
+        int before = size();
+        root = delete(root, value);
+        return size() != before;
+    }
+    
+    /**
+     * Count the elements that sort strictly before a value (which need not be in the tree)
+     */
+    public int countBefore(E value) {
+        int count = 0;
+        Node<E> node = root;
+        while (node != null) {
+            if (comparator.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+    
+    public boolean contains(E value) {
+        Node<E> node = root;
+        while (node != null) {
+            int c = comparator.compare(value, node.value);
+            if (c == 0) {
+                return true;
+            }
+            node = c < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+    
+    /**
+     * Get the first k elements in order (fewer if the tree is smaller)
+     */
+    public List<E> first(int k) {
+        List<E> result = new ArrayList<>(Math.max(0, Math.min(k, size())));
+        collect(root, k, result);
+        return result;
+    }
+    
+    /**
+     * Get the last element in order, or null if empty
+     */
+    public E last() {
+        Node<E> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.value;
+    }
+    
+    public int size() {
+        return size(root);
+    }
+    
+    public boolean isEmpty() {
+        return root == null;
+    }
+    
+    public void clear() {
+        root = null;
+    }
+    
+    // Treap operations
+    
+    private Node<E> insert(Node<E> node, Node<E> added) {
+        if (node == null) {
+            return added;
+        }
+        int c = comparator.compare(added.value, node.value);
+        if (c == 0) {
+            return node;
+        }
+        if (c < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+    
+    private Node<E> delete(Node<E> node, E value) {
+        if (node == null) {
+            return null;
+        }
+        int c = comparator.compare(value, node.value);
+        if (c < 0) {
+            node.left = delete(node.left, value);
+        } else if (c > 0) {
+            node.right = delete(node.right, value);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+    
+    /**
+     * Join two treaps where every element of left sorts before every element of right
+     */
+    private Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+    
+    private void collect(Node<E> node, int k, List<E> result) {
+        if (node == null || result.size() >= k) {
+            return;
+        }
+        collect(node.left, k, result);
+        if (result.size() < k) {
+            result.add(node.value);
+            collect(node.right, k, result);
+        }
+    }
+    
+    private Node<E> rotateRight(Node<E> node) {
+        Node<E> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+    
+    private Node<E> rotateLeft(Node<E> node) {
+        Node<E> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+    
+    private static <E> void update(Node<E> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+    
+    private static <E> int size(Node<E> node) {
+        return node == null ? 0 : node.size;
+    }
+}
\ No newline at end of file
@@ -1,25 +1,29 @@
 package com.quiz.datastructures;
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * Custom Stack implementation for managing quiz questions
  * Priority 1 Data Structure - Used for question navigation and undo operations
+ * Backed by a growable array so push/pop allocate no nodes and the contents can be
+ * read bottom-to-top (oldest first) without popping anything
  */
-public class QuizStack<T> {
-    private Node<T> top;
+public class QuizStack<T> implements Iterable<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    private Object[] elements;
     private int size;
+    private int modCount; // detects pushes/pops during iteration
     
-    private static class Node<T> {
-        T data;
-        Node<T> next;
-        
-        Node(T data) {
-            this.data = data;
-            this.next = null;
-        }
+    public QuizStack() {
+        this(DEFAULT_CAPACITY);
     }
     
-    public QuizStack() {
-        this.top = null;
+    public QuizStack(int initialCapacity) {
+        this.elements = new Object[Math.max(1, initialCapacity)];
         this.size = 0;
     }
     
@@ -27,40 +31,43 @@ public class QuizStack<T> {
      * Push an element onto the stack
      */
     public void push(T data) {
-        Node<T> newNode = new Node<>(data);
-        newNode.next = top;
-        top = newNode;
-        size++;
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        elements[size++] = data;
+        modCount++;
     }
     
     /**
      * Pop an element from the stack
      */
+    @SuppressWarnings("unchecked")
     public T pop() {
         if (isEmpty()) {
             throw new RuntimeException("Stack is empty - cannot pop");
         }
-        T data = top.data;
-        top = top.next;
-        size--;
+        T data = (T) elements[--size];
+        elements[size] = null; // let the popped element be garbage collected
+        modCount++;
         return data;
     }
     
     /**
      * Peek at the top element without removing it
      */
+    @SuppressWarnings("unchecked")
     public T peek() {
         if (isEmpty()) {
             return null;
         }
-        return top.data;
+        return (T) elements[size - 1];
     }
     
     /**
      * Check if stack is empty
      */
     public boolean isEmpty() {
-        return top == null;
+        return size == 0;
     }
     
     /**
@@ -74,19 +81,62 @@ public class QuizStack<T> {
      * Clear all elements from the stack
      */
     public void clear() {
-        top = null;
+        Arrays.fill(elements, 0, size, null);
         size = 0;
+        modCount++;
+    }
+    
+    /**
+     * Snapshot of the contents from bottom to top (oldest first) in a single copy
+     * The runtime type of the result matches the given array, e.g. toArray(new UserAnswer[0])
+     */
+    @SuppressWarnings("unchecked")
+    public T[] toArray(T[] target) {
+        if (target.length < size) {
+            return (T[]) Arrays.copyOf(elements, size, target.getClass());
+        }
+        System.arraycopy(elements, 0, target, 0, size);
+        if (target.length > size) {
+            target[size] = null;
+        }
+        return target;
+    }
+    
+    /**
+     * Iterate from bottom to top (oldest first) without modifying the stack
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final int expectedModCount = modCount;
+            private int cursor = 0;
+            
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+            
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                return (T) elements[cursor++];
+            }
+        };
     }
     
     /**
      * Display stack contents (for debugging)
      */
     public void display() {
-        Node<T> current = top;
         System.out.print("Stack (top to bottom): ");
-        while (current != null) {
-            System.out.print(current.data + " -> ");
-            current = current.next;
+        for (int i = size - 1; i >= 0; i--) {
+            System.out.print(elements[i] + " -> ");
         }
         System.out.println("null");
     }
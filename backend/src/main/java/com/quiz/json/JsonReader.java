@@ -0,0 +1,351 @@
+package com.quiz.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming pull parser for RFC 8259 JSON, the reading counterpart of JsonWriter
+ * Values are consumed one token at a time, so large documents (question banks with 100k+ entries)
+ * are never held as a tree. Malformed input fails with an IOException naming the line.
+ */
+public final class JsonReader implements Closeable {
+    
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+    
+    private static final int MAX_DEPTH = 64;
+    
+    // Scope of each nesting level
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+    
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int line = 1;
+    
+    private final int[] scopes = new int[MAX_DEPTH];
+    private int depth;
+    
+    private Token peeked;
+    private String peekedText; // name, string, number or literal text of the peeked token
+    private final StringBuilder text = new StringBuilder();
+    
+    public JsonReader(Reader in) {
+        this.in = in;
+        this.scopes[0] = EMPTY_DOCUMENT;
+        this.depth = 1;
+    }
+    
+    /**
+     * Get the type of the next token without consuming it
+     */
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int c;
+        switch (scopes[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                return readValue(nextNonWhitespace("a value"));
+            case NONEMPTY_DOCUMENT:
+                c = nextNonWhitespace(null);
+                if (c != -1) {
+                    throw syntaxError("Unexpected content after the document");
+                }
+                return peeked = Token.END_DOCUMENT;
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace("a value or ']'");
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                return readValue(c);
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace("',' or ']'");
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or ']'");
+                }
+                return readValue(nextNonWhitespace("a value"));
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace("a name or '}'");
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                if (scopes[depth - 1] == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Expected ',' or '}'");
+                    }
+                    c = nextNonWhitespace("a name");
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected a quoted name");
+                }
+                peekedText = readString();
+                scopes[depth - 1] = DANGLING_NAME;
+                return peeked = Token.NAME;
+            case DANGLING_NAME:
+                if (nextNonWhitespace("':'") != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                return readValue(nextNonWhitespace("a value"));
+            default:
+                throw new IllegalStateException("Unknown scope " + scopes[depth - 1]);
+        }
+    }
+    
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+    
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+    
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+    
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+    
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+    
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return peekedText;
+    }
+    
+    public String nextString() throws IOException {
+        expect(Token.STRING);
+        return peekedText;
+    }
+    
+    public int nextInt() throws IOException {
+        expect(Token.NUMBER);
+        try {
+            return Integer.parseInt(peekedText);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected an integer but was " + peekedText);
+        }
+    }
+    
+    public long nextLong() throws IOException {
+        expect(Token.NUMBER);
+        try {
+            return Long.parseLong(peekedText);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected an integer but was " + peekedText);
+        }
+    }
+    
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return "true".equals(peekedText);
+    }
+    
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+    
+    /**
+     * Skip the next value, including everything nested inside it
+     */
+    public void skipValue() throws IOException {
+        int nesting = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT: beginObject(); nesting++; break;
+                case BEGIN_ARRAY: beginArray(); nesting++; break;
+                case END_OBJECT: endObject(); nesting--; break;
+                case END_ARRAY: endArray(); nesting--; break;
+                case END_DOCUMENT: throw syntaxError("Unexpected end of document");
+                default: peeked = null; break; // name or scalar
+            }
+        } while (nesting > 0);
+    }
+    
+    /**
+     * Current line, for error messages
+     */
+    public int getLine() {
+        return line;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+    
+    // Tokenizer
+    
+    private void expect(Token token) throws IOException {
+        Token actual = peek();
+        if (actual != token) {
+            throw syntaxError("Expected " + token + " but was " + actual);
+        }
+        peeked = null;
+    }
+    
+    private void push(int scope) throws IOException {
+        if (depth == MAX_DEPTH) {
+            throw syntaxError("Nesting deeper than " + MAX_DEPTH);
+        }
+        scopes[depth++] = scope;
+    }
+    
+    private Token readValue(int c) throws IOException {
+        switch (c) {
+            case '{': return peeked = Token.BEGIN_OBJECT;
+            case '[': return peeked = Token.BEGIN_ARRAY;
+            case '"':
+                peekedText = readString();
+                return peeked = Token.STRING;
+            default:
+                break;
+        }
+        
+        // Literal: true, false, null or a number
+        text.setLength(0);
+        text.append((char) c);
+        while (fill()) {
+            char next = buffer[position];
+            if (!Character.isLetterOrDigit(next) && next != '-' && next != '+' && next != '.') {
+                break;
+            }
+            text.append(next);
+            position++;
+        }
+        peekedText = text.toString();
+        switch (peekedText) {
+            case "true":
+            case "false":
+                return peeked = Token.BOOLEAN;
+            case "null":
+                return peeked = Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return peeked = Token.NUMBER;
+                }
+                throw syntaxError("Unexpected value " + peekedText);
+        }
+    }
+    
+    /**
+     * Read a string body; the opening quote has already been consumed
+     */
+    private String readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            if (!fill()) {
+                throw syntaxError("Unterminated string");
+            }
+            char c = buffer[position++];
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c == '\\') {
+                text.append(readEscape());
+            } else if (c < 0x20) {
+                throw syntaxError("Unescaped control character in string");
+            } else {
+                text.append(c);
+            }
+        }
+    }
+    
+    private char readEscape() throws IOException {
+        if (!fill()) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+        char c = buffer[position++];
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    if (!fill()) {
+                        throw syntaxError("Unterminated escape sequence");
+                    }
+                    int digit = Character.digit(buffer[position++], 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid \\u escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw syntaxError("Invalid escape \\" + c);
+        }
+    }
+    
+    /**
+     * Consume whitespace and return the next character (-1 at end of input)
+     * @param expected what the caller needs next; end of input is an error unless null
+     */
+    private int nextNonWhitespace(String expected) throws IOException {
+        while (fill()) {
+            char c = buffer[position++];
+            if (c == '\n') {
+                line++;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return c;
+            }
+        }
+        if (expected != null) {
+            throw syntaxError("Unexpected end of input, expected " + expected);
+        }
+        return -1;
+    }
+    
+    /**
+     * Make sure at least one character is buffered; false at end of input
+     */
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            position = 0;
+            limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+    
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at line " + line);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,354 @@
+package com.quiz.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Streaming JSON writer that encodes straight into a reusable UTF-8 byte buffer
+ * Commas and nesting are tracked automatically, strings are fully escaped per RFC 8259,
+ * and size() is the exact byte length to send as Content-Length
+ * Writers are pooled: acquire() one per response and release() it after writing
+ */
+public final class JsonWriter {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+    private static final int MAX_DEPTH = 32;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    
+    // Small striped pool; threads map onto slots by ID so acquire/release is one atomic swap
+    private static final int POOL_SLOTS = 64;
+    private static final AtomicReferenceArray<JsonWriter> POOL = new AtomicReferenceArray<>(POOL_SLOTS);
+    
+    private byte[] buffer;
+    private int size;
+    private final boolean[] needsComma = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+    
+    public JsonWriter() {
+        this(INITIAL_CAPACITY);
+    }
+    
+    public JsonWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+    
+    /**
+     * Take a cleared writer from the pool, or create one if the slot is empty
+     */
+    public static JsonWriter acquire() {
+        int slot = (int) (Thread.currentThread().getId() & (POOL_SLOTS - 1));
+        JsonWriter writer = POOL.getAndSet(slot, null);
+        return writer != null ? writer : new JsonWriter();
+    }
+    
+    /**
+     * Return a writer to the pool; oversized buffers are left for the garbage collector
+     */
+    public static void release(JsonWriter writer) {
+        if (writer == null || writer.buffer.length > MAX_POOLED_CAPACITY) {
+            return;
+        }
+        writer.reset();
+        int slot = (int) (Thread.currentThread().getId() & (POOL_SLOTS - 1));
+        POOL.lazySet(slot, writer);
+    }
+    
+    public JsonWriter reset() {
+        size = 0;
+        depth = 0;
+        afterName = false;
+        needsComma[0] = false;
+        return this;
+    }
+    
+    // Structure
+    
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+    
+    public JsonWriter endObject() {
+        return close('}');
+    }
+    
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+    
+    public JsonWriter endArray() {
+        return close(']');
+    }
+    
+    /**
+     * Write an object member name; the next value call supplies its value
+     */
+    public JsonWriter name(String name) {
+        separator();
+        writeString(name);
+        writeByte(':');
+        afterName = true;
+        return this;
+    }
+    
+    // Values
+    
+    public JsonWriter value(String value) {
+        separator();
+        if (value == null) {
+            writeBytes(NULL);
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+    
+    public JsonWriter value(boolean value) {
+        separator();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+    
+    public JsonWriter value(long value) {
+        separator();
+        writeLong(value);
+        return this;
+    }
+    
+    /**
+     * Write a number rounded to one decimal place (e.g. 66.7) without String.format
+     */
+    public JsonWriter valueOneDecimal(double value) {
+        separator();
+        long tenths = Math.round(value * 10);
+        if (tenths < 0) {
+            writeByte('-');
+            tenths = -tenths;
+        }
+        writeLong(tenths / 10);
+        writeByte('.');
+        writeByte('0' + (int) (tenths % 10));
+        return this;
+    }
+    
+    public JsonWriter nullValue() {
+        separator();
+        writeBytes(NULL);
+        return this;
+    }
+    
+    /**
+     * Write an already-encoded JSON value (UTF-8 bytes) as the next value
+     */
+    public JsonWriter rawValue(byte[] json) {
+        separator();
+        writeBytes(json);
+        return this;
+    }
+    
+    /**
+     * Write already-encoded members ("a":1,"b":2 without braces) into the open object
+     * Lets fixed parts of a body be encoded once and spliced between per-request fields
+     */
+    public JsonWriter rawMembers(byte[] members) {
+        if (members.length > 0) {
+            separator();
+            writeBytes(members);
+        }
+        return this;
+    }
+    
+    // Shortcuts for object members
+    
+    public JsonWriter field(String name, String value) {
+        return name(name).value(value);
+    }
+    
+    public JsonWriter field(String name, boolean value) {
+        return name(name).value(value);
+    }
+    
+    public JsonWriter field(String name, long value) {
+        return name(name).value(value);
+    }
+    
+    public JsonWriter field(String name, String[] values) {
+        name(name).beginArray();
+        if (values != null) {
+            for (String value : values) {
+                value(value);
+            }
+        }
+        return endArray();
+    }
+    
+    // Output
+    
+    /**
+     * Exact number of encoded bytes
+     */
+    public int size() {
+        return size;
+    }
+    
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+    
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+    
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+    
+    // Internals
+    
+    private JsonWriter open(char bracket) {
+        separator();
+        writeByte(bracket);
+        if (++depth >= MAX_DEPTH) {
+            throw new IllegalStateException("JSON nesting too deep");
+        }
+        needsComma[depth] = false;
+        return this;
+    }
+    
+    private JsonWriter close(char bracket) {
+        if (depth == 0) {
+            throw new IllegalStateException("No open JSON container to close");
+        }
+        depth--;
+        writeByte(bracket);
+        return this;
+    }
+    
+    /**
+     * Emit a comma between siblings; a value directly after name() needs none
+     */
+    private void separator() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (needsComma[depth]) {
+            writeByte(',');
+        } else {
+            needsComma[depth] = true;
+        }
+    }
+    
+    private void writeString(String text) {
+        ensureCapacity(text.length() * 3 + 2);
+        byte[] buf = buffer;
+        int pos = size;
+        buf[pos++] = '"';
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buf[pos++] = (byte) c;
+                    continue;
+                }
+                // Escapes take up to 6 bytes instead of the 3 reserved per char
+                size = pos;
+                ensureCapacity((length - i) * 3 + 8);
+                buf = buffer;
+                pos = writeEscape(buf, pos, c);
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?'; // unpaired surrogate cannot be encoded as UTF-8
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buf[pos++] = '"';
+        size = pos;
+    }
+    
+    private static int writeEscape(byte[] buf, int pos, char c) {
+        buf[pos++] = '\\';
+        switch (c) {
+            case '"': buf[pos++] = '"'; break;
+            case '\\': buf[pos++] = '\\'; break;
+            case '\n': buf[pos++] = 'n'; break;
+            case '\r': buf[pos++] = 'r'; break;
+            case '\t': buf[pos++] = 't'; break;
+            case '\b': buf[pos++] = 'b'; break;
+            case '\f': buf[pos++] = 'f'; break;
+            default:
+                buf[pos++] = 'u';
+                buf[pos++] = '0';
+                buf[pos++] = '0';
+                buf[pos++] = HEX[(c >> 4) & 0xF];
+                buf[pos++] = HEX[c & 0xF];
+        }
+        return pos;
+    }
+    
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int start = size;
+        do {
+            buffer[size++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value > 0);
+        // Digits were written least-significant first
+        for (int left = start, right = size - 1; left < right; left++, right--) {
+            byte tmp = buffer[left];
+            buffer[left] = buffer[right];
+            buffer[right] = tmp;
+        }
+    }
+    
+    private void writeAscii(String ascii) {
+        ensureCapacity(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            buffer[size++] = (byte) ascii.charAt(i);
+        }
+    }
+    
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) b;
+    }
+    
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+    
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.quiz.loadtest;
+
+/**
+ * Quiz API calls made by a simulated player, in the order frontend/script.js makes them
+ */
+public enum Endpoint {
+    START("POST /api/quiz/start"),
+    QUESTION("GET /api/quiz/question"),
+    ANSWER("POST /api/quiz/answer"),
+    RESULTS("GET /api/quiz/results"),
+    RESET("POST /api/quiz/reset");
+    
+    private final String label;
+    
+    Endpoint(String label) {
+        this.label = label;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.quiz.loadtest;
+
+/**
+ * LatencyHistogram records latencies in microseconds into log-linear buckets
+ * Buckets are exact below 128us and within ~1.6% above, so p99.9 stays accurate without
+ * storing every sample. Not thread-safe: each simulated player records into its own
+ * histograms, which are merged once the run ends.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 64 buckets per power of two
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;     // values below this are recorded exactly
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long maxValue;
+    private long sum;
+    
+    /**
+     * Record one latency in microseconds (negative values count as zero)
+     */
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts[bucketOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value > maxValue) {
+            maxValue = value;
+        }
+    }
+    
+    /**
+     * Add every sample recorded by another histogram to this one
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+    
+    public long getCount() {
+        return totalCount;
+    }
+    
+    public long getMax() {
+        return maxValue;
+    }
+    
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+    
+    /**
+     * Get the latency at a percentile (0-100), reported as the upper bound of its bucket
+     */
+    public long getPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+    
+    // Bucket layout: [0, 128) one bucket per value, then 64 buckets per power of two
+    
+    private static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift); // in [64, 128)
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (mantissa - SUB_BUCKETS);
+    }
+    
+    private static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long mantissa = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
\ No newline at end of file
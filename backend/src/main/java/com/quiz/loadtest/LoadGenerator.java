@@ -0,0 +1,148 @@
+package com.quiz.loadtest;
+
+import com.quiz.QuizApplication;
+import com.quiz.logging.Log;
+import com.quiz.server.RequestExecutor;
+import com.quiz.server.ServerConfig;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoadGenerator runs N simulated players against the quiz API and reports throughput and
+ * per-endpoint latency percentiles, for sizing how many players one server can hold
+ *
+ * Usage: java -cp bin com.quiz.loadtest.LoadGenerator [--target=http://host:port] [--players=50]
+ *        [--duration=30] [--warmup=5] [--think-time=0] [--timeout=10] [server flags...]
+ * Without --target an in-process server is started on a free port, configured by the same
+ * flags as QuizApplication (--executor, --workers, --queue-depth, ...).
+ */
+public class LoadGenerator {
+    
+    public static void main(String[] args) throws Exception {
+        ServerConfig config = ServerConfig.fromArgs(args);
+        Log.configure(
+            Log.Level.parse(config.getString("log-level", "QUIZ_LOG_LEVEL", "warn")),
+            config.getInt("log-buffer", "QUIZ_LOG_BUFFER", 8192),
+            System.out
+        );
+        
+        int players = Math.max(1, config.getInt("players", null, 50));
+        int durationSeconds = Math.max(1, config.getInt("duration", null, 30));
+        int warmupSeconds = Math.max(0, config.getInt("warmup", null, 5));
+        long thinkTimeMillis = Math.max(0, config.getInt("think-time", null, 0));
+        Duration requestTimeout = Duration.ofSeconds(Math.max(1, config.getInt("timeout", null, 10)));
+        String target = config.getString("target", null, null);
+        
+        HttpServer server = null;
+        RequestExecutor executor = null;
+        List<Closeable> resources = new ArrayList<>();
+        if (target == null) {
+            executor = RequestExecutor.fromConfig(config);
+            server = QuizApplication.createServer(config, 0, executor, resources);
+            server.start();
+            target = "http://localhost:" + server.getAddress().getPort();
+            System.out.println("Started in-process server on " + target + " (executor: " + executor + ")");
+        } else if (target.endsWith("/")) {
+            target = target.substring(0, target.length() - 1);
+        }
+        
+        System.out.println("Driving " + players + " players against " + target + " for " + warmupSeconds
+            + "s warmup + " + durationSeconds + "s measured, think time " + thinkTimeMillis + "ms");
+        
+        try {
+            List<SimulatedPlayer> results = run(target, players, warmupSeconds, durationSeconds, thinkTimeMillis, requestTimeout);
+            report(results, durationSeconds);
+        } finally {
+            if (server != null) {
+                server.stop(0);
+                executor.shutdown();
+                QuizApplication.closeAll(resources);
+            }
+        }
+    }
+    
+    /**
+     * Run every player on its own thread until the measurement window closes
+     */
+    private static List<SimulatedPlayer> run(String target, int players, int warmupSeconds, int durationSeconds,
+                                             long thinkTimeMillis, Duration requestTimeout) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(requestTimeout)
+            .build();
+        
+        long now = System.nanoTime();
+        long measureStartNanos = now + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long endNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        
+        List<SimulatedPlayer> simulated = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= players; i++) {
+            SimulatedPlayer player = new SimulatedPlayer(i, client, target, requestTimeout, thinkTimeMillis, measureStartNanos, endNanos);
+            Thread thread = new Thread(player, "quiz-load-player-" + i);
+            thread.setDaemon(true);
+            simulated.add(player);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return simulated;
+    }
+    
+    private static void report(List<SimulatedPlayer> players, int durationSeconds) {
+        long completedQuizzes = 0;
+        String firstError = null;
+        for (SimulatedPlayer player : players) {
+            completedQuizzes += player.getCompletedQuizzes();
+            if (firstError == null) {
+                firstError = player.getFirstError();
+            }
+        }
+        
+        System.out.println();
+        System.out.println(String.format("%-24s %10s %8s %10s %9s %9s %9s %9s %9s",
+            "Endpoint", "Requests", "Errors", "Req/s", "Mean ms", "p50 ms", "p99 ms", "p99.9 ms", "Max ms"));
+        
+        LatencyHistogram all = new LatencyHistogram();
+        long allErrors = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencyHistogram merged = new LatencyHistogram();
+            long errors = 0;
+            for (SimulatedPlayer player : players) {
+                merged.merge(player.getLatencies(endpoint));
+                errors += player.getErrors(endpoint);
+            }
+            all.merge(merged);
+            allErrors += errors;
+            printRow(endpoint.getLabel(), merged, errors, durationSeconds);
+        }
+        printRow("All requests", all, allErrors, durationSeconds);
+        
+        System.out.println();
+        System.out.println(String.format("Completed quizzes: %d (%.1f/s)", completedQuizzes, (double) completedQuizzes / durationSeconds));
+        if (firstError != null) {
+            System.out.println("First error: " + firstError);
+        }
+    }
+    
+    private static void printRow(String label, LatencyHistogram histogram, long errors, int durationSeconds) {
+        System.out.println(String.format("%-24s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+            label,
+            histogram.getCount(),
+            errors,
+            (double) histogram.getCount() / durationSeconds,
+            histogram.getMean() / 1000.0,
+            histogram.getPercentile(50) / 1000.0,
+            histogram.getPercentile(99) / 1000.0,
+            histogram.getPercentile(99.9) / 1000.0,
+            histogram.getMax() / 1000.0));
+    }
+}
\ No newline at end of file
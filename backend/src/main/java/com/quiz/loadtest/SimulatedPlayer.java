@@ -0,0 +1,224 @@
+package com.quiz.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SimulatedPlayer drives one closed-loop player: start, then question/answer until the quiz
+ * is over, then results and reset, then start again - each request waits for the previous one
+ * Requests mirror frontend/script.js (form bodies, the ?t= cache buster and no-cache headers on
+ * /question) and carry the QUIZ_SESSION cookie the way a browser would.
+ */
+public class SimulatedPlayer implements Runnable {
+    private static final int OPTION_COUNT = 4;
+    
+    private final int playerNumber;
+    private final HttpClient client;
+    private final String apiBase;
+    private final Duration requestTimeout;
+    private final long thinkTimeMillis;
+    private final long measureStartNanos;
+    private final long endNanos;
+    
+    private final LatencyHistogram[] latencies;
+    private final long[] errors;
+    private long completedQuizzes;
+    private String firstError;
+    private String sessionCookie;
+    
+    public SimulatedPlayer(int playerNumber, HttpClient client, String baseUrl, Duration requestTimeout,
+                           long thinkTimeMillis, long measureStartNanos, long endNanos) {
+        this.playerNumber = playerNumber;
+        this.client = client;
+        this.apiBase = baseUrl + "/api/quiz";
+        this.requestTimeout = requestTimeout;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.measureStartNanos = measureStartNanos;
+        this.endNanos = endNanos;
+        this.latencies = new LatencyHistogram[Endpoint.values().length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        this.errors = new long[Endpoint.values().length];
+    }
+    
+    @Override
+    public void run() {
+        try {
+            while (System.nanoTime() < endNanos) {
+                if (playOneQuiz() && isMeasuring()) {
+                    completedQuizzes++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Play one quiz from start to reset; false if the run ended or a request failed part way
+     */
+    private boolean playOneQuiz() throws InterruptedException {
+        String playerName = URLEncoder.encode("Load Player " + playerNumber, StandardCharsets.UTF_8);
+        HttpResponse<String> started = send(Endpoint.START, HttpRequest.newBuilder(URI.create(apiBase + "/start"))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString("playerName=" + playerName)));
+        if (started == null) {
+            return false;
+        }
+        sessionCookie = started.headers().firstValue("Set-Cookie")
+            .map(header -> header.substring(0, header.indexOf(';') > 0 ? header.indexOf(';') : header.length()))
+            .orElse(null);
+        int totalQuestions = intField(started.body(), "totalQuestions");
+        
+        // The frontend keeps asking until the server says the quiz is over or it has shown the last question
+        for (int asked = 0; asked < Math.max(totalQuestions, 1) * 2; asked++) {
+            think();
+            HttpResponse<String> question = send(Endpoint.QUESTION, withSession(URI.create(apiBase + "/question?t=" + System.currentTimeMillis()))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header("Cache-Control", "no-cache, no-store, must-revalidate")
+                .header("Pragma", "no-cache")
+                .header("Expires", "0")
+                .GET(), 404);
+            if (question == null) {
+                return false;
+            }
+            if (question.statusCode() == 404) {
+                break; // "No active quiz session or quiz completed" - the frontend loads results
+            }
+            int questionNumber = intField(question.body(), "questionNumber");
+            long shownAtMillis = System.currentTimeMillis();
+            
+            think();
+            int selectedAnswer = ThreadLocalRandom.current().nextInt(OPTION_COUNT);
+            long timeSpent = System.currentTimeMillis() - shownAtMillis;
+            HttpResponse<String> answer = send(Endpoint.ANSWER, withSession(URI.create(apiBase + "/answer"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("selectedAnswer=" + selectedAnswer + "&timeSpent=" + timeSpent)));
+            if (answer == null) {
+                return false;
+            }
+            if (answer.body().contains("\"isQuizCompleted\":true") || questionNumber >= totalQuestions) {
+                break;
+            }
+        }
+        
+        think();
+        if (send(Endpoint.RESULTS, withSession(URI.create(apiBase + "/results")).GET()) == null) {
+            return false;
+        }
+        
+        // "Play again" resets the session before starting a new one
+        think();
+        return send(Endpoint.RESET, withSession(URI.create(apiBase + "/reset"))
+            .POST(HttpRequest.BodyPublishers.noBody())) != null;
+    }
+    
+    private HttpRequest.Builder withSession(URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri);
+        if (sessionCookie != null) {
+            builder.header("Cookie", sessionCookie);
+        }
+        return builder;
+    }
+    
+    private HttpResponse<String> send(Endpoint endpoint, HttpRequest.Builder request) throws InterruptedException {
+        return send(endpoint, request, 200);
+    }
+    
+    /**
+     * Send a request and record its latency; null when the run is over or the request failed
+     * @param alsoAccepted a non-2xx status the flow expects (still recorded as a success)
+     */
+    private HttpResponse<String> send(Endpoint endpoint, HttpRequest.Builder request, int alsoAccepted) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        if (startNanos >= endNanos) {
+            return null;
+        }
+        boolean measured = startNanos >= measureStartNanos;
+        try {
+            HttpResponse<String> response = client.send(request.timeout(requestTimeout).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            long elapsedMicros = (System.nanoTime() - startNanos) / 1000;
+            int status = response.statusCode();
+            boolean ok = (status >= 200 && status < 300) || status == alsoAccepted;
+            if (measured) {
+                latencies[endpoint.ordinal()].record(elapsedMicros);
+                if (!ok) {
+                    recordError(endpoint, "HTTP " + status + " from " + endpoint.getLabel());
+                }
+            }
+            return ok ? response : null;
+        } catch (IOException e) {
+            if (measured) {
+                recordError(endpoint, e.getClass().getSimpleName() + " from " + endpoint.getLabel() + ": " + e.getMessage());
+            }
+            return null;
+        }
+    }
+    
+    private void recordError(Endpoint endpoint, String message) {
+        errors[endpoint.ordinal()]++;
+        if (firstError == null) {
+            firstError = message;
+        }
+    }
+    
+    /**
+     * Pause like a player reading the screen (uniformly 50-150% of the configured think time)
+     */
+    private void think() throws InterruptedException {
+        if (thinkTimeMillis > 0) {
+            long pause = thinkTimeMillis / 2 + ThreadLocalRandom.current().nextLong(thinkTimeMillis + 1);
+            long remainingMillis = (endNanos - System.nanoTime()) / 1_000_000;
+            Thread.sleep(Math.max(0, Math.min(pause, remainingMillis)));
+        }
+    }
+    
+    private boolean isMeasuring() {
+        long now = System.nanoTime();
+        return now >= measureStartNanos && now < endNanos;
+    }
+    
+    /**
+     * Read an integer field from a flat JSON body without a JSON parser (0 if absent)
+     */
+    private static int intField(String json, String name) {
+        String key = "\"" + name + "\":";
+        int start = json.indexOf(key);
+        if (start < 0) {
+            return 0;
+        }
+        int position = start + key.length();
+        int value = 0;
+        while (position < json.length() && Character.isDigit(json.charAt(position))) {
+            value = value * 10 + (json.charAt(position) - '0');
+            position++;
+        }
+        return value;
+    }
+    
+    public LatencyHistogram getLatencies(Endpoint endpoint) {
+        return latencies[endpoint.ordinal()];
+    }
+    
+    public long getErrors(Endpoint endpoint) {
+        return errors[endpoint.ordinal()];
+    }
+    
+    public long getCompletedQuizzes() {
+        return completedQuizzes;
+    }
+    
+    public String getFirstError() {
+        return firstError;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.quiz.logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous leveled logging for the quiz server
+ * Calls below the configured level return after a single field check; enabled calls copy
+ * their template and arguments into a lock-free ring buffer, and a background writer thread
+ * does all formatting and console I/O off the request path
+ * Use {} placeholders instead of string concatenation so disabled calls build nothing
+ * Arguments are formatted later on the writer thread, without any lock the caller held, so pass
+ * immutable values (IDs, numbers, strings) rather than objects another request may be changing
+ */
+public final class Log {
+    
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF;
+        
+        public static Level parse(String value) {
+            try {
+                return Level.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return INFO;
+            }
+        }
+    }
+    
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    // Level ordinals as constants, so each call site's level check is one int compare that cannot drift from the enum
+    private static final int DEBUG = Level.DEBUG.ordinal();
+    private static final int INFO = Level.INFO.ordinal();
+    private static final int WARN = Level.WARN.ordinal();
+    private static final int ERROR = Level.ERROR.ordinal();
+    
+    // Written once at startup before request threads exist, so a plain field is enough
+    private static int threshold = INFO;
+    private static LogRingBuffer buffer = new LogRingBuffer(8192);
+    private static PrintStream out = System.out;
+    private static Thread writer;
+    
+    private Log() {
+    }
+    
+    /**
+     * Set the level, buffer size and destination; call once at startup before logging
+     */
+    public static synchronized void configure(Level level, int bufferCapacity, PrintStream destination) {
+        threshold = level.ordinal();
+        if (writer == null) {
+            buffer = new LogRingBuffer(bufferCapacity);
+            out = destination;
+        }
+        start();
+    }
+    
+    public static boolean isDebugEnabled() {
+        return threshold <= DEBUG;
+    }
+    
+    public static void debug(String template) {
+        if (threshold <= DEBUG) log(Level.DEBUG, template, null, null, null, null);
+    }
+    
+    public static void debug(String template, Object arg0) {
+        if (threshold <= DEBUG) log(Level.DEBUG, template, arg0, null, null, null);
+    }
+    
+    public static void debug(String template, Object arg0, Object arg1) {
+        if (threshold <= DEBUG) log(Level.DEBUG, template, arg0, arg1, null, null);
+    }
+    
+    public static void debug(String template, Object arg0, Object arg1, Object arg2) {
+        if (threshold <= DEBUG) log(Level.DEBUG, template, arg0, arg1, arg2, null);
+    }
+    
+    public static void info(String template) {
+        if (threshold <= INFO) log(Level.INFO, template, null, null, null, null);
+    }
+    
+    public static void info(String template, Object arg0) {
+        if (threshold <= INFO) log(Level.INFO, template, arg0, null, null, null);
+    }
+    
+    public static void info(String template, Object arg0, Object arg1) {
+        if (threshold <= INFO) log(Level.INFO, template, arg0, arg1, null, null);
+    }
+    
+    public static void info(String template, Object arg0, Object arg1, Object arg2) {
+        if (threshold <= INFO) log(Level.INFO, template, arg0, arg1, arg2, null);
+    }
+    
+    public static void warn(String template) {
+        if (threshold <= WARN) log(Level.WARN, template, null, null, null, null);
+    }
+    
+    public static void warn(String template, Object arg0) {
+        if (threshold <= WARN) log(Level.WARN, template, arg0, null, null, null);
+    }
+    
+    public static void warn(String template, Object arg0, Object arg1) {
+        if (threshold <= WARN) log(Level.WARN, template, arg0, arg1, null, null);
+    }
+    
+    public static void warn(String template, Object arg0, Object arg1, Object arg2) {
+        if (threshold <= WARN) log(Level.WARN, template, arg0, arg1, arg2, null);
+    }
+    
+    public static void error(String template, Throwable error) {
+        if (threshold <= ERROR) log(Level.ERROR, template, null, null, null, error);
+    }
+    
+    public static void error(String template, Object arg0, Throwable error) {
+        if (threshold <= ERROR) log(Level.ERROR, template, arg0, null, null, error);
+    }
+    
+    private static void log(Level level, String template, Object arg0, Object arg1, Object arg2, Throwable error) {
+        if (writer == null) {
+            start();
+        }
+        buffer.offer(level, template, arg0, arg1, arg2, error);
+    }
+    
+    /**
+     * Start the background writer (idempotent) and flush remaining events on shutdown
+     */
+    private static synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(Log::drainLoop, "quiz-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::drainAll, "quiz-log-flush"));
+    }
+    
+    /**
+     * Write every event logged so far; for shutdown sequences that log on their way out
+     */
+    public static void flush() {
+        drainAll();
+    }
+    
+    private static void drainLoop() {
+        long parkNanos = 1000;
+        while (true) {
+            if (drainAll() > 0) {
+                parkNanos = 1000;
+            } else {
+                // Back off while idle so a quiet server costs almost no CPU
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos * 2, MAX_IDLE_PARK_NANOS);
+            }
+        }
+    }
+    
+    /**
+     * Write every published event; synchronized so the shutdown hook and writer never interleave
+     */
+    private static synchronized int drainAll() {
+        StringBuilder line = new StringBuilder(256);
+        int written = 0;
+        LogEvent event;
+        while ((event = buffer.poll()) != null) {
+            line.setLength(0);
+            line.append(Instant.ofEpochMilli(event.timestamp)).append(' ')
+                .append(event.level).append(event.level.name().length() == 4 ? "  [" : " [")
+                .append(event.threadName).append("] ");
+            event.formatMessage(line);
+            out.println(line);
+            if (event.error != null) {
+                event.error.printStackTrace(out);
+            }
+            buffer.release(event);
+            written++;
+        }
+        
+        long dropped = buffer.takeDropped();
+        if (dropped > 0) {
+            out.println(Instant.now() + " WARN  [quiz-log-writer] Log buffer full, dropped " + dropped + " events");
+        }
+        if (written > 0) {
+            out.flush();
+        }
+        return written;
+    }
+}
\ No newline at end of file
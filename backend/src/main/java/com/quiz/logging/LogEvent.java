@@ -0,0 +1,47 @@
+package com.quiz.logging;
+
+/**
+ * Mutable log record reused by LogRingBuffer slots
+ * Arguments are kept as references and only formatted on the writer thread
+ */
+class LogEvent {
+    Log.Level level;
+    long timestamp;
+    String threadName;
+    String template;
+    Object arg0;
+    Object arg1;
+    Object arg2;
+    Throwable error;
+    
+    void fill(Log.Level level, long timestamp, String threadName, String template,
+              Object arg0, Object arg1, Object arg2, Throwable error) {
+        this.level = level;
+        this.timestamp = timestamp;
+        this.threadName = threadName;
+        this.template = template;
+        this.arg0 = arg0;
+        this.arg1 = arg1;
+        this.arg2 = arg2;
+        this.error = error;
+    }
+    
+    void clear() {
+        fill(null, 0L, null, null, null, null, null, null);
+    }
+    
+    /**
+     * Substitute each {} placeholder in the template with the next argument
+     */
+    void formatMessage(StringBuilder out) {
+        Object[] args = {arg0, arg1, arg2};
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf("{}", start)) >= 0 && argIndex < args.length) {
+            out.append(template, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+        out.append(template, start, template.length());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.quiz.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring buffer of reusable log events (many producers, one consumer)
+ * Each slot carries a sequence number: producers claim a slot with a single CAS on the tail,
+ * fill the preallocated event in place and publish it by advancing the slot sequence
+ * A full buffer never blocks the caller - the event is dropped and counted instead
+ */
+class LogRingBuffer {
+    private final LogEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail;
+    private final AtomicLong dropped;
+    private final int mask;
+    private long head; // only touched by the single consumer thread
+    
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new LogEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LogEvent();
+            sequences.set(i, i);
+        }
+        this.tail = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.mask = capacity - 1;
+    }
+    
+    /**
+     * Claim a free slot and fill it; returns false (and counts a drop) when the buffer is full
+     */
+    boolean offer(Log.Level level, String template, Object arg0, Object arg1, Object arg2, Throwable error) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        
+        slots[index].fill(level, System.currentTimeMillis(), Thread.currentThread().getName(), template, arg0, arg1, arg2, error);
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+    
+    /**
+     * Take the next published event, or null if none is ready (consumer thread only)
+     * The caller must hand the event back through release() once it has been written
+     */
+    LogEvent poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        return slots[index];
+    }
+    
+    /**
+     * Clear the slot returned by poll() and make it available to producers again
+     */
+    void release(LogEvent event) {
+        int index = (int) (head & mask);
+        event.clear();
+        sequences.lazySet(index, head + slots.length);
+        head++;
+    }
+    
+    /**
+     * Get and reset the number of events dropped because the buffer was full
+     */
+    long takeDropped() {
+        return dropped.getAndSet(0);
+    }
+    
+    int capacity() {
+        return slots.length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.quiz.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram that many threads can record into without locking
+ * Every bucket is a LongAdder, so concurrent requests bump separate cells instead of fighting over
+ * one counter; a scrape sums the cells. Bounds run from 100us to 10s like the usual Prometheus
+ * latency buckets, with a final +Inf bucket.
+ */
+public final class Histogram {
+    private static final long[] BOUNDS_NANOS = {
+        100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L,
+        10_000_000L, 25_000_000L, 50_000_000L,
+        100_000_000L, 250_000_000L, 500_000_000L,
+        1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+    private static final String[] BOUND_LABELS = new String[BOUNDS_NANOS.length + 1];
+    
+    static {
+        for (int i = 0; i < BOUNDS_NANOS.length; i++) {
+            BOUND_LABELS[i] = BigDecimal.valueOf(BOUNDS_NANOS[i], 9).stripTrailingZeros().toPlainString();
+        }
+        BOUND_LABELS[BOUNDS_NANOS.length] = "+Inf";
+    }
+    
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+    
+    public Histogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Record one duration in nanoseconds (negative values count as zero)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int bucket = 0;
+        // Most requests finish in the first few buckets, so a linear scan beats a binary search
+        while (bucket < BOUNDS_NANOS.length && value > BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(value);
+    }
+    
+    /**
+     * Get the count in each bucket (not cumulative), the last one being +Inf
+     */
+    public long[] bucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+    
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+    
+    /**
+     * Get the "le" label of a bucket: its upper bound in seconds, or +Inf
+     */
+    public static String bucketLabel(int bucket) {
+        return BOUND_LABELS[bucket];
+    }
+}
\ No newline at end of file
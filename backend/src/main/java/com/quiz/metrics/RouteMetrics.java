@@ -0,0 +1,69 @@
+package com.quiz.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counts by status code and a latency histogram for one route
+ * Resolved once when the route is registered, so recording a request never looks anything up by name
+ */
+public final class RouteMetrics {
+    private static final int MAX_STATUS = 599;
+    
+    private final String route;
+    private final AtomicReferenceArray<LongAdder> statusCounts = new AtomicReferenceArray<>(MAX_STATUS + 1);
+    private final Histogram latency = new Histogram();
+    
+    RouteMetrics(String route) {
+        this.route = route;
+    }
+    
+    /**
+     * Record a finished request; status codes outside 100-599 are counted as 500
+     */
+    public void record(int status, long nanos) {
+        int code = status >= 100 && status <= MAX_STATUS ? status : 500;
+        LongAdder counter = statusCounts.get(code);
+        if (counter == null) {
+            // First request with this status; losing the race just means using the winner's counter
+            statusCounts.compareAndSet(code, null, new LongAdder());
+            counter = statusCounts.get(code);
+        }
+        counter.increment();
+        latency.record(nanos);
+    }
+    
+    public String getRoute() {
+        return route;
+    }
+    
+    /**
+     * Get number of requests answered with a status code
+     */
+    public long getCount(int status) {
+        LongAdder counter = status >= 0 && status <= MAX_STATUS ? statusCounts.get(status) : null;
+        return counter != null ? counter.sum() : 0;
+    }
+    
+    /**
+     * Get the status codes seen so far, ascending
+     */
+    int[] statuses() {
+        int seen = 0;
+        int[] codes = new int[8];
+        for (int code = 100; code <= MAX_STATUS; code++) {
+            if (statusCounts.get(code) != null) {
+                if (seen == codes.length) {
+                    codes = Arrays.copyOf(codes, seen * 2);
+                }
+                codes[seen++] = code;
+            }
+        }
+        return Arrays.copyOf(codes, seen);
+    }
+    
+    public Histogram getLatency() {
+        return latency;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.quiz.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * ServerMetrics collects request and quiz activity for GET /api/metrics (Prometheus text format)
+ * Counters are LongAdders (striped, so hot counters never serialize request threads) and each route
+ * has its own RouteMetrics; values that already live elsewhere, such as the active session count,
+ * are registered as gauges and read only when scraped.
+ */
+public class ServerMetrics {
+    private final List<RouteMetrics> routes = new CopyOnWriteArrayList<>();
+    private final List<Gauge> gauges = new CopyOnWriteArrayList<>();
+    private final LongAdder sessionsStarted = new LongAdder();
+    private final LongAdder sessionsCompleted = new LongAdder();
+    private final LongAdder answersGraded = new LongAdder();
+    private final LongAdder staticBytesServed = new LongAdder();
+    
+    private static final class Gauge {
+        final String name;
+        final String help;
+        final LongSupplier value;
+        
+        Gauge(String name, String help, LongSupplier value) {
+            this.name = name;
+            this.help = help;
+            this.value = value;
+        }
+    }
+    
+    /**
+     * Get the metrics for a route, creating them on first use
+     */
+    public synchronized RouteMetrics route(String route) {
+        for (RouteMetrics existing : routes) {
+            if (existing.getRoute().equals(route)) {
+                return existing;
+            }
+        }
+        RouteMetrics created = new RouteMetrics(route);
+        routes.add(created);
+        return created;
+    }
+    
+    /**
+     * Register a value read at scrape time, exported as a gauge named quiz_<name>
+     */
+    public void addGauge(String name, String help, LongSupplier value) {
+        gauges.add(new Gauge(name, help, value));
+    }
+    
+    public void sessionStarted() {
+        sessionsStarted.increment();
+    }
+    
+    public void sessionCompleted() {
+        sessionsCompleted.increment();
+    }
+    
+    public void answersGraded(int count) {
+        answersGraded.add(count);
+    }
+    
+    public void staticBytesServed(long bytes) {
+        staticBytesServed.add(bytes);
+    }
+    
+    public long getSessionsStarted() {
+        return sessionsStarted.sum();
+    }
+    
+    public long getSessionsCompleted() {
+        return sessionsCompleted.sum();
+    }
+    
+    public long getAnswersGraded() {
+        return answersGraded.sum();
+    }
+    
+    public long getStaticBytesServed() {
+        return staticBytesServed.sum();
+    }
+    
+    /**
+     * Write every metric in the Prometheus text exposition format (version 0.0.4)
+     */
+    public void writePrometheus(StringBuilder out) {
+        header(out, "quiz_http_requests_total", "counter", "HTTP requests by route and status code");
+        for (RouteMetrics route : routes) {
+            for (int status : route.statuses()) {
+                out.append("quiz_http_requests_total{route=\"");
+                escapeLabel(out, route.getRoute());
+                out.append("\",code=\"").append(status).append("\"} ").append(route.getCount(status)).append('\n');
+            }
+        }
+        
+        header(out, "quiz_http_request_duration_seconds", "histogram", "HTTP request latency by route");
+        for (RouteMetrics route : routes) {
+            Histogram latency = route.getLatency();
+            long[] counts = latency.bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                out.append("quiz_http_request_duration_seconds_bucket{route=\"");
+                escapeLabel(out, route.getRoute());
+                out.append("\",le=\"").append(Histogram.bucketLabel(i)).append("\"} ").append(cumulative).append('\n');
+            }
+            out.append("quiz_http_request_duration_seconds_sum{route=\"");
+            escapeLabel(out, route.getRoute());
+            out.append("\"} ").append(latency.getSumNanos() / 1e9).append('\n');
+            // The count is the +Inf bucket, so it always agrees with the buckets in this scrape
+            out.append("quiz_http_request_duration_seconds_count{route=\"");
+            escapeLabel(out, route.getRoute());
+            out.append("\"} ").append(cumulative).append('\n');
+        }
+        
+        counter(out, "quiz_sessions_started_total", "Quiz sessions started", sessionsStarted.sum());
+        counter(out, "quiz_sessions_completed_total", "Quiz sessions completed", sessionsCompleted.sum());
+        counter(out, "quiz_answers_graded_total", "Answers graded", answersGraded.sum());
+        counter(out, "quiz_static_bytes_served_total", "Static file body bytes sent", staticBytesServed.sum());
+        for (Gauge gauge : gauges) {
+            header(out, "quiz_" + gauge.name, "gauge", gauge.help);
+            out.append("quiz_").append(gauge.name).append(' ').append(gauge.value.getAsLong()).append('\n');
+        }
+    }
+    
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+    
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+    
+    private static void escapeLabel(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+}
\ No newline at end of file
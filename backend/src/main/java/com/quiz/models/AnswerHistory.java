@@ -0,0 +1,126 @@
+package com.quiz.models;
+
+import java.util.Arrays;
+
+/**
+ * AnswerHistory is a session's answer stack, packed into a single long array
+ * Each answer takes three longs: question ID with the selected index, time spent with the
+ * correctness bit, and when it was answered in epoch nanoseconds. That is 24 bytes an answer,
+ * where a UserAnswer with its LocalDateTime took over 100. The array grows by doubling as answers are
+ * pushed, so a history that is never used, as in a quiz abandoned at its first question, allocates nothing.
+ * peek, pop, get and toArray build UserAnswer copies on demand; changing them does not change the
+ * history. Not thread-safe: callers hold the session lock.
+ */
+public final class AnswerHistory {
+    private static final int STRIDE = 3;
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final long[] EMPTY = new long[0];
+    // Time spent shares its long with the correctness bit
+    private static final long MAX_TIME_SPENT = Long.MAX_VALUE >> 1;
+    private static final long MIN_TIME_SPENT = Long.MIN_VALUE >> 1;
+    
+    private long[] words = EMPTY;
+    private int size;
+    
+    /**
+     * Make room for the given number of answers, e.g. the length of the quiz
+     */
+    public void ensureCapacity(int answers) {
+        if ((long) answers * STRIDE > words.length) {
+            words = Arrays.copyOf(words, answers * STRIDE);
+        }
+    }
+    
+    /**
+     * Push an answer onto the history
+     */
+    public void push(int questionId, int selectedAnswerIndex, boolean isCorrect, long timeSpent, long answeredAtNanos) {
+        if ((size + 1) * STRIDE > words.length) {
+            ensureCapacity(Math.max(DEFAULT_CAPACITY, size * 2));
+        }
+        long time = Math.max(MIN_TIME_SPENT, Math.min(MAX_TIME_SPENT, timeSpent));
+        int base = size * STRIDE;
+        words[base] = (long) questionId << 32 | (selectedAnswerIndex & 0xFFFFFFFFL);
+        words[base + 1] = time << 1 | (isCorrect ? 1 : 0);
+        words[base + 2] = answeredAtNanos;
+        size++;
+    }
+    
+    public void push(UserAnswer answer) {
+        push(answer.getQuestionId(), answer.getSelectedAnswerIndex(), answer.isCorrect(), answer.getTimeSpent(),
+            answer.getAnsweredAtNanos());
+    }
+    
+    /**
+     * Pop the latest answer
+     */
+    public UserAnswer pop() {
+        if (isEmpty()) {
+            throw new RuntimeException("Answer history is empty - cannot pop");
+        }
+        UserAnswer answer = get(size - 1);
+        size--;
+        return answer;
+    }
+    
+    /**
+     * Get the latest answer without removing it, or null if there is none
+     */
+    public UserAnswer peek() {
+        return isEmpty() ? null : get(size - 1);
+    }
+    
+    /**
+     * Get the answer at a position, 0 being the oldest
+     */
+    public UserAnswer get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int base = index * STRIDE;
+        long key = words[base];
+        long time = words[base + 1];
+        return new UserAnswer((int) (key >>> 32), (int) key, (time & 1) != 0, time >> 1, words[base + 2]);
+    }
+    
+    /**
+     * Position of the answer to a question, or -1 if it has not been answered
+     */
+    public int indexOf(int questionId) {
+        for (int i = 0; i < size; i++) {
+            if ((int) (words[i * STRIDE] >>> 32) == questionId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Whether the answer at a position was correct, read without building a UserAnswer
+     */
+    public boolean isCorrect(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (words[index * STRIDE + 1] & 1) != 0;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Snapshot of the answers, oldest first
+     */
+    public UserAnswer[] toArray() {
+        UserAnswer[] answers = new UserAnswer[size];
+        for (int i = 0; i < size; i++) {
+            answers[i] = get(i);
+        }
+        return answers;
+    }
+}
\ No newline at end of file
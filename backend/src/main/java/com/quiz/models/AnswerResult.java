@@ -0,0 +1,73 @@
+package com.quiz.models;
+
+/**
+ * Outcome of one answer in a batch submission
+ */
+public class AnswerResult {
+    
+    public enum Status {
+        GRADED,    // graded against the session's current question
+        DUPLICATE, // the question was already answered (e.g. a retried batch); the first answer stands
+        REJECTED   // not the session's current question, or the quiz is already complete
+    }
+    
+    private final AnswerSubmission submission;
+    private final Status status;
+    private final boolean isCorrect;
+    private final Question question; // null unless graded
+    private final int questionPosition; // bank position of the graded question, -1 unless graded
+    
+    private AnswerResult(AnswerSubmission submission, Status status, boolean isCorrect, Question question, int questionPosition) {
+        this.submission = submission;
+        this.status = status;
+        this.isCorrect = isCorrect;
+        this.question = question;
+        this.questionPosition = questionPosition;
+    }
+    
+    public static AnswerResult graded(AnswerSubmission submission, Question question, int questionPosition, boolean isCorrect) {
+        return new AnswerResult(submission, Status.GRADED, isCorrect, question, questionPosition);
+    }
+    
+    public static AnswerResult duplicate(AnswerSubmission submission, boolean wasCorrect) {
+        return new AnswerResult(submission, Status.DUPLICATE, wasCorrect, null, -1);
+    }
+    
+    public static AnswerResult rejected(AnswerSubmission submission) {
+        return new AnswerResult(submission, Status.REJECTED, false, null, -1);
+    }
+    
+    public AnswerSubmission getSubmission() {
+        return submission;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    /**
+     * Whether the answer was correct (for duplicates, whether the first answer was)
+     */
+    public boolean isCorrect() {
+        return isCorrect;
+    }
+    
+    /**
+     * Get the graded question, or null for duplicates and rejected answers
+     */
+    public Question getQuestion() {
+        return question;
+    }
+    
+    /**
+     * Get the graded question's position in the session's question bank, or -1
+     */
+    public int getQuestionPosition() {
+        return questionPosition;
+    }
+    
+    @Override
+    public String toString() {
+        return "AnswerResult{questionId=" + submission.getQuestionId() + ", status=" + status + ", isCorrect=" + isCorrect + "}";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.quiz.models;
+
+/**
+ * One answer in a batch submission: which question it answers, the chosen option and the time taken
+ */
+public class AnswerSubmission {
+    private final int questionId;
+    private final int selectedAnswerIndex;
+    private final long timeSpent; // in milliseconds
+    
+    public AnswerSubmission(int questionId, int selectedAnswerIndex, long timeSpent) {
+        this.questionId = questionId;
+        this.selectedAnswerIndex = selectedAnswerIndex;
+        this.timeSpent = timeSpent;
+    }
+    
+    public int getQuestionId() {
+        return questionId;
+    }
+    
+    public int getSelectedAnswerIndex() {
+        return selectedAnswerIndex;
+    }
+    
+    public long getTimeSpent() {
+        return timeSpent;
+    }
+    
+    @Override
+    public String toString() {
+        return "AnswerSubmission{questionId=" + questionId + ", selectedAnswerIndex=" + selectedAnswerIndex
+            + ", timeSpent=" + timeSpent + "ms}";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.quiz.models;
+
+/**
+ * Immutable snapshot of a finished quiz and every answer given, as written to the results log
+ * Taken while the session lock is held, so it stays consistent after the session is reset or expires
+ */
+public final class CompletedQuiz {
+    private final String sessionId;
+    private final String playerName;
+    private final int score;
+    private final int finalScore;
+    private final int correctAnswers;
+    private final int totalQuestions;
+    private final long totalTimeSpent; // in milliseconds
+    private final long startedAt; // epoch milliseconds
+    private final long completedAt; // epoch milliseconds
+    private final long questionBankVersion;
+    private final UserAnswer[] answers; // oldest first
+    
+    public CompletedQuiz(String sessionId, String playerName, int score, int finalScore, int correctAnswers,
+                         int totalQuestions, long totalTimeSpent, long startedAt, long completedAt,
+                         long questionBankVersion, UserAnswer[] answers) {
+        this.sessionId = sessionId;
+        this.playerName = playerName;
+        this.score = score;
+        this.finalScore = finalScore;
+        this.correctAnswers = correctAnswers;
+        this.totalQuestions = totalQuestions;
+        this.totalTimeSpent = totalTimeSpent;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+        this.questionBankVersion = questionBankVersion;
+        this.answers = answers;
+    }
+    
+    /**
+     * Snapshot a completed session; caller holds the session lock
+     */
+    public static CompletedQuiz of(QuizSession session) {
+        return new CompletedQuiz(
+            session.getSessionId(),
+            session.getPlayerName(),
+            session.getScore(),
+            session.getFinalScore(),
+            session.getCorrectAnswers(),
+            session.getTotalQuestions(),
+            session.getTotalTimeSpent(),
+            EpochNanos.toMillis(session.getStartTimeNanos()),
+            EpochNanos.toMillis(session.getEndTimeNanos()),
+            session.getQuestions() != null ? session.getQuestions().getVersion() : 0,
+            session.getUserAnswers().toArray()
+        );
+    }
+    
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    /**
+     * Get the player name, or null if the player did not give one
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+    
+    public int getScore() {
+        return score;
+    }
+    
+    public int getFinalScore() {
+        return finalScore;
+    }
+    
+    public int getCorrectAnswers() {
+        return correctAnswers;
+    }
+    
+    public int getTotalQuestions() {
+        return totalQuestions;
+    }
+    
+    public long getTotalTimeSpent() {
+        return totalTimeSpent;
+    }
+    
+    public long getStartedAt() {
+        return startedAt;
+    }
+    
+    public long getCompletedAt() {
+        return completedAt;
+    }
+    
+    public long getQuestionBankVersion() {
+        return questionBankVersion;
+    }
+    
+    /**
+     * Get the answers, oldest first (the array is shared; do not modify it)
+     */
+    public UserAnswer[] getAnswers() {
+        return answers;
+    }
+    
+    @Override
+    public String toString() {
+        return "CompletedQuiz{sessionId=" + sessionId + ", player=" + playerName + ", finalScore=" + finalScore
+            + ", correctAnswers=" + correctAnswers + "/" + totalQuestions + ", answers=" + answers.length + "}";
+    }
+}
\ No newline at end of file
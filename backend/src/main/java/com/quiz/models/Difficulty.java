@@ -0,0 +1,105 @@
+package com.quiz.models;
+
+/**
+ * Difficulty level of a question, with the points a correct answer is worth
+ * The code is the stable on-disk value used by compiled question banks; never reuse or renumber one.
+ */
+public enum Difficulty {
+    EASY("Easy", 10, 0),
+    MEDIUM("Medium", 15, 1),
+    HARD("Hard", 20, 2);
+    
+    public static final Difficulty DEFAULT = MEDIUM;
+    
+    private static final Difficulty[] VALUES = values();
+    private static final Difficulty[] BY_CODE = new Difficulty[VALUES.length];
+    
+    static {
+        for (Difficulty difficulty : VALUES) {
+            BY_CODE[difficulty.code] = difficulty;
+        }
+    }
+    
+    private final String label;
+    private final int points;
+    private final int code;
+    
+    Difficulty(String label, int points, int code) {
+        this.label = label;
+        this.points = points;
+        this.code = code;
+    }
+    
+    /**
+     * Get the display name ("Easy", "Medium", "Hard"), as sent to clients
+     */
+    public String getLabel() {
+        return label;
+    }
+    
+    public int getPoints() {
+        return points;
+    }
+    
+    public int getCode() {
+        return code;
+    }
+    
+    /**
+     * Number of difficulty levels, for arrays indexed by ordinal
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+    
+    /**
+     * Get the difficulty at an ordinal, without the copy values() makes
+     */
+    public static Difficulty ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+    
+    /**
+     * Parse a label case-insensitively; null means the default, Medium
+     * @throws IllegalArgumentException if the label is not a known difficulty
+     */
+    public static Difficulty fromLabel(String label) {
+        Difficulty difficulty = lookup(label);
+        if (difficulty == null) {
+            throw new IllegalArgumentException("Unknown difficulty '" + label + "' (expected Easy, Medium or Hard)");
+        }
+        return difficulty;
+    }
+    
+    /**
+     * Parse a label case-insensitively; null means the default, Medium
+     * @return null if the label is not a known difficulty
+     */
+    public static Difficulty lookup(String label) {
+        if (label == null) {
+            return DEFAULT;
+        }
+        String trimmed = label.trim();
+        for (Difficulty difficulty : VALUES) {
+            if (difficulty.label.equalsIgnoreCase(trimmed)) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the code is not a known difficulty
+     */
+    public static Difficulty fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown difficulty code " + code);
+        }
+        return BY_CODE[code];
+    }
+    
+    @Override
+    public String toString() {
+        return label;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.quiz.models;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * EpochNanos converts between the epoch-nanosecond longs sessions and answers store and the
+ * LocalDateTime values their getters return; 0 stands for "not set", as null did before
+ */
+public final class EpochNanos {
+    private EpochNanos() {
+    }
+    
+    /**
+     * Current wall-clock time in nanoseconds since the epoch (precision depends on the system clock)
+     */
+    public static long now() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+    
+    public static long of(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        Instant instant = time.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+    
+    public static LocalDateTime toLocalDateTime(long nanos) {
+        return nanos != 0 ? LocalDateTime.ofInstant(Instant.ofEpochSecond(0, nanos), ZoneId.systemDefault()) : null;
+    }
+    
+    public static long toMillis(long nanos) {
+        return Math.floorDiv(nanos, 1_000_000L);
+    }
+    
+    public static long fromMillis(long millis) {
+        return millis * 1_000_000L;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.quiz.models;
+
+/**
+ * Immutable record of a completed quiz on the leaderboard
+ * Ordered by final score (highest first), then total time (fastest first), then completion order
+ */
+public final class LeaderboardEntry implements Comparable<LeaderboardEntry> {
+    private final String sessionId;
+    private final String playerName;
+    private final int finalScore;
+    private final long totalTimeSpent; // in milliseconds
+    private final int correctAnswers;
+    private final int totalQuestions;
+    private final long sequence; // completion order, so no two entries compare equal
+    
+    public LeaderboardEntry(CompletedQuiz result, long sequence) {
+        this.sessionId = result.getSessionId();
+        this.playerName = result.getPlayerName() != null ? result.getPlayerName() : "Anonymous";
+        this.finalScore = result.getFinalScore();
+        this.totalTimeSpent = result.getTotalTimeSpent();
+        this.correctAnswers = result.getCorrectAnswers();
+        this.totalQuestions = result.getTotalQuestions();
+        this.sequence = sequence;
+    }
+    
+    @Override
+    public int compareTo(LeaderboardEntry other) {
+        if (finalScore != other.finalScore) {
+            return Integer.compare(other.finalScore, finalScore);
+        }
+        if (totalTimeSpent != other.totalTimeSpent) {
+            return Long.compare(totalTimeSpent, other.totalTimeSpent);
+        }
+        return Long.compare(sequence, other.sequence);
+    }
+    
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    public String getPlayerName() {
+        return playerName;
+    }
+    
+    public int getFinalScore() {
+        return finalScore;
+    }
+    
+    public long getTotalTimeSpent() {
+        return totalTimeSpent;
+    }
+    
+    public int getCorrectAnswers() {
+        return correctAnswers;
+    }
+    
+    public int getTotalQuestions() {
+        return totalQuestions;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    @Override
+    public String toString() {
+        return "LeaderboardEntry{player=" + playerName + ", finalScore=" + finalScore + ", totalTimeSpent="
+            + totalTimeSpent + "ms, sequence=" + sequence + "}";
+    }
+}
\ No newline at end of file
@@ -10,24 +10,29 @@ public class Question {
     private String[] options;
     private int correctAnswerIndex;
     private String funFact;
-    private String difficulty; // Easy, Medium, Hard
+    private Difficulty difficulty;
+    private String customDifficulty; // label as given when it is not Easy, Medium or Hard
     private String hint; // Hint for the lifeline feature
     
     public Question() {
         this.options = new String[4]; // Always 4 options for consistency
+        this.difficulty = Difficulty.DEFAULT;
     }
     
     public Question(int id, String questionText, String[] options, int correctAnswerIndex, String funFact, String difficulty) {
         this(id, questionText, options, correctAnswerIndex, funFact, difficulty, "Think carefully about this question.");
     }
     
+    /**
+     * Labels other than Easy, Medium and Hard are accepted as before: kept as given and worth 10 points (null = Medium)
+     */
     public Question(int id, String questionText, String[] options, int correctAnswerIndex, String funFact, String difficulty, String hint) {
         this.id = id;
         this.questionText = questionText;
         this.options = options != null ? options : new String[4];
         this.correctAnswerIndex = correctAnswerIndex;
         this.funFact = funFact;
-        this.difficulty = difficulty;
+        setDifficulty(difficulty);
         this.hint = hint;
     }
     
@@ -79,12 +84,30 @@ public class Question {
         this.funFact = funFact;
     }
     
+    /**
+     * Get the difficulty label ("Easy", "Medium" or "Hard", or an unrecognised label as it was set)
+     */
     public String getDifficulty() {
-        return difficulty;
+        return customDifficulty != null ? customDifficulty : difficulty.getLabel();
     }
     
+    /**
+     * Set the difficulty from its label, case-insensitively (null = Medium)
+     * Any other label is kept as given and scored and grouped like Easy, the 10 points it was always worth.
+     */
     public void setDifficulty(String difficulty) {
-        this.difficulty = difficulty;
+        Difficulty known = Difficulty.lookup(difficulty);
+        this.difficulty = known != null ? known : Difficulty.EASY;
+        this.customDifficulty = known != null ? null : difficulty;
+    }
+    
+    public Difficulty getDifficultyLevel() {
+        return difficulty;
+    }
+    
+    public void setDifficultyLevel(Difficulty difficulty) {
+        this.difficulty = difficulty != null ? difficulty : Difficulty.DEFAULT;
+        this.customDifficulty = null;
     }
     
     public String getHint() {
@@ -106,12 +129,7 @@ public class Question {
      * Get points for this question based on difficulty
      */
     public int getPoints() {
-        switch (difficulty.toLowerCase()) {
-            case "easy": return 10;
-            case "medium": return 15;
-            case "hard": return 20;
-            default: return 10;
-        }
+        return difficulty.getPoints();
     }
     
     @Override
@@ -119,7 +137,7 @@ public class Question {
         StringBuilder sb = new StringBuilder();
         sb.append("Question{id=").append(id)
           .append(", questionText='").append(questionText).append('\'')
-          .append(", difficulty='").append(difficulty).append('\'')
+          .append(", difficulty='").append(getDifficulty()).append('\'')
           .append(", options=[");
         
         if (options != null) {
@@ -1,50 +1,68 @@
 package com.quiz.models;
 
-import java.time.Duration;
+import com.quiz.questions.QuestionSnapshot;
 import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * QuizSession model to track the current quiz session
+ * QuizSession model to track a single player's quiz session
+ * Each session owns its answer history so concurrent players never share state
+ * Kept compact for servers holding many sessions: times are epoch-nanosecond longs behind the
+ * LocalDateTime getters, answers are packed into an AnswerHistory that grows only as answers arrive,
+ * and player names go through a small shared table so the many players with the same name (the
+ * default "Anonymous Player" above all) share one String. The table is bounded in name length and
+ * count, since names come from clients; a name that does not fit is simply kept unshared.
+ * The session ID stays a String because the session registry keys on that same instance.
  */
 public class QuizSession {
+    private static final int MAX_SHARED_NAME_LENGTH = 64;
+    private static final int MAX_SHARED_NAMES = 1024;
+    private static final ConcurrentHashMap<String, String> SHARED_NAMES = new ConcurrentHashMap<>();
+    
     private String sessionId;
     private int currentQuestionIndex;
     private int totalQuestions;
     private int score;
     private int correctAnswers;
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
+    private long startTime; // epoch nanoseconds
+    private long endTime; // epoch nanoseconds, 0 until completed
     private long totalTimeSpent; // in milliseconds
     private boolean isCompleted;
     private String playerName; // Optional for demo
+    private final AnswerHistory userAnswers; // Answer history for this session only
+    private QuestionSnapshot questions; // Question bank version this session started with
+    private int[] questionOrder; // Bank position of each question in this quiz, in the order asked
     
     public QuizSession() {
         this.sessionId = generateSessionId();
         this.currentQuestionIndex = 0;
         this.score = 0;
         this.correctAnswers = 0;
-        this.startTime = LocalDateTime.now();
+        this.startTime = EpochNanos.now();
         this.isCompleted = false;
         this.totalTimeSpent = 0;
+        this.userAnswers = new AnswerHistory();
     }
     
     public QuizSession(String playerName) {
         this();
-        this.playerName = playerName;
+        setPlayerName(playerName);
     }
     
     /**
-     * Generate a simple session ID
+     * Generate a unique, hard-to-guess session ID
+     * (a timestamp alone collides when many players start in the same millisecond)
      */
     private String generateSessionId() {
-        return "QUIZ_" + System.currentTimeMillis();
+        return "QUIZ_" + UUID.randomUUID().toString().replace("-", "");
     }
     
     /**
-     * Move to next question
+     * Move to next question (past the last one once it has been answered, which completes the quiz)
      */
     public void nextQuestion() {
-        if (currentQuestionIndex < totalQuestions - 1) {
+        if (currentQuestionIndex < totalQuestions) {
             currentQuestionIndex++;
         }
     }
@@ -61,10 +79,10 @@ public class QuizSession {
      * Complete the quiz session
      */
     public void completeQuiz() {
-        this.endTime = LocalDateTime.now();
+        this.endTime = EpochNanos.now();
         this.isCompleted = true;
-        if (startTime != null && endTime != null) {
-            this.totalTimeSpent = Duration.between(startTime, endTime).toMillis();
+        if (startTime != 0) {
+            this.totalTimeSpent = (endTime - startTime) / 1_000_000L;
         }
     }
     
@@ -139,19 +157,30 @@ public class QuizSession {
     }
     
     public LocalDateTime getStartTime() {
-        return startTime;
+        return EpochNanos.toLocalDateTime(startTime);
     }
     
     public void setStartTime(LocalDateTime startTime) {
-        this.startTime = startTime;
+        this.startTime = EpochNanos.of(startTime);
+    }
+    
+    public long getStartTimeNanos() {
+        return startTime;
     }
     
     public LocalDateTime getEndTime() {
-        return endTime;
+        return EpochNanos.toLocalDateTime(endTime);
     }
     
     public void setEndTime(LocalDateTime endTime) {
-        this.endTime = endTime;
+        this.endTime = EpochNanos.of(endTime);
+    }
+    
+    /**
+     * Get the completion time in epoch nanoseconds, or 0 if the quiz is not completed
+     */
+    public long getEndTimeNanos() {
+        return endTime;
     }
     
     public long getTotalTimeSpent() {
@@ -170,12 +199,47 @@ public class QuizSession {
         isCompleted = completed;
     }
     
+    public AnswerHistory getUserAnswers() {
+        return userAnswers;
+    }
+    
+    public QuestionSnapshot getQuestions() {
+        return questions;
+    }
+    
+    public void setQuestions(QuestionSnapshot questions) {
+        this.questions = questions;
+    }
+    
+    public int[] getQuestionOrder() {
+        return questionOrder;
+    }
+    
+    public void setQuestionOrder(int[] questionOrder) {
+        this.questionOrder = questionOrder;
+    }
+    
     public String getPlayerName() {
         return playerName;
     }
     
     public void setPlayerName(String playerName) {
-        this.playerName = playerName;
+        this.playerName = playerName != null ? sharedName(playerName) : null;
+    }
+    
+    /**
+     * Get the shared copy of a name, adding it while the table has room; long names and names arriving
+     * once the table is full are returned as given
+     */
+    private static String sharedName(String name) {
+        if (name.length() > MAX_SHARED_NAME_LENGTH) {
+            return name;
+        }
+        String shared = SHARED_NAMES.get(name);
+        if (shared == null && SHARED_NAMES.size() < MAX_SHARED_NAMES) {
+            shared = SHARED_NAMES.putIfAbsent(name, name);
+        }
+        return shared != null ? shared : name;
     }
     
     @Override
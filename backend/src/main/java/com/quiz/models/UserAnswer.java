@@ -10,18 +10,22 @@ public class UserAnswer {
     private int selectedAnswerIndex;
     private boolean isCorrect;
     private long timeSpent; // in milliseconds
-    private LocalDateTime answeredAt;
+    private long answeredAt; // epoch nanoseconds
     
     public UserAnswer() {
-        this.answeredAt = LocalDateTime.now();
+        this.answeredAt = EpochNanos.now();
     }
     
     public UserAnswer(int questionId, int selectedAnswerIndex, boolean isCorrect, long timeSpent) {
+        this(questionId, selectedAnswerIndex, isCorrect, timeSpent, EpochNanos.now());
+    }
+    
+    public UserAnswer(int questionId, int selectedAnswerIndex, boolean isCorrect, long timeSpent, long answeredAtNanos) {
         this.questionId = questionId;
         this.selectedAnswerIndex = selectedAnswerIndex;
         this.isCorrect = isCorrect;
         this.timeSpent = timeSpent;
-        this.answeredAt = LocalDateTime.now();
+        this.answeredAt = answeredAtNanos;
     }
     
     // Getters and Setters
@@ -58,11 +62,15 @@ public class UserAnswer {
     }
     
     public LocalDateTime getAnsweredAt() {
-        return answeredAt;
+        return EpochNanos.toLocalDateTime(answeredAt);
     }
     
     public void setAnsweredAt(LocalDateTime answeredAt) {
-        this.answeredAt = answeredAt;
+        this.answeredAt = EpochNanos.of(answeredAt);
+    }
+    
+    public long getAnsweredAtNanos() {
+        return answeredAt;
     }
     
     @Override
@@ -72,7 +80,7 @@ public class UserAnswer {
                 ", selectedAnswerIndex=" + selectedAnswerIndex +
                 ", isCorrect=" + isCorrect +
                 ", timeSpent=" + timeSpent + "ms" +
-                ", answeredAt=" + answeredAt +
+                ", answeredAt=" + getAnsweredAt() +
                 '}';
     }
 }
\ No newline at end of file
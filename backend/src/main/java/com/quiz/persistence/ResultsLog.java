@@ -0,0 +1,523 @@
+package com.quiz.persistence;
+
+import com.quiz.logging.Log;
+import com.quiz.models.CompletedQuiz;
+import com.quiz.models.EpochNanos;
+import com.quiz.models.UserAnswer;
+import com.quiz.server.ServerConfig;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, append-only log of completed quizzes and their answers
+ * Request threads only enqueue a CompletedQuiz; a single writer thread drains everything queued,
+ * writes it as one batch and calls fsync once for the whole batch (group commit), so the cost of a
+ * disk flush is shared by every result that arrived while the previous flush was running.
+ * The log is a directory of segment files (results-00000001.log, ...); a new segment is started
+ * once the current one passes the segment size. Each segment is a header followed by records:
+ *   header - int magic, int version
+ *   record - int payload length, int CRC32 of the payload, payload
+ * On startup every segment is replayed in order to rebuild in-memory state. A torn record at the
+ * end of the last segment (a crash mid-write) is cut off; corruption in an older segment skips the
+ * rest of that segment.
+ * The owner calls close() once nothing else will be appended, after the server has stopped taking
+ * requests, so the results queued by the last requests are still written.
+ */
+public class ResultsLog implements Closeable {
+    private static final int MAGIC = 0x51524C47; // "QRLG"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_BATCH = 4096;
+    private static final int QUEUE_CAPACITY = 65536;
+    private static final long APPEND_WAIT_MILLIS = 50;
+    private static final String SEGMENT_PREFIX = "results-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    private final Path directory;
+    private final long segmentBytes;
+    private final ArrayBlockingQueue<CompletedQuiz> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final RecordBuffer buffer = new RecordBuffer();
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    private final CRC32 crc = new CRC32();
+    
+    // Owned by the writer thread once open() returns
+    private FileChannel segment;
+    private long segmentIndex;
+    private long segmentSize;
+    
+    private volatile Thread writer;
+    private volatile boolean closed;
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong lostCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    
+    /**
+     * Growable byte buffer whose contents can be patched and written without copying
+     */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        RecordBuffer() {
+            super(64 * 1024);
+        }
+        
+        byte[] array() {
+            return buf;
+        }
+        
+        void putInt(int position, int value) {
+            buf[position] = (byte) (value >>> 24);
+            buf[position + 1] = (byte) (value >>> 16);
+            buf[position + 2] = (byte) (value >>> 8);
+            buf[position + 3] = (byte) value;
+        }
+    }
+    
+    /**
+     * @param directory directory holding the segment files (created if missing)
+     * @param segmentBytes size after which a new segment is started
+     */
+    public ResultsLog(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = Math.max(SEGMENT_HEADER_BYTES + 1, segmentBytes);
+    }
+    
+    /**
+     * Build a results log from --results-log/QUIZ_RESULTS_LOG (a directory) and
+     * --results-log-segment-mb/QUIZ_RESULTS_LOG_SEGMENT_MB
+     * @return null if no directory is configured, which disables the log
+     */
+    public static ResultsLog fromConfig(ServerConfig config) {
+        String directory = config.getString("results-log", "QUIZ_RESULTS_LOG", null);
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        long segmentMegabytes = config.getInt("results-log-segment-mb", "QUIZ_RESULTS_LOG_SEGMENT_MB", 64);
+        return new ResultsLog(Paths.get(directory), segmentMegabytes * 1024 * 1024);
+    }
+    
+    /**
+     * Replay every logged result, then start appending
+     * @param replay receives each logged result, oldest first
+     * @return number of results replayed
+     * @throws IOException if the directory or a segment cannot be read, or the last segment cannot be opened
+     */
+    public synchronized int open(Consumer<CompletedQuiz> replay) throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("Results log " + directory + " is already open");
+        }
+        Files.createDirectories(directory);
+        List<Long> indexes = listSegments();
+        int replayed = 0;
+        for (int i = 0; i < indexes.size(); i++) {
+            replayed += replaySegment(segmentPath(indexes.get(i)), i == indexes.size() - 1, replay);
+        }
+        openSegment(indexes.isEmpty() ? 1 : indexes.get(indexes.size() - 1));
+        
+        writer = new Thread(this::writeLoop, "quiz-results-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return replayed;
+    }
+    
+    /**
+     * Queue a completed quiz to be written; returns without waiting for the disk
+     * Callers grade under the session lock, so a writer that has fallen a full queue behind delays them
+     * by at most APPEND_WAIT_MILLIS before the result is dropped and counted, and a writer that has
+     * stopped is not waited for at all.
+     */
+    public void append(CompletedQuiz result) {
+        Thread thread = writer;
+        if (closed || (thread != null && !thread.isAlive())) {
+            lostCount.incrementAndGet();
+            return;
+        }
+        try {
+            if (!queue.offer(result, APPEND_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                long dropped = droppedCount.incrementAndGet();
+                lostCount.incrementAndGet();
+                if (Long.bitCount(dropped) == 1) { // 1st, 2nd, 4th, 8th... drop, so a stalled disk cannot flood the log
+                    Log.warn("Results log queue is full; {} results dropped so far", dropped);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lostCount.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Write everything still queued, fsync and stop the writer (idempotent)
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Get number of results written and flushed to disk
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+    
+    /**
+     * Get number of fsyncs; written / commits is the average group commit size
+     */
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+    
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+    
+    /**
+     * Get number of results that could not be written (write failures, a full queue, or appended after close)
+     */
+    public long getLostCount() {
+        return lostCount.get();
+    }
+    
+    /**
+     * Get number of results dropped because the queue stayed full for APPEND_WAIT_MILLIS
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+    
+    public int getQueuedCount() {
+        return queue.size();
+    }
+    
+    // Writer thread
+    
+    private void writeLoop() {
+        List<CompletedQuiz> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (true) {
+                CompletedQuiz first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        break;
+                    }
+                    continue;
+                }
+                // Everything that queued up during the previous fsync goes out in this one
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                writeBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSegment();
+            if (!closed) {
+                Log.error("Results log writer for {} stopped unexpectedly; later results will be lost", directory, null);
+            }
+        }
+    }
+    
+    private void writeBatch(List<CompletedQuiz> batch) {
+        try {
+            buffer.reset();
+            for (CompletedQuiz result : batch) {
+                encode(result);
+            }
+            if (segment == null) {
+                openSegment(segmentIndex + 1); // the previous segment was abandoned after a failed write
+            } else if (segmentSize > SEGMENT_HEADER_BYTES && segmentSize + buffer.size() > segmentBytes) {
+                closeSegment();
+                openSegment(segmentIndex + 1);
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.array(), 0, buffer.size());
+            while (bytes.hasRemaining()) {
+                segment.write(bytes);
+            }
+            segment.force(false);
+            segmentSize += buffer.size();
+            writtenCount.addAndGet(batch.size());
+            commitCount.incrementAndGet();
+            bytesWritten.addAndGet(buffer.size());
+        } catch (Throwable e) {
+            // Any failure, not only I/O, costs this batch alone; the writer keeps serving later ones
+            lostCount.addAndGet(batch.size());
+            Log.error("Results log {} write failed; the results in this batch are lost", segmentPath(segmentIndex), e);
+            discardFailedBatch();
+        }
+    }
+    
+    /**
+     * Cut whatever part of a failed batch reached the segment, so later batches do not follow a torn record
+     * (replay stops there and would truncate them away); a segment that cannot be cut is abandoned, its
+     * torn tail then being skipped on replay, and the next batch starts a new segment
+     */
+    private void discardFailedBatch() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.truncate(segmentSize);
+            segment.position(segmentSize);
+        } catch (IOException e) {
+            Log.error("Results log {} could not drop a failed batch; moving to a new segment", segmentPath(segmentIndex), e);
+            closeSegment();
+        }
+    }
+    
+    /**
+     * Append one record (length, CRC, payload) to the batch buffer
+     */
+    private void encode(CompletedQuiz result) throws IOException {
+        int start = buffer.size();
+        out.writeInt(0);
+        out.writeInt(0);
+        writeString(out, result.getSessionId());
+        writeString(out, result.getPlayerName());
+        out.writeInt(result.getScore());
+        out.writeInt(result.getFinalScore());
+        out.writeInt(result.getCorrectAnswers());
+        out.writeInt(result.getTotalQuestions());
+        out.writeLong(result.getTotalTimeSpent());
+        out.writeLong(result.getStartedAt());
+        out.writeLong(result.getCompletedAt());
+        out.writeLong(result.getQuestionBankVersion());
+        UserAnswer[] answers = result.getAnswers();
+        out.writeInt(answers.length);
+        for (UserAnswer answer : answers) {
+            out.writeInt(answer.getQuestionId());
+            out.writeInt(answer.getSelectedAnswerIndex());
+            out.writeBoolean(answer.isCorrect());
+            out.writeLong(answer.getTimeSpent());
+            out.writeLong(EpochNanos.toMillis(answer.getAnsweredAtNanos()));
+        }
+        out.flush();
+        
+        int payloadStart = start + RECORD_HEADER_BYTES;
+        int length = buffer.size() - payloadStart;
+        crc.reset();
+        crc.update(buffer.array(), payloadStart, length);
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    // Segments
+    
+    private void openSegment(long index) throws IOException {
+        Path path = segmentPath(index);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size < SEGMENT_HEADER_BYTES) {
+                // New, or created but never given a complete header before a crash
+                ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                channel.truncate(0);
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+                size = SEGMENT_HEADER_BYTES;
+            }
+            channel.position(size);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        segment = channel;
+        segmentIndex = index;
+        segmentSize = channel.position();
+    }
+    
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.force(false);
+        } catch (IOException e) {
+            Log.error("Results log {} failed to sync before closing", segmentPath(segmentIndex), e);
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            Log.error("Results log {} failed to close", segmentPath(segmentIndex), e);
+        }
+        segment = null;
+    }
+    
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+    
+    private List<Long> listSegments() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String digits = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    indexes.add(Long.parseLong(digits));
+                } catch (NumberFormatException e) {
+                    Log.warn("Results log ignoring unexpected file {}", file);
+                }
+            }
+        }
+        Collections.sort(indexes);
+        return indexes;
+    }
+    
+    // Replay
+    
+    /**
+     * Replay one segment, cutting a torn tail off the last segment so appends continue from a clean record
+     */
+    private int replaySegment(Path path, boolean last, Consumer<CompletedQuiz> replay) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        if (data.length < SEGMENT_HEADER_BYTES) {
+            if (!last) {
+                Log.warn("Results log segment {} has no header; skipping it", path);
+            }
+            return 0; // openSegment rewrites the header of a torn last segment
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(data);
+        if (bytes.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a results log segment");
+        }
+        if (bytes.getInt(4) != VERSION) {
+            throw new IOException("Results log segment " + path + " has version " + bytes.getInt(4) + ", expected " + VERSION);
+        }
+        
+        int position = SEGMENT_HEADER_BYTES;
+        int replayed = 0;
+        CRC32 check = new CRC32();
+        while (position < data.length) {
+            CompletedQuiz result = null;
+            int length = -1;
+            if (data.length - position >= RECORD_HEADER_BYTES) {
+                length = bytes.getInt(position);
+            }
+            if (length >= 0 && length <= MAX_RECORD_BYTES && data.length - position - RECORD_HEADER_BYTES >= length) {
+                check.reset();
+                check.update(data, position + RECORD_HEADER_BYTES, length);
+                if ((int) check.getValue() == bytes.getInt(position + 4)) {
+                    result = decode(data, position + RECORD_HEADER_BYTES, length);
+                }
+            }
+            if (result == null) {
+                break;
+            }
+            replay.accept(result);
+            replayed++;
+            position += RECORD_HEADER_BYTES + length;
+        }
+        
+        if (position < data.length) {
+            int discarded = data.length - position;
+            if (last) {
+                Log.warn("Results log segment {} ends with {} bytes of an incomplete record; truncating", path, discarded);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(position);
+                    channel.force(true);
+                }
+            } else {
+                Log.warn("Results log segment {} is corrupt at offset {}; skipping its last {} bytes", path, position, discarded);
+            }
+        }
+        return replayed;
+    }
+    
+    /**
+     * Decode a record payload whose CRC already matched
+     * @return null if the payload does not hold a complete result
+     */
+    private static CompletedQuiz decode(byte[] data, int offset, int length) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length));
+            String sessionId = readString(in);
+            String playerName = readString(in);
+            int score = in.readInt();
+            int finalScore = in.readInt();
+            int correctAnswers = in.readInt();
+            int totalQuestions = in.readInt();
+            long totalTimeSpent = in.readLong();
+            long startedAt = in.readLong();
+            long completedAt = in.readLong();
+            long questionBankVersion = in.readLong();
+            int count = in.readInt();
+            if (sessionId == null || count < 0 || count > length / 25) {
+                return null;
+            }
+            UserAnswer[] answers = new UserAnswer[count];
+            for (int i = 0; i < count; i++) {
+                answers[i] = new UserAnswer(in.readInt(), in.readInt(), in.readBoolean(), in.readLong(),
+                    EpochNanos.fromMillis(in.readLong()));
+            }
+            return new CompletedQuiz(sessionId, playerName, score, finalScore, correctAnswers, totalQuestions,
+                totalTimeSpent, startedAt, completedAt, questionBankVersion, answers);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.available()) {
+            throw new IOException("String runs past the end of the record");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultsLog{directory=" + directory + ", segment=" + segmentIndex + ", written=" + writtenCount.get()
+            + ", commits=" + commitCount.get() + "}";
+    }
+}
\ No newline at end of file
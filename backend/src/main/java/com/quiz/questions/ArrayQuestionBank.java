@@ -0,0 +1,41 @@
+package com.quiz.questions;
+
+import com.quiz.datastructures.QuizArrayList;
+import com.quiz.models.Question;
+
+/**
+ * Question bank held entirely in memory in a QuizArrayList
+ * Used for the built-in questions and for banks loaded from JSON or CSV
+ */
+public class ArrayQuestionBank implements QuestionBank {
+    private final QuizArrayList<Question> questions;
+    private final String source;
+    
+    /**
+     * @param questions the bank takes ownership of this list; it must not be modified afterwards
+     */
+    public ArrayQuestionBank(QuizArrayList<Question> questions, String source) {
+        this.questions = questions;
+        this.source = source;
+    }
+    
+    @Override
+    public int size() {
+        return questions.size();
+    }
+    
+    @Override
+    public Question get(int index) {
+        return questions.get(index);
+    }
+    
+    @Override
+    public String getSource() {
+        return source;
+    }
+    
+    @Override
+    public String toString() {
+        return "ArrayQuestionBank{source=" + source + ", size=" + questions.size() + "}";
+    }
+}
\ No newline at end of file
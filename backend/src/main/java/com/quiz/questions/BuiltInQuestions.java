@@ -0,0 +1,168 @@
+package com.quiz.questions;
+
+import com.quiz.datastructures.QuizArrayList;
+import com.quiz.models.Question;
+
+/**
+ * The ten Java questions the quiz ships with, used when no question bank file is configured
+ */
+public final class BuiltInQuestions {
+    
+    private BuiltInQuestions() {
+    }
+    
+    /**
+     * Create the built-in Java question bank
+     */
+    public static QuestionBank create() {
+        QuizArrayList<Question> questions = new QuizArrayList<>(10);
+        
+        // Question 1 - Easy
+        questions.add(new Question(1,
+            "What is the correct syntax for the main method in Java?",
+            new String[]{
+                "public static void main(String args[])",
+                "static public void main(String[] args)",
+                "public static void main(String[] args)",
+                "public void main(String[] args)"
+            },
+            2, // Correct answer index
+            "Fun Fact: The main method is the entry point of any Java application. The JVM calls this method when you run a Java program!",
+            "Easy",
+            "Think about the standard Java main method signature with 'public static void' and String array parameter."
+        ));
+        
+        // Question 2 - Easy
+        questions.add(new Question(2,
+            "Which of the following is NOT a Java primitive data type?",
+            new String[]{
+                "int",
+                "String",
+                "boolean",
+                "char"
+            },
+            1, // Correct answer index
+            "Fun Fact: String is actually a class in Java, not a primitive type. It's stored in the heap memory and has many useful methods!",
+            "Easy",
+            "Remember: primitives are basic data types like int, char, boolean. String is a reference type."
+        ));
+        
+        // Question 3 - Medium
+        questions.add(new Question(3,
+            "What will be the output of: System.out.println(10 + 20 + \"Hello\" + 30 + 40);",
+            new String[]{
+                "30Hello3040",
+                "10203040Hello",
+                "30Hello70",
+                "1020Hello3040"
+            },
+            0, // Correct answer index
+            "Fun Fact: In Java, string concatenation is evaluated left to right. Numbers are added until a string is encountered, then everything becomes string concatenation!",
+            "Medium",
+            "Java evaluates expressions left to right. Numbers are added first, then concatenated with strings."
+        ));
+        
+        // Question 4 - Medium
+        questions.add(new Question(4,
+            "Which keyword is used to prevent inheritance in Java?",
+            new String[]{
+                "static",
+                "final",
+                "private",
+                "abstract"
+            },
+            1, // Correct answer index
+            "Fun Fact: The 'final' keyword can be used with classes, methods, and variables. Final classes like String cannot be extended!",
+            "Medium",
+            "Think about which keyword stops a class from being extended by other classes."
+        ));
+        
+        // Question 5 - Hard
+        questions.add(new Question(5,
+            "What is the time complexity of adding an element to a HashMap in Java?",
+            new String[]{
+                "O(1) average case",
+                "O(log n)",
+                "O(n)",
+                "O(n^2)"
+            },
+            0, // Correct answer index
+            "Fun Fact: HashMap uses hash tables internally. In the best case, it offers O(1) insertion, but in worst case (when all keys hash to same bucket), it can degrade to O(n)!",
+            "Hard",
+            "HashMap uses hashing for fast lookups. What's the ideal performance of hash table operations?"
+        ));
+        
+        // Question 6 - Easy
+        questions.add(new Question(6,
+            "Which method is used to compare two strings in Java?",
+            new String[]{
+                "compare()",
+                "equals()",
+                "==",
+                "compareTo()"
+            },
+            1, // Correct answer index
+            "Fun Fact: Always use equals() for string comparison! The == operator compares references, not actual string content.",
+            "Easy",
+            "Remember: == compares references, but you want to compare the actual string content."
+        ));
+        
+        // Question 7 - Medium
+        questions.add(new Question(7,
+            "What is the default value of a boolean variable in Java?",
+            new String[]{
+                "true",
+                "false",
+                "0",
+                "null"
+            },
+            1, // Correct answer index
+            "Fun Fact: All boolean instance variables are automatically initialized to false. Local boolean variables must be explicitly initialized!",
+            "Medium"
+        ));
+        
+        // Question 8 - Hard
+        questions.add(new Question(8,
+            "Which design pattern is implemented by the String class in Java?",
+            new String[]{
+                "Singleton",
+                "Factory",
+                "Immutable Object",
+                "Observer"
+            },
+            2, // Correct answer index
+            "Fun Fact: String objects are immutable in Java. Once created, they cannot be changed. This makes them thread-safe and allows for string pooling!",
+            "Hard"
+        ));
+        
+        // Question 9 - Medium
+        questions.add(new Question(9,
+            "What is the correct way to create a thread in Java?",
+            new String[]{
+                "Extend Thread class only",
+                "Implement Runnable interface only",
+                "Both extending Thread and implementing Runnable",
+                "Use ThreadGroup class"
+            },
+            2, // Correct answer index
+            "Fun Fact: Implementing Runnable is generally preferred over extending Thread because Java supports single inheritance, and you might want to extend another class!",
+            "Medium"
+        ));
+        
+        // Question 10 - Hard
+        questions.add(new Question(10,
+            "What happens when you call System.gc() in Java?",
+            new String[]{
+                "Forces immediate garbage collection",
+                "Suggests JVM to run garbage collection",
+                "Throws an exception",
+                "Clears all static variables"
+            },
+            1, // Correct answer index
+            "Fun Fact: System.gc() is just a suggestion to the JVM. The JVM may choose to ignore it! Modern JVMs are very efficient at managing memory automatically.",
+            "Hard"
+        ));
+        
+        return new ArrayQuestionBank(questions, "built-in");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.quiz.questions;
+
+import com.quiz.models.Difficulty;
+
+/**
+ * Bank positions grouped by difficulty, built once per snapshot and shared by every session
+ * Groups are indexed by Difficulty ordinal, so counting a difficulty is O(1) and taking N of
+ * its questions touches only those N entries. Building reads each question's difficulty through
+ * QuestionBank.getDifficulty(int), which compiled banks answer without decoding the question.
+ */
+public final class DifficultyGroups {
+    private final int[][] members;
+    
+    private DifficultyGroups(int[][] members) {
+        this.members = members;
+    }
+    
+    /**
+     * Group every question in the bank by its difficulty: one counting pass, one filling pass
+     */
+    public static DifficultyGroups build(QuestionBank bank) {
+        int size = bank.size();
+        byte[] ordinals = new byte[size];
+        int[] counts = new int[Difficulty.count()];
+        for (int i = 0; i < size; i++) {
+            int ordinal = bank.getDifficulty(i).ordinal();
+            ordinals[i] = (byte) ordinal;
+            counts[ordinal]++;
+        }
+        
+        int[][] members = new int[counts.length][];
+        for (int g = 0; g < counts.length; g++) {
+            members[g] = new int[counts[g]];
+        }
+        int[] filled = new int[counts.length];
+        for (int i = 0; i < size; i++) {
+            int g = ordinals[i];
+            members[g][filled[g]++] = i;
+        }
+        return new DifficultyGroups(members);
+    }
+    
+    /**
+     * Get the number of groups, one per Difficulty (some may be empty)
+     */
+    public int groupCount() {
+        return members.length;
+    }
+    
+    public Difficulty getDifficulty(int group) {
+        return Difficulty.ofOrdinal(group);
+    }
+    
+    public int groupSize(int group) {
+        return members[group].length;
+    }
+    
+    /**
+     * Get the bank position of the n-th question in a group
+     */
+    public int member(int group, int n) {
+        return members[group][n];
+    }
+    
+    /**
+     * Get the number of questions with a difficulty
+     */
+    public int count(Difficulty difficulty) {
+        return members[difficulty.ordinal()].length;
+    }
+    
+    /**
+     * Get the bank position of the n-th question with a difficulty, in bank order
+     */
+    public int member(Difficulty difficulty, int n) {
+        return members[difficulty.ordinal()][n];
+    }
+    
+    /**
+     * Get the bank positions of the first n questions with a difficulty (fewer if it has fewer)
+     */
+    public int[] first(Difficulty difficulty, int n) {
+        int[] group = members[difficulty.ordinal()];
+        int[] positions = new int[Math.min(Math.max(n, 0), group.length)];
+        System.arraycopy(group, 0, positions, 0, positions.length);
+        return positions;
+    }
+}
\ No newline at end of file
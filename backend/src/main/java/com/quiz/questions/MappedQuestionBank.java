@@ -0,0 +1,297 @@
+package com.quiz.questions;
+
+import com.quiz.logging.Log;
+import com.quiz.models.Difficulty;
+import com.quiz.models.Question;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Question bank backed by a memory-mapped binary file (.qbin)
+ * Opening a bank only maps the file and checks its header, so startup time and heap stay flat
+ * however many questions it holds. A Question is decoded from the mapping on first access and
+ * kept in a small direct-mapped cache; the OS page cache holds the rest. Difficulties sit in their
+ * own table, so grouping a bank by difficulty reads one byte per question and decodes nothing.
+ *
+ * File layout (big-endian), version 2:
+ *   int magic "QBNK", int version, int count, int reserved
+ *   int[count + 1] record offsets from the start of the file (the last one marks the end of data)
+ *   byte[count] difficulty codes (see Difficulty.getCode)
+ *   records: int id, unsigned byte correctAnswerIndex, unsigned byte optionCount, then strings for text, each option,
+ *            funFact and hint, each as int byteLength (-1 for null) followed by UTF-8 bytes
+ * Version 1 files have no difficulty table and store the difficulty label as a string between funFact and hint;
+ * they are still readable, but grouping them decodes every question, so recompile them.
+ */
+public class MappedQuestionBank implements QuestionBank {
+    public static final String FILE_EXTENSION = ".qbin";
+    
+    private static final int MAGIC = 0x51424E4B; // "QBNK"
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_DIFFICULTY_TABLE = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int MAX_CACHE_SLOTS = 4096;
+    
+    private final ByteBuffer data;
+    private final int version;
+    private final int count;
+    private final String source;
+    private final AtomicReferenceArray<Materialized> cache;
+    private final int cacheMask;
+    
+    /**
+     * Decoded question together with its bank index, so cache slots can be shared safely
+     */
+    private static final class Materialized {
+        final int index;
+        final Question question;
+        
+        Materialized(int index, Question question) {
+            this.index = index;
+            this.question = question;
+        }
+    }
+    
+    private MappedQuestionBank(ByteBuffer data, int version, int count, String source) {
+        this.data = data;
+        this.version = version;
+        this.count = count;
+        this.source = source;
+        int slots = Integer.highestOneBit(Math.max(1, Math.min(count, MAX_CACHE_SLOTS) * 2 - 1));
+        this.cache = new AtomicReferenceArray<>(slots);
+        this.cacheMask = slots - 1;
+    }
+    
+    /**
+     * Map a compiled question bank file
+     * @throws IOException if the file cannot be read or is not a valid question bank
+     */
+    public static MappedQuestionBank open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Question bank " + file + " is larger than 2 GB");
+            }
+            if (fileSize < HEADER_BYTES + 4) {
+                throw new IOException("Question bank " + file + " is truncated");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a compiled question bank");
+            }
+            int version = mapped.getInt(4);
+            if (version != VERSION && version != VERSION_WITHOUT_DIFFICULTY_TABLE) {
+                throw new IOException("Question bank " + file + " has version " + version + ", expected " + VERSION);
+            }
+            int count = mapped.getInt(8);
+            long tableEnd = tablesEnd(version, count);
+            if (count < 0 || tableEnd > fileSize || mapped.getInt(HEADER_BYTES + 4 * count) != fileSize) {
+                throw new IOException("Question bank " + file + " is truncated or corrupt");
+            }
+            if (version == VERSION_WITHOUT_DIFFICULTY_TABLE) {
+                Log.warn("Question bank {} uses the version 1 format; recompile it to avoid decoding every question on load", file);
+            }
+            return new MappedQuestionBank(mapped, version, count, file.toString());
+        }
+    }
+    
+    /**
+     * Compile a bank into the binary format
+     * Written to a temporary file and moved into place, so a running server never maps a partial file
+     */
+    public static void write(QuestionBank bank, Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            int count = bank.size();
+            int[] offsets = new int[count + 1];
+            byte[] difficulties = new byte[count];
+            long tableEnd = tablesEnd(VERSION, count);
+            
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                // Records first, after room for the header and offset table
+                channel.position(tableEnd);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+                long position = tableEnd;
+                for (int i = 0; i < count; i++) {
+                    if (position > Integer.MAX_VALUE) {
+                        throw new IOException("Question bank is larger than 2 GB");
+                    }
+                    offsets[i] = (int) position;
+                    Question question = bank.get(i);
+                    difficulties[i] = (byte) question.getDifficultyLevel().getCode();
+                    position += writeRecord(out, question);
+                }
+                out.flush();
+                if (position > Integer.MAX_VALUE) {
+                    throw new IOException("Question bank is larger than 2 GB");
+                }
+                offsets[count] = (int) position;
+                
+                ByteBuffer header = ByteBuffer.allocate((int) tableEnd);
+                header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0);
+                for (int offset : offsets) {
+                    header.putInt(offset);
+                }
+                header.put(difficulties);
+                header.flip();
+                channel.position(0);
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                channel.force(false);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+    
+    @Override
+    public int size() {
+        return count;
+    }
+    
+    @Override
+    public Question get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        int slot = index & cacheMask;
+        Materialized cached = cache.get(slot);
+        if (cached != null && cached.index == index) {
+            return cached.question;
+        }
+        // Two threads may decode the same question at once; either copy is fine to keep
+        Question question = decode(index);
+        cache.lazySet(slot, new Materialized(index, question));
+        return question;
+    }
+    
+    @Override
+    public Difficulty getDifficulty(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        if (version == VERSION_WITHOUT_DIFFICULTY_TABLE) {
+            return get(index).getDifficultyLevel();
+        }
+        return difficultyCode(index);
+    }
+    
+    @Override
+    public String getSource() {
+        return source;
+    }
+    
+    @Override
+    public String toString() {
+        return "MappedQuestionBank{source=" + source + ", size=" + count + "}";
+    }
+    
+    // Record encoding
+    
+    /**
+     * Get where the header and tables end and the records begin
+     */
+    private static long tablesEnd(int version, int count) {
+        long offsetsEnd = HEADER_BYTES + 4L * (count + 1L);
+        return version == VERSION_WITHOUT_DIFFICULTY_TABLE ? offsetsEnd : offsetsEnd + count;
+    }
+    
+    private Difficulty difficultyCode(int index) {
+        int code = data.get(HEADER_BYTES + 4 * (count + 1) + index);
+        try {
+            return Difficulty.fromCode(code);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Corrupt difficulty for record " + index + " in question bank " + source, e);
+        }
+    }
+    
+    private Question decode(int index) {
+        int start = data.getInt(HEADER_BYTES + 4 * index);
+        int end = data.getInt(HEADER_BYTES + 4 * (index + 1));
+        if (start < tablesEnd(version, count) || end > data.capacity() || start >= end) {
+            throw new IllegalStateException("Corrupt record " + index + " in question bank " + source);
+        }
+        
+        // Each decode works on its own view, so concurrent readers never share a position
+        ByteBuffer record = data.duplicate();
+        record.limit(end).position(start);
+        try {
+            int id = record.getInt();
+            int correctAnswerIndex = record.get() & 0xFF;
+            int optionCount = record.get() & 0xFF;
+            String text = readString(record);
+            String[] options = new String[optionCount];
+            for (int i = 0; i < optionCount; i++) {
+                options[i] = readString(record);
+            }
+            String funFact = readString(record);
+            if (version == VERSION_WITHOUT_DIFFICULTY_TABLE) {
+                String difficulty = readString(record);
+                return new Question(id, text, options, correctAnswerIndex, funFact, difficulty, readString(record));
+            }
+            String hint = readString(record);
+            Question question = new Question(id, text, options, correctAnswerIndex, funFact, null, hint);
+            question.setDifficultyLevel(difficultyCode(index));
+            return question;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IllegalStateException("Corrupt record " + index + " in question bank " + source, e);
+        }
+    }
+    
+    private static String readString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Write one question record, returning its size in bytes
+     */
+    private static int writeRecord(DataOutputStream out, Question question) throws IOException {
+        String[] options = question.getOptions();
+        if (options.length > 255) {
+            throw new IOException("Question " + question.getId() + " has more than 255 options");
+        }
+        int before = out.size();
+        out.writeInt(question.getId());
+        out.writeByte(question.getCorrectAnswerIndex());
+        out.writeByte(options.length);
+        writeString(out, question.getQuestionText());
+        for (String option : options) {
+            writeString(out, option);
+        }
+        writeString(out, question.getFunFact());
+        writeString(out, question.getHint());
+        return out.size() - before;
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.quiz.questions;
+
+import com.quiz.models.Difficulty;
+import com.quiz.models.Question;
+
+/**
+ * QuestionBank is an immutable, indexed set of quiz questions
+ * Implementations may hold Question objects in memory or decode them on demand
+ */
+public interface QuestionBank {
+    
+    /**
+     * Get number of questions in the bank
+     */
+    int size();
+    
+    /**
+     * Get the question at a position in the bank (0-based)
+     * @throws IndexOutOfBoundsException if index is outside [0, size)
+     */
+    Question get(int index);
+    
+    /**
+     * Get the difficulty of the question at a position
+     * Implementations that can answer without materializing the question should override this
+     */
+    default Difficulty getDifficulty(int index) {
+        return get(index).getDifficultyLevel();
+    }
+    
+    /**
+     * Describe where the questions came from, for logging
+     */
+    String getSource();
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.quiz.questions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line tool that compiles a JSON or CSV question bank into the memory-mapped .qbin format
+ *
+ * Usage: java -cp bin com.quiz.questions.QuestionBankCompiler questions.json [questions.qbin]
+ */
+public final class QuestionBankCompiler {
+    
+    private QuestionBankCompiler() {
+    }
+    
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: QuestionBankCompiler <questions.json|questions.csv> [output.qbin]");
+            System.exit(2);
+        }
+        Path source = Paths.get(args[0]);
+        Path target = args.length == 2 ? Paths.get(args[1]) : defaultTarget(source);
+        
+        try {
+            long started = System.nanoTime();
+            QuestionBank bank = QuestionBankLoader.load(source);
+            MappedQuestionBank.write(bank, target);
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            
+            // Read the result back so a bad write fails here rather than at server startup
+            MappedQuestionBank compiled = MappedQuestionBank.open(target);
+            if (compiled.size() != bank.size()) {
+                throw new IOException("Compiled bank has " + compiled.size() + " questions, expected " + bank.size());
+            }
+            for (int i = 0; i < compiled.size(); i++) {
+                compiled.get(i);
+            }
+            System.out.println("Compiled " + bank.size() + " questions into " + target + " ("
+                + Files.size(target) + " bytes, " + elapsedMillis + " ms)");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to compile " + source + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    private static Path defaultTarget(Path source) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        return source.resolveSibling(baseName + MappedQuestionBank.FILE_EXTENSION);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,372 @@
+package com.quiz.questions;
+
+import com.quiz.datastructures.QuizArrayList;
+import com.quiz.json.JsonReader;
+import com.quiz.logging.Log;
+import com.quiz.models.Difficulty;
+import com.quiz.models.Question;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * QuestionBankLoader reads question banks from files, choosing the format by extension:
+ *   .json - {"questions": [...]} or a bare array of
+ *           {"id", "text", "options": [...], "correctAnswer", "difficulty", "funFact", "hint"}
+ *   .csv  - a header row naming the columns id, text, option1..optionN, correctAnswer,
+ *           difficulty, funFact and hint (any order, unknown columns ignored); options are
+ *           numbered from 1 without gaps, and a question with fewer options leaves its last ones blank
+ *   .qbin - the compiled binary format, memory-mapped and decoded lazily (see MappedQuestionBank)
+ * correctAnswer is the 0-based index of the right option. difficulty is Easy, Medium or Hard in any
+ * case and defaults to Medium. A missing id defaults to the question's 1-based position in the file.
+ */
+public final class QuestionBankLoader {
+    private static final String DEFAULT_HINT = "Think carefully about this question.";
+    
+    private QuestionBankLoader() {
+    }
+    
+    /**
+     * Load a question bank file in any supported format
+     * @throws IOException if the file cannot be read or a question is malformed
+     */
+    public static QuestionBank load(Path file) throws IOException {
+        long started = System.nanoTime();
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        QuestionBank bank;
+        if (name.endsWith(MappedQuestionBank.FILE_EXTENSION)) {
+            bank = MappedQuestionBank.open(file);
+        } else if (name.endsWith(".json")) {
+            bank = readJson(file);
+        } else if (name.endsWith(".csv")) {
+            bank = readCsv(file);
+        } else {
+            throw new IOException("Unsupported question bank format: " + file + " (expected .json, .csv or .qbin)");
+        }
+        if (bank.size() == 0) {
+            throw new IOException("Question bank " + file + " has no questions");
+        }
+        Log.info("Loaded {} questions from {} in {} ms", bank.size(), file, (System.nanoTime() - started) / 1_000_000);
+        return bank;
+    }
+    
+    // JSON
+    
+    public static QuestionBank readJson(Path file) throws IOException {
+        QuizArrayList<Question> questions = new QuizArrayList<>();
+        Map<Integer, String> ids = new HashMap<>();
+        try (JsonReader json = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            try {
+                if (json.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        if ("questions".equals(json.nextName())) {
+                            readJsonQuestions(json, questions, ids);
+                        } else {
+                            json.skipValue();
+                        }
+                    }
+                    json.endObject();
+                } else {
+                    readJsonQuestions(json, questions, ids);
+                }
+                json.peek(); // reject trailing content
+            } catch (IOException e) {
+                throw malformed(file, e);
+            }
+        }
+        return new ArrayQuestionBank(questions, file.toString());
+    }
+    
+    private static void readJsonQuestions(JsonReader json, QuizArrayList<Question> questions, Map<Integer, String> ids) throws IOException {
+        json.beginArray();
+        while (json.hasNext()) {
+            int line = json.getLine();
+            Question question = new Question();
+            question.setId(questions.size() + 1);
+            question.setHint(DEFAULT_HINT);
+            question.setCorrectAnswerIndex(-1);
+            
+            json.beginObject();
+            while (json.hasNext()) {
+                String field = json.nextName();
+                if (json.peek() == JsonReader.Token.NULL) {
+                    json.nextNull();
+                    continue;
+                }
+                switch (field) {
+                    case "id": question.setId(json.nextInt()); break;
+                    case "text": question.setQuestionText(json.nextString()); break;
+                    case "correctAnswer": question.setCorrectAnswerIndex(json.nextInt()); break;
+                    case "difficulty": question.setDifficultyLevel(difficulty(question, json.nextString(), "line " + line)); break;
+                    case "funFact": question.setFunFact(json.nextString()); break;
+                    case "hint": question.setHint(json.nextString()); break;
+                    case "options":
+                        List<String> options = new ArrayList<>(4);
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            options.add(json.nextString());
+                        }
+                        json.endArray();
+                        question.setOptions(options.toArray(new String[0]));
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+            questions.add(validate(question, "line " + line, ids));
+        }
+        json.endArray();
+    }
+    
+    // CSV
+    
+    public static QuestionBank readCsv(Path file) throws IOException {
+        QuizArrayList<Question> questions = new QuizArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            try {
+                readCsvQuestions(new CsvRecordReader(reader), questions);
+            } catch (IOException e) {
+                throw malformed(file, e);
+            }
+        }
+        return new ArrayQuestionBank(questions, file.toString());
+    }
+    
+    private static void readCsvQuestions(CsvRecordReader csv, QuizArrayList<Question> questions) throws IOException {
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        
+        Map<Integer, String> ids = new HashMap<>();
+        Map<String, Integer> columns = new HashMap<>();
+        Map<Integer, Integer> optionsByNumber = new TreeMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).replace("\uFEFF", "").trim(); // spreadsheet exports often start with a BOM
+            int number = optionNumber(column);
+            if (number < 0) {
+                columns.put(column, i);
+            } else if (optionsByNumber.put(number, i) != null) {
+                throw new IOException("Header names option" + number + " twice");
+            }
+        }
+        // correctAnswer indexes the options, so they are taken in number order, never header order
+        int[] optionColumns = new int[optionsByNumber.size()];
+        int expected = 1;
+        for (Map.Entry<Integer, Integer> option : optionsByNumber.entrySet()) {
+            if (option.getKey() != expected) {
+                throw new IOException("Header has option" + option.getKey() + " but no option" + expected);
+            }
+            optionColumns[expected - 1] = option.getValue();
+            expected++;
+        }
+        
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                continue; // blank line
+            }
+            String where = "line " + csv.getRecordLine();
+            Question question = new Question();
+            try {
+                String id = column(record, columns, "id");
+                question.setId(id != null ? Integer.parseInt(id.trim()) : questions.size() + 1);
+                String correctAnswer = column(record, columns, "correctAnswer");
+                question.setCorrectAnswerIndex(correctAnswer != null ? Integer.parseInt(correctAnswer.trim()) : -1);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid number at " + where + " (" + e.getMessage() + ")");
+            }
+            question.setQuestionText(column(record, columns, "text"));
+            question.setDifficultyLevel(difficulty(question, column(record, columns, "difficulty"), where));
+            question.setFunFact(column(record, columns, "funFact"));
+            String hint = column(record, columns, "hint");
+            question.setHint(hint != null ? hint : DEFAULT_HINT);
+            
+            List<String> options = new ArrayList<>(optionColumns.length);
+            for (int i = 0; i < optionColumns.length; i++) {
+                String option = optionColumns[i] < record.size() ? record.get(optionColumns[i]) : "";
+                if (option.trim().isEmpty()) {
+                    continue;
+                }
+                if (options.size() < i) {
+                    // A blank before a filled option would shift every later option, and correctAnswer with them
+                    throw new IOException("Question " + question.getId() + " at " + where + " has option" + (i + 1)
+                        + " but option" + (options.size() + 1) + " is blank");
+                }
+                options.add(option);
+            }
+            question.setOptions(options.toArray(new String[0]));
+            questions.add(validate(question, where, ids));
+        }
+    }
+    
+    /**
+     * Get N for a column named option<N> in any case, or -1 for any other column (optionalNote, say)
+     * @throws IOException if N is 0 or too large to be an option number
+     */
+    private static int optionNumber(String column) throws IOException {
+        if (column.length() <= 6 || !column.regionMatches(true, 0, "option", 0, 6)) {
+            return -1;
+        }
+        for (int i = 6; i < column.length(); i++) {
+            if (column.charAt(i) < '0' || column.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        int number = column.length() > 9 ? 0 : Integer.parseInt(column.substring(6));
+        if (number < 1 || number > 255) {
+            throw new IOException("Header column " + column + " is not an option number from 1 to 255");
+        }
+        return number;
+    }
+    
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+    
+    /**
+     * RFC 4180 records: quoted fields may contain commas, doubled quotes and line breaks
+     */
+    private static final class CsvRecordReader {
+        private final Reader reader;
+        private int line = 1;
+        private int recordLine;
+        private int pending = -2; // one character of lookahead; -2 = none
+        
+        CsvRecordReader(Reader reader) {
+            this.reader = reader;
+        }
+        
+        int getRecordLine() {
+            return recordLine;
+        }
+        
+        /**
+         * Read the next record, or null at end of input
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field starting at line " + recordLine);
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            pending = next;
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+        
+        private int read() throws IOException {
+            int c;
+            if (pending != -2) {
+                c = pending;
+                pending = -2;
+            } else {
+                c = reader.read();
+                if (c == '\n') {
+                    line++;
+                }
+            }
+            return c;
+        }
+    }
+    
+    // Validation
+    
+    /**
+     * Check a question is usable and its ID is not taken, recording the ID with where it was found
+     * IDs must be unique: answers, duplicate submissions and analytics are matched by ID. A question
+     * without an ID takes its position in the file, which can also collide with an explicit one.
+     */
+    private static Question validate(Question question, String where, Map<Integer, String> ids) throws IOException {
+        String problem = null;
+        String[] options = question.getOptions();
+        if (question.getQuestionText() == null || question.getQuestionText().trim().isEmpty()) {
+            problem = "is missing its text";
+        } else if (options == null || options.length < 2) {
+            problem = "needs at least two options";
+        } else if (options.length > 255) {
+            problem = "has more than 255 options";
+        } else if (question.getCorrectAnswerIndex() < 0 || question.getCorrectAnswerIndex() >= options.length) {
+            problem = "needs correctAnswer between 0 and " + (options.length - 1);
+        } else if (ids.containsKey(question.getId())) {
+            problem = "has the same ID as the question at " + ids.get(question.getId());
+        }
+        if (problem != null) {
+            throw new IOException("Question " + question.getId() + " at " + where + " " + problem);
+        }
+        ids.put(question.getId(), where);
+        return question;
+    }
+    
+    /**
+     * Parse a difficulty label (case-insensitive; missing = Medium)
+     */
+    private static Difficulty difficulty(Question question, String label, String where) throws IOException {
+        try {
+            return Difficulty.fromLabel(label);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Question " + question.getId() + " at " + where + " has unknown difficulty '" + label
+                + "' (expected Easy, Medium or Hard)");
+        }
+    }
+    
+    private static IOException malformed(Path file, IOException cause) {
+        return new IOException("Malformed question bank " + file + ": " + cause.getMessage(), cause);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.quiz.questions;
+
+import com.quiz.logging.Log;
+import com.quiz.server.ServerConfig;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuestionCatalog publishes the current question snapshot and swaps in new ones on reload
+ * Copy-on-write: reload() builds a complete new bank on the caller's thread (the admin request
+ * or the file watcher), then publishes it with a single volatile write. Readers never lock and
+ * never see a half-built bank; sessions already running keep the snapshot they started with.
+ *
+ * .qbin files are memory-mapped, so replace them by writing a new file and renaming it over the
+ * old one (QuestionBankCompiler does this) - truncating a mapped file in place breaks old snapshots.
+ */
+public class QuestionCatalog {
+    private final Path file; // null when the bank was not loaded from a file
+    private volatile QuestionSnapshot current;
+    
+    /**
+     * Catalog with a fixed bank that cannot be reloaded
+     */
+    public QuestionCatalog(QuestionBank bank) {
+        this.file = null;
+        this.current = prepare(new QuestionSnapshot(bank, 1));
+    }
+    
+    /**
+     * Catalog loaded from (and reloadable from) a question bank file
+     */
+    public QuestionCatalog(Path file) throws IOException {
+        this.file = file;
+        this.current = prepare(new QuestionSnapshot(QuestionBankLoader.load(file), 1));
+    }
+    
+    /**
+     * Load the bank named by --questions/QUIZ_QUESTIONS (built-in questions when unset) and watch it
+     * for changes when --questions-watch/QUIZ_QUESTIONS_WATCH is set
+     */
+    public static QuestionCatalog fromConfig(ServerConfig config) throws IOException {
+        String path = config.getString("questions", "QUIZ_QUESTIONS", null);
+        if (path == null) {
+            return new QuestionCatalog(BuiltInQuestions.create());
+        }
+        QuestionCatalog catalog = new QuestionCatalog(Paths.get(path));
+        if (config.getBoolean("questions-watch", "QUIZ_QUESTIONS_WATCH", false)) {
+            catalog.startWatching();
+        }
+        return catalog;
+    }
+    
+    /**
+     * Get the snapshot new sessions should start with
+     */
+    public QuestionSnapshot current() {
+        return current;
+    }
+    
+    public boolean isReloadable() {
+        return file != null;
+    }
+    
+    /**
+     * Re-read the bank file into a new snapshot and publish it
+     * On failure the current snapshot stays in place
+     * @throws IllegalStateException if the catalog was not loaded from a file
+     */
+    public synchronized QuestionSnapshot reload() throws IOException {
+        if (file == null) {
+            throw new IllegalStateException("Question bank was not loaded from a file");
+        }
+        QuestionBank bank = QuestionBankLoader.load(file);
+        QuestionSnapshot snapshot = prepare(new QuestionSnapshot(bank, current.getVersion() + 1));
+        current = snapshot;
+        Log.info("Question bank version {} published with {} questions", snapshot.getVersion(), bank.size());
+        return snapshot;
+    }
+    
+    /**
+     * Build derived indexes before publishing, so the first session on a new snapshot does not pay for them
+     */
+    private static QuestionSnapshot prepare(QuestionSnapshot snapshot) {
+        snapshot.getDifficultyGroups();
+        return snapshot;
+    }
+    
+    /**
+     * Watch the bank file and reload after changes settle (daemon thread)
+     */
+    public void startWatching() throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path directory = absolute.getParent();
+        Path fileName = absolute.getFileName();
+        WatchService watcher = FileSystems.getDefault().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        
+        Thread thread = new Thread(() -> {
+            while (true) {
+                try {
+                    WatchKey key = watcher.take();
+                    boolean changed = false;
+                    // Editors and compilers write in bursts; wait for the burst to finish before reloading
+                    WatchKey next;
+                    do {
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            changed |= fileName.equals(event.context());
+                        }
+                        key.reset();
+                        next = watcher.poll(200, TimeUnit.MILLISECONDS);
+                        if (next != null) {
+                            key = next;
+                        }
+                    } while (next != null);
+                    if (changed) {
+                        reload();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    Log.error("Failed to reload question bank {}, keeping the current version", file, e);
+                }
+            }
+        }, "quiz-questions-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        Log.info("Watching {} for question bank changes", file);
+    }
+}
\ No newline at end of file
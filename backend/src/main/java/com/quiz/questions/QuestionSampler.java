@@ -0,0 +1,149 @@
+package com.quiz.questions;
+
+import com.quiz.logging.Log;
+import com.quiz.server.ServerConfig;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * QuestionSampler picks which bank questions a new session gets, and in what order
+ * A session stores only the resulting int[] of bank positions (K entries for a K-question quiz);
+ * Question objects are never copied. In random mode the K questions are spread as evenly as the
+ * bank allows across difficulties, drawn without replacement within each difficulty in O(K)
+ * time and memory (Floyd's algorithm), then shuffled.
+ */
+public class QuestionSampler {
+    
+    public enum Order {
+        SEQUENTIAL, RANDOM;
+        
+        public static Order parse(String value) {
+            switch (value.toLowerCase()) {
+                case "sequential": return SEQUENTIAL;
+                case "random": return RANDOM;
+                default:
+                    Log.warn("Unknown question order '{}', using random", value);
+                    return RANDOM;
+            }
+        }
+    }
+    
+    private final Order order;
+    private final int quizLength;
+    
+    /**
+     * @param quizLength questions per quiz, capped at the bank size (0 or less = the whole bank)
+     */
+    public QuestionSampler(Order order, int quizLength) {
+        this.order = order;
+        this.quizLength = quizLength;
+    }
+    
+    /**
+     * Ten questions in bank order, matching the original fixed quiz
+     */
+    public static QuestionSampler sequential() {
+        return new QuestionSampler(Order.SEQUENTIAL, 10);
+    }
+    
+    /**
+     * Build a sampler from --question-order/QUIZ_QUESTION_ORDER (random or sequential) and
+     * --quiz-length/QUIZ_LENGTH
+     */
+    public static QuestionSampler fromConfig(ServerConfig config) {
+        return new QuestionSampler(
+            Order.parse(config.getString("question-order", "QUIZ_QUESTION_ORDER", "random")),
+            config.getInt("quiz-length", "QUIZ_LENGTH", 10)
+        );
+    }
+    
+    /**
+     * Get the number of questions a quiz drawn from this snapshot will have
+     */
+    public int quizLength(QuestionSnapshot questions) {
+        return quizLength > 0 ? Math.min(quizLength, questions.size()) : questions.size();
+    }
+    
+    /**
+     * Choose the bank positions for a new session, in the order they will be asked
+     */
+    public int[] select(QuestionSnapshot questions) {
+        int length = quizLength(questions);
+        int[] selected = new int[length];
+        if (order == Order.SEQUENTIAL) {
+            for (int i = 0; i < length; i++) {
+                selected[i] = i;
+            }
+            return selected;
+        }
+        
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        DifficultyGroups groups = questions.getDifficultyGroups();
+        int[] quotas = balancedQuotas(groups, length);
+        int filled = 0;
+        for (int group = 0; group < quotas.length; group++) {
+            filled = sampleGroup(groups, group, quotas[group], selected, filled, random);
+        }
+        
+        // Fisher-Yates so difficulties are interleaved rather than asked in blocks
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = selected[i];
+            selected[i] = selected[j];
+            selected[j] = swap;
+        }
+        return selected;
+    }
+    
+    /**
+     * Split the quiz length across difficulties as evenly as group sizes allow
+     * Smallest groups are settled first so their shortfall goes to the larger ones
+     */
+    static int[] balancedQuotas(DifficultyGroups groups, int length) {
+        int groupCount = groups.groupCount();
+        Integer[] bySize = new Integer[groupCount];
+        for (int g = 0; g < groupCount; g++) {
+            bySize[g] = g;
+        }
+        Arrays.sort(bySize, (a, b) -> Integer.compare(groups.groupSize(a), groups.groupSize(b)));
+        
+        int[] quotas = new int[groupCount];
+        int remaining = length;
+        for (int i = 0; i < groupCount; i++) {
+            int group = bySize[i];
+            int fairShare = (remaining + (groupCount - i) - 1) / (groupCount - i); // ceiling
+            quotas[group] = Math.min(groups.groupSize(group), fairShare);
+            remaining -= quotas[group];
+        }
+        return quotas;
+    }
+    
+    /**
+     * Floyd's algorithm: k distinct members of a group, touching only k positions
+     */
+    private static int sampleGroup(DifficultyGroups groups, int group, int k, int[] target, int offset,
+                                   ThreadLocalRandom random) {
+        int size = groups.groupSize(group);
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        for (int j = size - k; j < size; j++) {
+            int pick = random.nextInt(j + 1);
+            if (!chosen.add(pick)) {
+                chosen.add(j);
+                pick = j;
+            }
+            target[offset++] = groups.member(group, pick);
+        }
+        return offset;
+    }
+    
+    public Order getOrder() {
+        return order;
+    }
+    
+    @Override
+    public String toString() {
+        return "QuestionSampler{order=" + order + ", quizLength=" + (quizLength > 0 ? quizLength : "all") + "}";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.quiz.questions;
+
+import com.quiz.models.Question;
+
+/**
+ * One published version of the question bank
+ * Immutable: a reload builds a new snapshot instead of changing this one, and sessions keep
+ * the snapshot they started with until they finish (the difficulty groups are derived lazily)
+ */
+public final class QuestionSnapshot {
+    private final QuestionBank bank;
+    private final long version;
+    private final long loadedAtMillis;
+    private volatile DifficultyGroups difficultyGroups; // built on first use
+    
+    public QuestionSnapshot(QuestionBank bank, long version) {
+        this.bank = bank;
+        this.version = version;
+        this.loadedAtMillis = System.currentTimeMillis();
+    }
+    
+    public int size() {
+        return bank.size();
+    }
+    
+    public Question get(int index) {
+        return bank.get(index);
+    }
+    
+    /**
+     * Get the questions grouped by difficulty, building the groups on first use
+     */
+    public DifficultyGroups getDifficultyGroups() {
+        DifficultyGroups groups = difficultyGroups;
+        if (groups == null) {
+            synchronized (this) {
+                groups = difficultyGroups;
+                if (groups == null) {
+                    groups = DifficultyGroups.build(bank);
+                    difficultyGroups = groups;
+                }
+            }
+        }
+        return groups;
+    }
+    
+    public QuestionBank getBank() {
+        return bank;
+    }
+    
+    /**
+     * Get the version number, increasing by one with every successful reload
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+    
+    public String getSource() {
+        return bank.getSource();
+    }
+    
+    @Override
+    public String toString() {
+        return "QuestionSnapshot{version=" + version + ", size=" + bank.size() + ", source=" + bank.getSource() + "}";
+    }
+}
\ No newline at end of file
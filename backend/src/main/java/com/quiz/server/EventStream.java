@@ -0,0 +1,198 @@
+package com.quiz.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EventStream is one open text/event-stream (Server-Sent Events) response
+ * The handler sends the headers and returns, leaving the exchange open; frames are queued here and
+ * written later by a small shared writer pool. An idle stream therefore costs a socket and an empty
+ * queue rather than a parked thread. At most one writer drains a stream at a time, so frames go out
+ * in order, and only the writer ever touches the response body.
+ * A client that stops reading is dropped once MAX_PENDING frames are waiting for it, or once a write
+ * to it has been stuck for MAX_STALL (see dropIfStalled). A write blocked on the JDK engine's socket
+ * would otherwise pin its writer thread for as long as the client stays connected, so dropping
+ * interrupts the writer: interrupting a thread blocked on a socket channel closes the channel,
+ * which ends the write and frees the writer for other streams.
+ */
+public final class EventStream {
+    private static final int MAX_PENDING = 64;
+    private static final long MAX_STALL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final byte[] EVENT = "event: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA = "\ndata: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "\n\n".getBytes(StandardCharsets.UTF_8);
+    
+    private final HttpExchange exchange;
+    private final OutputStream body;
+    private final Executor writers;
+    private final ConcurrentLinkedQueue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closing; // close once everything queued has been written
+    private volatile boolean closed;
+    // Writer draining this stream, and since when; guarded by writerLock
+    private final Object writerLock = new Object();
+    private Thread writer;
+    private long writeStartedNanos;
+    
+    private EventStream(HttpExchange exchange, Executor writers) {
+        this.exchange = exchange;
+        this.body = exchange.getResponseBody();
+        this.writers = writers;
+    }
+    
+    /**
+     * Start an event stream response (200, chunked) on an exchange; the caller must not close the exchange
+     */
+    public static EventStream open(HttpExchange exchange, Executor writers) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "text/event-stream; charset=utf-8");
+        headers.set("Cache-Control", "no-store");
+        headers.set("X-Accel-Buffering", "no"); // keep reverse proxies from buffering the stream
+        exchange.sendResponseHeaders(200, 0);
+        return new EventStream(exchange, writers);
+    }
+    
+    /**
+     * Encode one event: "event: name", "data: json" and a blank line (data must not contain newlines)
+     */
+    public static byte[] frame(String event, byte[] data) {
+        byte[] name = event.getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[EVENT.length + name.length + DATA.length + data.length + END.length];
+        int offset = 0;
+        for (byte[] part : new byte[][] {EVENT, name, DATA, data, END}) {
+            System.arraycopy(part, 0, frame, offset, part.length);
+            offset += part.length;
+        }
+        return frame;
+    }
+    
+    /**
+     * Queue a frame for this client
+     * @return false if the stream is closed or closing, or the client fell too far behind and was dropped
+     */
+    public boolean send(byte[] frame) {
+        if (closing || closed) {
+            return false;
+        }
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            drop();
+            return false;
+        }
+        pending.offer(frame);
+        schedule();
+        return true;
+    }
+    
+    /**
+     * End the stream once every frame already queued has been written (idempotent)
+     */
+    public void close() {
+        closing = true;
+        schedule();
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Drop the client if a write to it has been blocked for longer than MAX_STALL
+     * Called periodically, since a stalled stream may get no more frames to notice it by.
+     * @return true if the stream was dropped
+     */
+    public boolean dropIfStalled(long nowNanos) {
+        synchronized (writerLock) {
+            if (writer == null || nowNanos - writeStartedNanos < MAX_STALL_NANOS) {
+                return false;
+            }
+        }
+        drop();
+        return true;
+    }
+    
+    /**
+     * Discard queued frames and end the stream, breaking off a write in progress
+     */
+    private void drop() {
+        closing = true;
+        pending.clear();
+        synchronized (writerLock) {
+            if (writer != null) {
+                writer.interrupt();
+            }
+        }
+        schedule();
+    }
+    
+    private void schedule() {
+        if (closed || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writers.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Writers are shut down; nothing more can be sent
+            scheduled.set(false);
+            finish();
+        }
+    }
+    
+    private void drain() {
+        synchronized (writerLock) {
+            writer = Thread.currentThread();
+            writeStartedNanos = System.nanoTime();
+        }
+        try {
+            boolean wrote = false;
+            byte[] frame;
+            while (!closed && (frame = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                body.write(frame);
+                wrote = true;
+            }
+            if (wrote) {
+                body.flush();
+            }
+            if (closing && pending.isEmpty()) {
+                finish();
+            }
+        } catch (IOException e) {
+            // The client went away, or was dropped
+            finish();
+        } finally {
+            synchronized (writerLock) {
+                writer = null;
+                Thread.interrupted(); // an interrupt meant for this stream must not reach the next one
+            }
+            scheduled.set(false);
+        }
+        // Frames queued after the last poll found the writer still marked as scheduled
+        if (!closed && (!pending.isEmpty() || closing)) {
+            schedule();
+        }
+    }
+    
+    /**
+     * End the response; the stream only counts as closed once that is done, since ending a chunked
+     * response writes to the socket and can stall like any other write
+     */
+    private void finish() {
+        if (closed) {
+            return;
+        }
+        pending.clear();
+        exchange.close();
+        closed = true;
+    }
+}
\ No newline at end of file
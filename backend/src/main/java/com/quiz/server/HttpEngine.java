@@ -0,0 +1,68 @@
+package com.quiz.server;
+
+import com.quiz.logging.Log;
+import com.quiz.server.nio.NioHttpServer;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * HttpEngine selects the HTTP server the quiz handlers run on
+ * JDK is the built-in com.sun.net.httpserver server; NIO is NioHttpServer, with its own event loops,
+ * connection cap and keep-alive settings. Both take the same contexts, filters and handlers, so the
+ * two can be compared under the same load by switching --http-engine.
+ */
+public enum HttpEngine {
+    JDK, NIO;
+    
+    public static HttpEngine parse(String value) {
+        switch (value.toLowerCase()) {
+            case "nio": return NIO;
+            case "jdk": return JDK;
+            default:
+                Log.warn("Unknown HTTP engine '{}', using jdk", value);
+                return JDK;
+        }
+    }
+    
+    /**
+     * Read the engine from --http-engine/QUIZ_HTTP_ENGINE
+     */
+    public static HttpEngine fromConfig(ServerConfig config) {
+        return parse(config.getString("http-engine", "QUIZ_HTTP_ENGINE", "jdk"));
+    }
+    
+    /**
+     * Create a server bound to the port (not yet started), queueing up to --accept-backlog/QUIZ_ACCEPT_BACKLOG
+     * connections that have not been accepted yet
+     */
+    public HttpServer create(ServerConfig config, int port) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(port);
+        int backlog = config.getInt("accept-backlog", "QUIZ_ACCEPT_BACKLOG", 1024);
+        if (this == NIO) {
+            NioHttpServer server = NioHttpServer.fromConfig(config);
+            server.bind(address, backlog);
+            return server;
+        }
+        
+        // The JDK server is tuned through system properties, read once when it first starts
+        // Headers and body go out as separate writes; with Nagle on, the body waits ~40ms for the client's delayed ACK
+        setDefault("sun.net.httpserver.nodelay", "true");
+        String keepAlive = config.getString("keep-alive-timeout", "QUIZ_KEEP_ALIVE_TIMEOUT", null);
+        if (keepAlive != null) {
+            setDefault("sun.net.httpserver.idleInterval", keepAlive);
+        }
+        return HttpServer.create(address, backlog);
+    }
+    
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+    
+    private static void setDefault(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.quiz.server;
+
+import com.quiz.metrics.RouteMetrics;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+
+/**
+ * MetricsFilter times every exchange on a route and counts it by response status
+ * Installed ahead of OverloadFilter, so requests shed with 503 are counted too; a handler that
+ * throws before responding is counted as 500.
+ */
+public class MetricsFilter extends Filter {
+    private final RouteMetrics route;
+    
+    public MetricsFilter(RouteMetrics route) {
+        this.route = route;
+    }
+    
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            route.record(exchange.getResponseCode(), System.nanoTime() - start);
+        }
+    }
+    
+    @Override
+    public String description() {
+        return "Records request counts and latency for " + route.getRoute();
+    }
+}
\ No newline at end of file
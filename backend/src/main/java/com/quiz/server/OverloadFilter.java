@@ -0,0 +1,37 @@
+package com.quiz.server;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * OverloadFilter answers 503 Service Unavailable for exchanges RequestExecutor could not admit
+ * It runs before every handler so a saturated server sheds load without touching quiz state
+ */
+public class OverloadFilter extends Filter {
+    private static final byte[] OVERLOADED_BODY =
+        "{\"error\": \"Server is busy, please retry shortly\"}".getBytes(StandardCharsets.UTF_8);
+    
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!RequestExecutor.isRejected()) {
+            chain.doFilter(exchange);
+            return;
+        }
+        
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        exchange.getResponseHeaders().set("Connection", "close");
+        exchange.sendResponseHeaders(503, OVERLOADED_BODY.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(OVERLOADED_BODY);
+        }
+    }
+    
+    @Override
+    public String description() {
+        return "Rejects requests with 503 when the request executor is saturated";
+    }
+}
\ No newline at end of file
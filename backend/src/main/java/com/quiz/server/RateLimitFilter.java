@@ -0,0 +1,81 @@
+package com.quiz.server;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * RateLimitFilter answers 429 Too Many Requests with Retry-After to clients over their RateLimiter budget
+ * Every request is charged to its client address, and a request with a live quiz session to that
+ * session as well. Players behind a shared address each get a session budget, while the address
+ * budget caps them all together, so a client cannot multiply its rate by starting sessions and
+ * spreading requests across them. Made-up session IDs are charged to the address alone.
+ */
+public class RateLimitFilter extends Filter {
+    private static final byte[] LIMITED_BODY =
+        "{\"error\": \"Too many requests, please slow down\"}".getBytes(StandardCharsets.UTF_8);
+    
+    private final RateLimiter sessions;
+    private final RateLimiter addresses;
+    private final Function<HttpExchange, String> sessionOf;
+    private final boolean trustForwardedFor;
+    
+    /**
+     * @param sessions per-session limits
+     * @param addresses per-address limits, covering every session from the address together
+     * @param sessionOf the live session ID to charge an exchange to, or null to charge only its address
+     * @param trustForwardedFor key addresses by the first X-Forwarded-For address (behind a proxy)
+     */
+    public RateLimitFilter(RateLimiter sessions, RateLimiter addresses, Function<HttpExchange, String> sessionOf,
+                           boolean trustForwardedFor) {
+        this.sessions = sessions;
+        this.addresses = addresses;
+        this.sessionOf = sessionOf;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+    
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        long waitNanos = addresses.acquire(clientAddress(exchange));
+        if (waitNanos == 0) {
+            String sessionId = sessionOf.apply(exchange);
+            if (sessionId != null) {
+                waitNanos = sessions.acquire(sessionId);
+            }
+        }
+        if (waitNanos == 0) {
+            chain.doFilter(exchange);
+            return;
+        }
+        
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Retry-After", Long.toString(retryAfter));
+        exchange.sendResponseHeaders(429, LIMITED_BODY.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(LIMITED_BODY);
+        }
+    }
+    
+    private String clientAddress(HttpExchange exchange) {
+        if (trustForwardedFor) {
+            String forwarded = exchange.getRequestHeaders().getFirst("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isEmpty()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        InetSocketAddress remote = exchange.getRemoteAddress();
+        return remote != null ? remote.getAddress().getHostAddress() : "unknown";
+    }
+    
+    @Override
+    public String description() {
+        return "Rejects requests with 429 when a client exceeds its rate limit";
+    }
+}
\ No newline at end of file
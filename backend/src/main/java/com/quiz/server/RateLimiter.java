@@ -0,0 +1,148 @@
+package com.quiz.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RateLimiter gives every client a token bucket: a sustained rate of requests per second plus a burst
+ * Each bucket is a single AtomicLong holding its theoretical arrival time (the generic cell rate
+ * algorithm): a request is admitted when that time is no more than the burst ahead of now, and
+ * pushes it one interval further with a CAS. Admission therefore never locks and costs a map lookup
+ * and usually one CAS. A bucket whose arrival time has passed is full, exactly like a fresh one, so
+ * idle clients can be forgotten at any time; they are swept out every few seconds by whichever
+ * request notices the sweep is due. Past maxClients tracked clients, unknown clients are let
+ * through untracked rather than evicting buckets that are still limiting someone.
+ */
+public class RateLimiter {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, AtomicLong> clients = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+    private volatile long nextSweepNanos = System.nanoTime() + SWEEP_INTERVAL_NANOS;
+    
+    /**
+     * @param requestsPerSecond sustained rate per client
+     * @param burst requests a client may make at once after being idle
+     * @param maxClients clients tracked at once
+     */
+    public RateLimiter(double requestsPerSecond, int burst, int maxClients) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+        this.burstNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.maxClients = Math.max(1, maxClients);
+    }
+    
+    /**
+     * Build a limiter from --rate-limit/QUIZ_RATE_LIMIT (requests per second, 0 disables),
+     * --rate-limit-burst/QUIZ_RATE_LIMIT_BURST and --rate-limit-clients/QUIZ_RATE_LIMIT_CLIENTS
+     * @return null when rate limiting is disabled
+     */
+    public static RateLimiter fromConfig(ServerConfig config) {
+        int rate = config.getInt("rate-limit", "QUIZ_RATE_LIMIT", 0);
+        if (rate <= 0) {
+            return null;
+        }
+        return new RateLimiter(
+            rate,
+            config.getInt("rate-limit-burst", "QUIZ_RATE_LIMIT_BURST", rate * 2),
+            config.getInt("rate-limit-clients", "QUIZ_RATE_LIMIT_CLIENTS", 100_000)
+        );
+    }
+    
+    /**
+     * Build the limiter for whole client addresses, which every request is also charged to, from
+     * --rate-limit-address/QUIZ_RATE_LIMIT_ADDRESS (requests per second from one address, default 20
+     * times --rate-limit, for players sharing an address), with a burst of twice that rate and the same
+     * --rate-limit-clients cap
+     * @return null when rate limiting is disabled
+     */
+    public static RateLimiter forAddresses(ServerConfig config) {
+        int rate = config.getInt("rate-limit", "QUIZ_RATE_LIMIT", 0);
+        if (rate <= 0) {
+            return null;
+        }
+        int addressRate = config.getInt("rate-limit-address", "QUIZ_RATE_LIMIT_ADDRESS", 0);
+        if (addressRate <= 0) {
+            addressRate = rate * 20;
+        }
+        return new RateLimiter(addressRate, addressRate * 2, config.getInt("rate-limit-clients", "QUIZ_RATE_LIMIT_CLIENTS", 100_000));
+    }
+    
+    /**
+     * Take one request from a client's bucket
+     * @return 0 if admitted, otherwise nanoseconds until the client may retry
+     */
+    public long acquire(String client) {
+        long now = System.nanoTime();
+        if (now - nextSweepNanos >= 0) {
+            sweep(now);
+        }
+        
+        AtomicLong bucket = clients.get(client);
+        if (bucket == null) {
+            if (clients.size() >= maxClients) {
+                untracked.increment();
+                return 0;
+            }
+            bucket = clients.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long start = arrival - now > 0 ? arrival : now;
+            long ahead = start - now;
+            if (ahead > burstNanos) {
+                rejected.increment();
+                return ahead - burstNanos;
+            }
+            if (bucket.compareAndSet(arrival, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * Get number of clients currently tracked
+     */
+    public int getTrackedClients() {
+        return clients.size();
+    }
+    
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+    
+    /**
+     * Get number of requests admitted without a bucket because maxClients was reached
+     */
+    public long getUntrackedCount() {
+        return untracked.sum();
+    }
+    
+    /**
+     * Forget clients whose buckets have refilled; one thread sweeps at a time
+     */
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            nextSweepNanos = now + SWEEP_INTERVAL_NANOS;
+            clients.values().removeIf(bucket -> bucket.get() - now <= 0);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "RateLimiter{rate=" + String.format("%.1f", TimeUnit.SECONDS.toNanos(1) / (double) intervalNanos)
+            + "/s, burst=" + (burstNanos / intervalNanos + 1) + ", maxClients=" + maxClients + '}';
+    }
+}
\ No newline at end of file
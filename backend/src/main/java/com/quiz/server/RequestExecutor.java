@@ -0,0 +1,215 @@
+package com.quiz.server;
+
+import com.quiz.logging.Log;
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RequestExecutor runs HTTP exchanges for the JDK HttpServer in one of three modes:
+ * a virtual thread per request, a fixed worker pool, or inline on the dispatcher thread
+ * Pooled and virtual modes cap in-flight plus queued requests; anything beyond the cap
+ * is run in "rejected" mode so OverloadFilter can answer 503 without doing real work.
+ * Rejected exchanges go to a couple of rejection threads rather than running on the caller, which is
+ * the server's dispatcher: writing the 503 and draining a slow client's body there would stall
+ * every other connection just when the server is busiest. Only if the rejection backlog is full
+ * as well does the caller answer inline.
+ */
+public class RequestExecutor implements Executor {
+    
+    public enum Mode {
+        VIRTUAL, POOL, SINGLE;
+        
+        public static Mode parse(String value) {
+            switch (value.toLowerCase()) {
+                case "virtual": return VIRTUAL;
+                case "single": return SINGLE;
+                case "pool": return POOL;
+                default:
+                    Log.warn("Unknown executor mode '{}', using pool", value);
+                    return POOL;
+            }
+        }
+    }
+    
+    private static final ThreadLocal<Boolean> REJECTED = new ThreadLocal<>();
+    private static final int REJECTION_THREADS = 2;
+    private static final int REJECTION_BACKLOG = 1024;
+    
+    private final Mode mode;
+    private final ExecutorService delegate;
+    private final ExecutorService rejections;
+    private final Semaphore permits;
+    private final int capacity;
+    
+    private RequestExecutor(Mode mode, ExecutorService delegate, int capacity) {
+        this.mode = mode;
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.permits = capacity > 0 ? new Semaphore(capacity) : null;
+        this.rejections = delegate != null
+            ? new ThreadPoolExecutor(REJECTION_THREADS, REJECTION_THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(REJECTION_BACKLOG), new WorkerThreadFactory("quiz-rejector-"))
+            : null;
+    }
+    
+    /**
+     * Create an executor for the requested mode
+     * @param workers pool size (ignored for virtual and single modes)
+     * @param queueDepth requests allowed to wait beyond the running ones before 503s start
+     */
+    public static RequestExecutor create(Mode mode, int workers, int queueDepth) {
+        int poolSize = Math.max(1, workers);
+        int waiting = Math.max(0, queueDepth);
+        
+        if (mode == Mode.VIRTUAL) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) {
+                // Virtual threads are cheap, so the cap bounds total in-flight work instead of threads
+                return new RequestExecutor(Mode.VIRTUAL, virtual, poolSize + waiting);
+            }
+            Log.warn("Virtual threads need Java 21+, falling back to a fixed pool");
+            mode = Mode.POOL;
+        }
+        
+        if (mode == Mode.POOL) {
+            ExecutorService pool = Executors.newFixedThreadPool(poolSize, new WorkerThreadFactory("quiz-worker-"));
+            return new RequestExecutor(Mode.POOL, pool, poolSize + waiting);
+        }
+        
+        return new RequestExecutor(Mode.SINGLE, null, 0);
+    }
+    
+    /**
+     * Build an executor from --executor/QUIZ_EXECUTOR, --workers/QUIZ_WORKERS and --queue-depth/QUIZ_QUEUE_DEPTH
+     */
+    public static RequestExecutor fromConfig(ServerConfig config) {
+        Mode mode = Mode.parse(config.getString("executor", "QUIZ_EXECUTOR", "pool"));
+        int workers = config.getInt("workers", "QUIZ_WORKERS", Runtime.getRuntime().availableProcessors() * 2);
+        int queueDepth = config.getInt("queue-depth", "QUIZ_QUEUE_DEPTH", 1024);
+        return create(mode, workers, queueDepth);
+    }
+    
+    @Override
+    public void execute(Runnable exchange) {
+        if (delegate == null) {
+            exchange.run();
+            return;
+        }
+        
+        if (!permits.tryAcquire()) {
+            runRejected(exchange);
+            return;
+        }
+        
+        try {
+            delegate.execute(() -> {
+                try {
+                    exchange.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor already shut down - still answer the client
+            permits.release();
+            runRejected(exchange);
+        }
+    }
+    
+    /**
+     * Run the exchange with the rejected flag set, on a rejection thread when one can take it;
+     * OverloadFilter turns it into a 503
+     */
+    private void runRejected(Runnable exchange) {
+        Runnable rejected = () -> {
+            REJECTED.set(Boolean.TRUE);
+            try {
+                exchange.run();
+            } finally {
+                REJECTED.remove();
+            }
+        };
+        try {
+            rejections.execute(rejected);
+        } catch (RejectedExecutionException e) {
+            rejected.run(); // the rejection backlog is full too, or the executor is shutting down
+        }
+    }
+    
+    /**
+     * Check whether the exchange on the current thread was rejected for overload
+     */
+    public static boolean isRejected() {
+        return REJECTED.get() != null;
+    }
+    
+    /**
+     * Stop accepting work and wait briefly for in-flight requests
+     */
+    public void shutdown() {
+        if (delegate == null) {
+            return;
+        }
+        delegate.shutdown();
+        try {
+            delegate.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejections.shutdown();
+    }
+    
+    public Mode getMode() {
+        return mode;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public int getInFlight() {
+        return permits != null ? capacity - permits.availablePermits() : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "RequestExecutor{mode=" + mode + (permits != null ? ", capacity=" + capacity : "") + '}';
+    }
+    
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() looked up reflectively so the code still compiles for Java 11
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        WorkerThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
\ No newline at end of file
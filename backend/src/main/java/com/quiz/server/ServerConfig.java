@@ -0,0 +1,85 @@
+package com.quiz.server;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ServerConfig resolves runtime settings from command-line flags and environment variables
+ * A flag such as --executor=pool takes precedence over its environment variable (QUIZ_EXECUTOR)
+ */
+public class ServerConfig {
+    private final Map<String, String> flags;
+    private final Map<String, String> env;
+    
+    public ServerConfig(String[] args, Map<String, String> env) {
+        this.flags = parseFlags(args);
+        this.env = env;
+    }
+    
+    /**
+     * Build configuration from the process arguments and environment
+     */
+    public static ServerConfig fromArgs(String[] args) {
+        return new ServerConfig(args, System.getenv());
+    }
+    
+    /**
+     * Get a string setting, checking the flag first, then the environment variable
+     */
+    public String getString(String flagName, String envName, String defaultValue) {
+        String value = flags.get(flagName);
+        if (value == null && envName != null) {
+            value = env.get(envName);
+        }
+        return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+    }
+    
+    /**
+     * Get an integer setting, falling back to the default when missing or malformed
+     */
+    public int getInt(String flagName, String envName, int defaultValue) {
+        String value = getString(flagName, envName, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for --" + flagName + ": " + value);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Get a boolean setting ("true", "yes", "on" or "1" count as true)
+     */
+    public boolean getBoolean(String flagName, String envName, boolean defaultValue) {
+        String value = getString(flagName, envName, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        switch (value.toLowerCase()) {
+            case "true": case "yes": case "on": case "1": return true;
+            default: return false;
+        }
+    }
+    
+    private static Map<String, String> parseFlags(String[] args) {
+        Map<String, String> parsed = new HashMap<>();
+        if (args == null) {
+            return parsed;
+        }
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator > 2) {
+                parsed.put(arg.substring(2, separator), arg.substring(separator + 1));
+            } else {
+                parsed.put(arg.substring(2), "true");
+            }
+        }
+        return parsed;
+    }
+}
\ No newline at end of file
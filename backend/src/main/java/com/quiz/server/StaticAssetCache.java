@@ -0,0 +1,270 @@
+package com.quiz.server;
+
+import com.quiz.logging.Log;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * StaticAssetCache holds the frontend directory in memory as an immutable snapshot
+ * Every file is read once, hashed for a strong ETag and, when it helps, gzipped ahead of time
+ * so serving static traffic needs no disk I/O or per-request compression
+ * With watching enabled a background thread rebuilds the snapshot and swaps it in atomically
+ */
+public class StaticAssetCache {
+    private static final int MIN_GZIP_SIZE = 256;
+    
+    private final Path rootDirectory;
+    private final int maxAgeSeconds;
+    private volatile Map<String, Asset> assets;
+    
+    /**
+     * A single cached file with its precomputed identity and encodings
+     */
+    public static final class Asset {
+        private final String contentType;
+        private final String cacheControl;
+        private final byte[] body;
+        private final byte[] gzipBody; // null when compression would not pay off
+        private final String etag;
+        private final String gzipEtag;
+        
+        Asset(String contentType, String cacheControl, byte[] body, byte[] gzipBody, String etag) {
+            this.contentType = contentType;
+            this.cacheControl = cacheControl;
+            this.body = body;
+            this.gzipBody = gzipBody;
+            this.etag = "\"" + etag + "\"";
+            this.gzipEtag = "\"" + etag + "-gz\"";
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getCacheControl() {
+            return cacheControl;
+        }
+        
+        public byte[] getBody(boolean gzip) {
+            return gzip && gzipBody != null ? gzipBody : body;
+        }
+        
+        public String getEtag(boolean gzip) {
+            return gzip && gzipBody != null ? gzipEtag : etag;
+        }
+        
+        public boolean hasGzip() {
+            return gzipBody != null;
+        }
+        
+        /**
+         * Check an If-None-Match header against either encoding of this asset
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    private StaticAssetCache(Path rootDirectory, int maxAgeSeconds) {
+        this.rootDirectory = rootDirectory;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.assets = Collections.emptyMap();
+    }
+    
+    /**
+     * Load every file under the directory into memory
+     */
+    public static StaticAssetCache load(Path rootDirectory, int maxAgeSeconds) throws IOException {
+        StaticAssetCache cache = new StaticAssetCache(rootDirectory, maxAgeSeconds);
+        cache.reload();
+        return cache;
+    }
+    
+    /**
+     * Build a cache from --static-dir/QUIZ_STATIC_DIR, --static-max-age/QUIZ_STATIC_MAX_AGE
+     * and start the watcher if --static-watch/QUIZ_STATIC_WATCH is set
+     */
+    public static StaticAssetCache fromConfig(ServerConfig config) throws IOException {
+        String directory = config.getString("static-dir", "QUIZ_STATIC_DIR", null);
+        Path root = directory != null ? Paths.get(directory) : defaultFrontendDirectory();
+        StaticAssetCache cache = load(root, config.getInt("static-max-age", "QUIZ_STATIC_MAX_AGE", 300));
+        if (config.getBoolean("static-watch", "QUIZ_STATIC_WATCH", false)) {
+            cache.startWatching();
+        }
+        return cache;
+    }
+    
+    /**
+     * Locate the frontend directory relative to the project root (works from the root or backend/)
+     */
+    public static Path defaultFrontendDirectory() {
+        String projectRoot = System.getProperty("user.dir");
+        if (projectRoot.endsWith("backend")) {
+            projectRoot = projectRoot.substring(0, projectRoot.lastIndexOf("backend"));
+        }
+        return Paths.get(projectRoot + File.separator + "frontend");
+    }
+    
+    /**
+     * Look up an asset by request path ("/" maps to index.html); null if not cached
+     */
+    public Asset get(String requestPath) {
+        if (requestPath == null || requestPath.equals("/")) {
+            requestPath = "/index.html";
+        }
+        return assets.get(requestPath);
+    }
+    
+    public int size() {
+        return assets.size();
+    }
+    
+    public Path getRootDirectory() {
+        return rootDirectory;
+    }
+    
+    /**
+     * Re-read the directory into a fresh snapshot and publish it in one write
+     */
+    public synchronized void reload() throws IOException {
+        Map<String, Asset> snapshot = new HashMap<>();
+        if (Files.isDirectory(rootDirectory)) {
+            Files.walkFileTree(rootDirectory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    String requestPath = "/" + rootDirectory.relativize(file).toString().replace(File.separatorChar, '/');
+                    snapshot.put(requestPath, buildAsset(requestPath, Files.readAllBytes(file)));
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } else {
+            Log.warn("Static directory not found: {}", rootDirectory);
+        }
+        assets = Collections.unmodifiableMap(snapshot);
+        Log.info("Loaded {} static assets from {}", snapshot.size(), rootDirectory);
+    }
+    
+    private Asset buildAsset(String requestPath, byte[] body) throws IOException {
+        String contentType = getContentType(requestPath);
+        String cacheControl = requestPath.endsWith(".html") ? "no-cache" : "public, max-age=" + maxAgeSeconds;
+        byte[] gzipBody = null;
+        if (body.length >= MIN_GZIP_SIZE && isCompressible(contentType)) {
+            byte[] compressed = gzip(body);
+            if (compressed.length < body.length) {
+                gzipBody = compressed;
+            }
+        }
+        return new Asset(contentType, cacheControl, body, gzipBody, contentHash(body));
+    }
+    
+    /**
+     * Watch the directory tree and reload after changes settle (daemon thread)
+     */
+    public void startWatching() throws IOException {
+        WatchService watcher = FileSystems.getDefault().newWatchService();
+        Files.walkFileTree(rootDirectory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        
+        Thread thread = new Thread(() -> {
+            while (true) {
+                try {
+                    WatchKey key = watcher.take();
+                    // Editors write in bursts; wait for the burst to finish before reloading
+                    WatchKey next;
+                    do {
+                        key.pollEvents();
+                        key.reset();
+                        next = watcher.poll(200, TimeUnit.MILLISECONDS);
+                        if (next != null) {
+                            key = next;
+                        }
+                    } while (next != null);
+                    reload();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    Log.error("Failed to reload static assets", e);
+                }
+            }
+        }, "quiz-static-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        Log.info("Watching {} for static asset changes", rootDirectory);
+    }
+    
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        }
+        return buffer.toByteArray();
+    }
+    
+    private static String contentHash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16))
+                   .append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static boolean isCompressible(String contentType) {
+        return contentType.startsWith("text/") || contentType.equals("application/javascript")
+            || contentType.equals("application/json") || contentType.equals("image/svg+xml");
+    }
+    
+    private static String getContentType(String path) {
+        if (path.endsWith(".html")) return "text/html; charset=utf-8";
+        if (path.endsWith(".css")) return "text/css; charset=utf-8";
+        if (path.endsWith(".js")) return "application/javascript";
+        if (path.endsWith(".json")) return "application/json";
+        if (path.endsWith(".png")) return "image/png";
+        if (path.endsWith(".jpg") || path.endsWith(".jpeg")) return "image/jpeg";
+        if (path.endsWith(".gif")) return "image/gif";
+        if (path.endsWith(".svg")) return "image/svg+xml";
+        if (path.endsWith(".ico")) return "image/x-icon";
+        return "text/plain";
+    }
+}
\ No newline at end of file
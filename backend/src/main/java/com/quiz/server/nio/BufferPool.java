@@ -0,0 +1,42 @@
+package com.quiz.server.nio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * BufferPool recycles the fixed-size direct buffers used for socket reads and response bodies
+ * Direct buffers go to the socket without the extra copy the JDK makes for heap buffers, but they
+ * are slow to allocate, so released buffers are kept for reuse. The pool never blocks: it allocates
+ * when empty and lets the garbage collector have buffers beyond its capacity.
+ */
+final class BufferPool {
+    private final int bufferSize;
+    private final ArrayBlockingQueue<ByteBuffer> free;
+    
+    BufferPool(int bufferSize, int capacity) {
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+    
+    /**
+     * Get a cleared buffer
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+    
+    /**
+     * Return a buffer for reuse; buffers that did not come from a pool are ignored
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect() && buffer.capacity() == bufferSize) {
+            buffer.clear();
+            free.offer(buffer);
+        }
+    }
+    
+    int getBufferSize() {
+        return bufferSize;
+    }
+}
\ No newline at end of file
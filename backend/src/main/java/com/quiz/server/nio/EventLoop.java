@@ -0,0 +1,167 @@
+package com.quiz.server.nio;
+
+import com.quiz.logging.Log;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * EventLoop is one selector thread owning a share of the server's connections
+ * Every read, write and state change of a connection happens on its loop thread; handler threads
+ * hand work over with execute(), which queues a task and wakes the selector at most once per
+ * batch of tasks. Once a second the loop closes connections that sat idle past the keep-alive
+ * timeout.
+ */
+final class EventLoop implements Runnable {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final NioHttpServer server;
+    private final Selector selector;
+    private final Thread thread;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final Set<HttpConnection> connections = new HashSet<>();
+    private volatile boolean running = true;
+    private long now = System.nanoTime();
+    
+    EventLoop(NioHttpServer server, int index) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+        // Not a daemon: like the JDK server's dispatcher, the loops keep the process alive after main() returns
+        this.thread = new Thread(this, "quiz-nio-loop-" + index);
+    }
+    
+    void start() {
+        thread.start();
+    }
+    
+    /**
+     * Run a task on the loop thread, after the tasks already queued
+     */
+    void execute(Runnable task) {
+        tasks.offer(task);
+        if (Thread.currentThread() != thread && wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+    
+    /**
+     * Take over a freshly accepted connection
+     */
+    void register(SocketChannel channel) {
+        HttpConnection connection = new HttpConnection(server, this, channel);
+        try {
+            connection.attach(channel.register(selector, SelectionKey.OP_READ, connection));
+            connections.add(connection);
+        } catch (ClosedChannelException e) {
+            connection.close();
+        }
+    }
+    
+    void removed(HttpConnection connection) {
+        connections.remove(connection);
+    }
+    
+    Selector selector() {
+        return selector;
+    }
+    
+    long now() {
+        return now;
+    }
+    
+    /**
+     * Stop the loop; it closes every connection it owns on the way out
+     */
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+    
+    void join(long millis) throws InterruptedException {
+        thread.join(millis);
+    }
+    
+    @Override
+    public void run() {
+        long nextSweep = System.nanoTime() + SWEEP_INTERVAL_NANOS;
+        while (running) {
+            try {
+                if (tasks.isEmpty()) {
+                    selector.select(this::onSelected, Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextSweep - now)));
+                } else {
+                    selector.selectNow(this::onSelected);
+                }
+                now = System.nanoTime();
+                // Reset before draining: a task queued after this point wakes the next select
+                wakeupPending.set(false);
+                runTasks();
+                if (now - nextSweep >= 0) {
+                    closeIdle();
+                    nextSweep = now + SWEEP_INTERVAL_NANOS;
+                }
+            } catch (IOException | RuntimeException e) {
+                Log.error("Event loop {} failed an iteration", thread.getName(), e);
+            }
+        }
+        for (HttpConnection connection : new ArrayList<>(connections)) {
+            connection.close();
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+    
+    private void onSelected(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        Object attachment = key.attachment();
+        if (attachment instanceof HttpConnection) {
+            HttpConnection connection = (HttpConnection) attachment;
+            int ready = key.readyOps();
+            if ((ready & SelectionKey.OP_WRITE) != 0) {
+                connection.onWritable();
+            }
+            if ((ready & SelectionKey.OP_READ) != 0 && key.isValid()) {
+                connection.onReadable();
+            }
+        } else {
+            server.onAcceptable(key);
+        }
+    }
+    
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Log.error("Event loop task failed on {}", thread.getName(), e);
+            }
+        }
+    }
+    
+    private void closeIdle() {
+        List<HttpConnection> idle = new ArrayList<>();
+        for (HttpConnection connection : connections) {
+            if (connection.isIdleSince(now - server.getKeepAliveNanos())) {
+                idle.add(connection);
+            }
+        }
+        for (HttpConnection connection : idle) {
+            connection.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,489 @@
+package com.quiz.server.nio;
+
+import com.sun.net.httpserver.Headers;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HttpConnection is one client socket, parsed and written by its event loop
+ * Request bytes are read into a pooled buffer that the connection holds only while part of a
+ * request is waiting in it, so idle keep-alive connections cost no buffer. Once a request is
+ * complete the connection stops reading and hands the exchange to the server; handler threads
+ * queue response buffers back through the loop. When the response ends the connection either
+ * resumes reading, starting with any pipelined bytes already buffered, or closes.
+ * Request bodies need a Content-Length, and a malformed or conflicting one is refused with 400;
+ * chunked uploads are refused with 501. A body buffer grows as
+ * its bytes arrive rather than being sized from Content-Length up front, and is charged to the
+ * server's request buffer budget until the exchange ends. Response bytes queued but not yet written
+ * are capped; a client that stops reading past the cap is disconnected.
+ */
+final class HttpConnection {
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] NO_BODY = new byte[0];
+    
+    private final NioHttpServer server;
+    private final EventLoop loop;
+    private final SocketChannel channel;
+    private final InetSocketAddress remoteAddress;
+    private final InetSocketAddress localAddress;
+    private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+    private final AtomicLong outboundBytes = new AtomicLong(); // queued by send() and not yet written
+    private SelectionKey key;
+    private ByteBuffer in; // [0, position) holds unparsed bytes
+    private int scanned; // bytes of 'in' already searched for the end of the request head
+    private long lastActive;
+    private int requests;
+    
+    // Request being received: its head is parsed before its body is read
+    private NioHttpExchange pending;
+    private byte[] body;
+    private int bodyLength; // from Content-Length; body grows towards it
+    private int bodyFilled;
+    private long bodyReserved; // bytes of request buffer budget held for this request's body
+    
+    private NioHttpExchange current; // dispatched exchange whose response is not fully written yet
+    private boolean handling; // reading is paused until the response in progress is written
+    private boolean responseDone;
+    private boolean keepAlive;
+    private volatile boolean closed;
+    
+    HttpConnection(NioHttpServer server, EventLoop loop, SocketChannel channel) {
+        this.server = server;
+        this.loop = loop;
+        this.channel = channel;
+        this.remoteAddress = address(channel, true);
+        this.localAddress = address(channel, false);
+        this.lastActive = loop.now();
+    }
+    
+    void attach(SelectionKey key) {
+        this.key = key;
+    }
+    
+    InetSocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+    
+    InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+    
+    boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Whether the connection is waiting for a request and has been since before the given time
+     */
+    boolean isIdleSince(long nanos) {
+        return !handling && !closed && lastActive - nanos < 0;
+    }
+    
+    /**
+     * Queue response bytes from any thread; the last call of an exchange passes last = true
+     * @param keepAlive whether the connection may carry another request afterwards
+     * @return false if the bytes were not queued: the connection is closed, or the client has fallen so
+     *         far behind that queuing them would pass the outbound limit, in which case it is closed
+     */
+    boolean send(ByteBuffer[] buffers, boolean last, boolean keepAlive) {
+        long bytes = 0;
+        for (ByteBuffer buffer : buffers) {
+            bytes += buffer.remaining();
+        }
+        if (closed || outboundBytes.addAndGet(bytes) > server.getMaxOutboundBytes()) {
+            for (ByteBuffer buffer : buffers) {
+                server.buffers().release(buffer);
+            }
+            if (!closed) {
+                loop.execute(this::close);
+            }
+            return false;
+        }
+        loop.execute(() -> {
+            if (closed) {
+                for (ByteBuffer buffer : buffers) {
+                    server.buffers().release(buffer);
+                }
+                return;
+            }
+            for (ByteBuffer buffer : buffers) {
+                outbound.add(buffer);
+            }
+            if (last) {
+                this.responseDone = true;
+                this.keepAlive = keepAlive;
+            }
+            flush();
+        });
+        return true;
+    }
+    
+    void onReadable() {
+        if (in == null) {
+            in = server.buffers().acquire();
+        }
+        int read;
+        try {
+            read = channel.read(in);
+        } catch (IOException e) {
+            close();
+            return;
+        }
+        if (read < 0) {
+            close();
+            return;
+        }
+        lastActive = loop.now();
+        process();
+    }
+    
+    void onWritable() {
+        flush();
+    }
+    
+    /**
+     * Parse as many requests as the buffered bytes allow, stopping at the first one dispatched
+     */
+    private void process() {
+        while (!handling && !closed) {
+            if (pending == null) {
+                int headEnd = findHeadEnd();
+                if (headEnd < 0) {
+                    if (in.position() == in.capacity()) {
+                        reject(431, "Request Header Fields Too Large");
+                    } else {
+                        releaseInputIfEmpty();
+                    }
+                    return;
+                }
+                if (!parseHead(headEnd)) {
+                    return;
+                }
+                consume(headEnd);
+                if (body == null) {
+                    dispatch(NO_BODY);
+                    continue;
+                }
+            }
+            
+            int take = Math.min(in.position(), bodyLength - bodyFilled);
+            if (bodyFilled + take > body.length && !growBody(bodyFilled + take)) {
+                return;
+            }
+            in.flip();
+            in.get(body, bodyFilled, take);
+            in.compact();
+            bodyFilled += take;
+            if (bodyFilled < bodyLength) {
+                releaseInputIfEmpty();
+                return;
+            }
+            byte[] complete = body;
+            body = null;
+            dispatch(complete);
+        }
+    }
+    
+    /**
+     * Find the end of the request head (just past the blank line), or -1 if it has not all arrived
+     */
+    private int findHeadEnd() {
+        int limit = in.position();
+        for (int i = Math.max(0, scanned - 3); i + 3 < limit; i++) {
+            if (in.get(i) == '\r' && in.get(i + 1) == '\n' && in.get(i + 2) == '\r' && in.get(i + 3) == '\n') {
+                return i + 4;
+            }
+        }
+        scanned = limit;
+        return -1;
+    }
+    
+    /**
+     * Parse the request line and headers into the pending exchange
+     * @return false if the request was rejected
+     */
+    private boolean parseHead(int headEnd) {
+        byte[] bytes = new byte[headEnd - 4];
+        ByteBuffer view = in.duplicate();
+        view.flip();
+        view.get(bytes);
+        String head = new String(bytes, StandardCharsets.ISO_8859_1);
+        
+        int lineEnd = head.indexOf("\r\n");
+        String requestLine = lineEnd < 0 ? head : head.substring(0, lineEnd);
+        int firstSpace = requestLine.indexOf(' ');
+        int lastSpace = requestLine.lastIndexOf(' ');
+        if (firstSpace <= 0 || lastSpace <= firstSpace) {
+            reject(400, "Bad Request");
+            return false;
+        }
+        String method = requestLine.substring(0, firstSpace);
+        String protocol = requestLine.substring(lastSpace + 1);
+        if (!protocol.startsWith("HTTP/1.")) {
+            reject(505, "HTTP Version Not Supported");
+            return false;
+        }
+        URI uri;
+        try {
+            uri = new URI(requestLine.substring(firstSpace + 1, lastSpace));
+        } catch (URISyntaxException e) {
+            reject(400, "Bad Request");
+            return false;
+        }
+        
+        Headers headers = new Headers();
+        int start = lineEnd + 2;
+        while (lineEnd >= 0 && start < head.length()) {
+            int end = head.indexOf("\r\n", start);
+            if (end < 0) {
+                end = head.length();
+            }
+            int colon = head.indexOf(':', start);
+            // Folded continuation lines are obsolete and refused
+            if (colon <= start || colon >= end || head.charAt(start) == ' ' || head.charAt(start) == '\t') {
+                reject(400, "Bad Request");
+                return false;
+            }
+            headers.add(head.substring(start, colon), head.substring(colon + 1, end).trim());
+            start = end + 2;
+        }
+        
+        if (headers.containsKey("Transfer-Encoding")) {
+            reject(501, "Not Implemented");
+            return false;
+        }
+        long contentLength = 0;
+        List<String> lengthHeaders = headers.get("Content-Length");
+        if (lengthHeaders != null) {
+            contentLength = parseContentLength(lengthHeaders);
+            if (contentLength < 0) {
+                reject(400, "Bad Request");
+                return false;
+            }
+            if (contentLength > server.getMaxRequestBytes()) {
+                reject(413, "Payload Too Large");
+                return false;
+            }
+        }
+        
+        String connection = headers.getFirst("Connection");
+        boolean requestKeepAlive = protocol.equals("HTTP/1.1")
+            ? connection == null || !connection.toLowerCase().contains("close")
+            : connection != null && connection.toLowerCase().contains("keep-alive");
+        requests++;
+        pending = new NioHttpExchange(server, this, method, uri, protocol, headers,
+            requestKeepAlive && requests < server.getMaxKeepAliveRequests());
+        scanned = 0;
+        body = null;
+        bodyLength = (int) contentLength;
+        bodyFilled = 0;
+        if (contentLength > 0) {
+            body = NO_BODY;
+            if (!growBody((int) Math.min(contentLength, server.buffers().getBufferSize()))) {
+                return false;
+            }
+        }
+        if (body != null && "100-continue".equalsIgnoreCase(headers.getFirst("Expect"))
+                && in.position() == headEnd) {
+            outboundBytes.addAndGet(CONTINUE.length);
+            outbound.add(ByteBuffer.wrap(CONTINUE));
+            flush();
+        }
+        return true;
+    }
+    
+    /**
+     * Read Content-Length, which must be digits only and the same in every copy of the header, since a
+     * proxy in front may have framed the request by a different copy than this server would
+     * @return the length, or -1 if it is malformed or its copies disagree
+     */
+    private static long parseContentLength(List<String> values) {
+        long length = -1;
+        for (String value : values) {
+            for (String part : value.split(",", -1)) {
+                String digits = part.trim();
+                if (digits.isEmpty() || digits.length() > 18) {
+                    return -1;
+                }
+                for (int i = 0; i < digits.length(); i++) {
+                    if (digits.charAt(i) < '0' || digits.charAt(i) > '9') {
+                        return -1;
+                    }
+                }
+                long parsed = Long.parseLong(digits);
+                if (length >= 0 && parsed != length) {
+                    return -1;
+                }
+                length = parsed;
+            }
+        }
+        return length;
+    }
+    
+    /**
+     * Enlarge the body buffer to hold at least the given bytes, doubling up to Content-Length
+     * @return false if the request buffer budget is exhausted, in which case the request was rejected
+     */
+    private boolean growBody(int needed) {
+        int size = (int) Math.min(bodyLength, Math.max(needed, (long) body.length * 2));
+        int extra = size - body.length;
+        if (!server.reserveRequestBytes(extra)) {
+            reject(503, "Service Unavailable");
+            return false;
+        }
+        bodyReserved += extra;
+        body = Arrays.copyOf(body, size);
+        return true;
+    }
+    
+    private void releaseBody() {
+        if (bodyReserved > 0) {
+            server.releaseRequestBytes(bodyReserved);
+            bodyReserved = 0;
+        }
+    }
+    
+    private void dispatch(byte[] requestBody) {
+        NioHttpExchange exchange = pending;
+        pending = null;
+        current = exchange;
+        handling = true;
+        responseDone = false;
+        key.interestOps(0);
+        releaseInputIfEmpty();
+        exchange.setRequestBody(requestBody);
+        server.dispatch(exchange);
+    }
+    
+    /**
+     * Answer a request the connection cannot serve, then close
+     */
+    private void reject(int status, String reason) {
+        handling = true;
+        pending = null;
+        body = null;
+        releaseBody();
+        key.interestOps(0);
+        String response = "HTTP/1.1 " + status + " " + reason + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n";
+        byte[] bytes = response.getBytes(StandardCharsets.ISO_8859_1);
+        outboundBytes.addAndGet(bytes.length);
+        outbound.add(ByteBuffer.wrap(bytes));
+        responseDone = true;
+        keepAlive = false;
+        flush();
+    }
+    
+    /**
+     * Write queued buffers until the socket pushes back, then finish the response if it is complete
+     */
+    private void flush() {
+        if (closed) {
+            return;
+        }
+        try {
+            ByteBuffer buffer;
+            while ((buffer = outbound.peek()) != null) {
+                int written = channel.write(buffer);
+                outboundBytes.addAndGet(-written);
+                if (buffer.hasRemaining()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+                outbound.poll();
+                server.buffers().release(buffer);
+            }
+        } catch (IOException e) {
+            close();
+            return;
+        }
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        lastActive = loop.now();
+        
+        if (responseDone) {
+            responseDone = false;
+            handling = false;
+            if (current != null) {
+                current = null;
+                releaseBody();
+                server.exchangeFinished();
+            }
+            if (!keepAlive) {
+                close();
+                return;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            if (in != null && in.position() > 0) {
+                process(); // pipelined request
+            }
+        }
+    }
+    
+    /**
+     * Drop the first n buffered bytes
+     */
+    private void consume(int n) {
+        in.flip();
+        in.position(n);
+        in.compact();
+    }
+    
+    private void releaseInputIfEmpty() {
+        if (in != null && in.position() == 0) {
+            server.buffers().release(in);
+            in = null;
+            scanned = 0;
+        }
+    }
+    
+    /**
+     * Close the socket and give back its buffers; safe to call more than once
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+        if (in != null) {
+            server.buffers().release(in);
+            in = null;
+        }
+        ByteBuffer buffer;
+        while ((buffer = outbound.poll()) != null) {
+            server.buffers().release(buffer);
+        }
+        if (current != null) {
+            current = null;
+            server.exchangeFinished();
+        }
+        body = null;
+        releaseBody();
+        loop.removed(this);
+        server.connectionClosed();
+    }
+    
+    private static InetSocketAddress address(SocketChannel channel, boolean remote) {
+        try {
+            return (InetSocketAddress) (remote ? channel.getRemoteAddress() : channel.getLocalAddress());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.quiz.server.nio;
+
+import com.sun.net.httpserver.Authenticator;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * NioHttpContext maps a path prefix to a handler and its filters, as HttpContext does for the JDK server
+ * Authenticators are not supported.
+ */
+final class NioHttpContext extends HttpContext {
+    private final String path;
+    private final NioHttpServer server;
+    private final List<Filter> filters = new CopyOnWriteArrayList<>();
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private volatile HttpHandler handler;
+    
+    NioHttpContext(String path, HttpHandler handler, NioHttpServer server) {
+        this.path = path;
+        this.handler = handler;
+        this.server = server;
+    }
+    
+    @Override
+    public HttpHandler getHandler() {
+        return handler;
+    }
+    
+    @Override
+    public void setHandler(HttpHandler handler) {
+        if (handler == null) {
+            throw new NullPointerException("handler");
+        }
+        if (this.handler != null) {
+            throw new IllegalArgumentException("handler already set");
+        }
+        this.handler = handler;
+    }
+    
+    @Override
+    public String getPath() {
+        return path;
+    }
+    
+    @Override
+    public HttpServer getServer() {
+        return server;
+    }
+    
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+    
+    @Override
+    public List<Filter> getFilters() {
+        return filters;
+    }
+    
+    @Override
+    public Authenticator setAuthenticator(Authenticator auth) {
+        throw new UnsupportedOperationException("authenticators are not supported by the NIO engine");
+    }
+    
+    @Override
+    public Authenticator getAuthenticator() {
+        return null;
+    }
+}
\ No newline at end of file
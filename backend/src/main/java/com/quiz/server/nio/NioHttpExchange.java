@@ -0,0 +1,409 @@
+package com.quiz.server.nio;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NioHttpExchange gives handlers the HttpExchange they already use with the JDK server
+ * Response bytes are written into pooled buffers and handed to the connection's event loop when a
+ * buffer fills, on flush() and on close(); a typical JSON response therefore leaves as a single
+ * buffer holding headers and body. Fixed-length bodies must match their declared length; a
+ * length of 0 streams the body in chunks, each flush() sending one. A small flush is copied out of
+ * its pooled buffer, so a stream of short events to a slow reader holds only the bytes it sends.
+ * Writes never block: once a client is too far behind to queue more, they fail and it is disconnected.
+ */
+final class NioHttpExchange extends HttpExchange {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static volatile String cachedDate = "";
+    private static volatile long cachedDateSecond;
+    
+    private final NioHttpServer server;
+    private final HttpConnection connection;
+    private final String method;
+    private final URI uri;
+    private final String protocol;
+    private final Headers requestHeaders;
+    private final Headers responseHeaders = new Headers();
+    private final boolean requestKeepAlive;
+    private NioHttpContext context;
+    private Map<String, Object> attributes;
+    private InputStream requestBody;
+    private OutputStream responseBody;
+    private final ResponseStream response = new ResponseStream();
+    private volatile int responseCode = -1;
+    
+    NioHttpExchange(NioHttpServer server, HttpConnection connection, String method, URI uri, String protocol,
+                    Headers requestHeaders, boolean requestKeepAlive) {
+        this.server = server;
+        this.connection = connection;
+        this.method = method;
+        this.uri = uri;
+        this.protocol = protocol;
+        this.requestHeaders = requestHeaders;
+        this.requestKeepAlive = requestKeepAlive;
+        this.responseBody = response;
+    }
+    
+    void setRequestBody(byte[] body) {
+        this.requestBody = new ByteArrayInputStream(body);
+    }
+    
+    void setContext(NioHttpContext context) {
+        this.context = context;
+    }
+    
+    /**
+     * End an exchange whose handler failed: answer 500 if nothing was sent yet, and close the connection
+     */
+    void abort() {
+        response.abort();
+    }
+    
+    @Override
+    public Headers getRequestHeaders() {
+        return requestHeaders;
+    }
+    
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+    
+    @Override
+    public URI getRequestURI() {
+        return uri;
+    }
+    
+    @Override
+    public String getRequestMethod() {
+        return method;
+    }
+    
+    @Override
+    public HttpContext getHttpContext() {
+        return context;
+    }
+    
+    @Override
+    public void close() {
+        try {
+            requestBody.close();
+            responseBody.close();
+        } catch (IOException e) {
+            // The connection is closed instead of reused
+        }
+    }
+    
+    @Override
+    public InputStream getRequestBody() {
+        return requestBody;
+    }
+    
+    @Override
+    public OutputStream getResponseBody() {
+        return responseBody;
+    }
+    
+    @Override
+    public void sendResponseHeaders(int code, long length) throws IOException {
+        response.start(code, length);
+    }
+    
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return connection.getRemoteAddress();
+    }
+    
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+    
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return connection.getLocalAddress();
+    }
+    
+    @Override
+    public String getProtocol() {
+        return protocol;
+    }
+    
+    @Override
+    public synchronized Object getAttribute(String name) {
+        return attributes != null ? attributes.get(name) : null;
+    }
+    
+    @Override
+    public synchronized void setAttribute(String name, Object value) {
+        if (attributes == null) {
+            attributes = new HashMap<>();
+        }
+        attributes.put(name, value);
+    }
+    
+    @Override
+    public void setStreams(InputStream in, OutputStream out) {
+        if (in != null) {
+            requestBody = in;
+        }
+        if (out != null) {
+            responseBody = out;
+        }
+    }
+    
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+    
+    /**
+     * Current time as an HTTP Date header value, formatted at most once a second
+     */
+    private static String httpDate() {
+        long second = System.currentTimeMillis() / 1000;
+        if (second != cachedDateSecond) {
+            cachedDate = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+            cachedDateSecond = second;
+        }
+        return cachedDate;
+    }
+    
+    /**
+     * The response body; synchronized because streaming handlers may write from other threads
+     */
+    private final class ResponseStream extends OutputStream {
+        private ByteBuffer buffer;
+        private boolean started;
+        private boolean chunked;
+        private boolean bodyAllowed;
+        private long remaining; // bytes still owed on a fixed-length body
+        private boolean keepAlive;
+        private boolean finished;
+        
+        synchronized void start(int code, long length) throws IOException {
+            if (started) {
+                throw new IOException("headers already sent");
+            }
+            started = true;
+            responseCode = code;
+            boolean noContent = code < 200 || code == 204 || code == 304;
+            boolean head = "HEAD".equals(method);
+            boolean streaming = length == 0 && !noContent && !head;
+            bodyAllowed = !noContent && !head && length >= 0;
+            remaining = bodyAllowed && length > 0 ? length : 0;
+            String connectionHeader = responseHeaders.getFirst("Connection");
+            keepAlive = requestKeepAlive && !server.isStopping()
+                && (connectionHeader == null || !connectionHeader.toLowerCase().contains("close"));
+            
+            StringBuilder text = new StringBuilder(256);
+            text.append("HTTP/1.1 ").append(code).append(' ').append(reason(code)).append("\r\n");
+            if (!responseHeaders.containsKey("Date")) {
+                text.append("Date: ").append(httpDate()).append("\r\n");
+            }
+            for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+                String name = header.getKey();
+                if (name.equalsIgnoreCase("Content-Length") || name.equalsIgnoreCase("Transfer-Encoding")
+                        || name.equalsIgnoreCase("Connection")) {
+                    continue;
+                }
+                for (String value : header.getValue()) {
+                    text.append(name).append(": ").append(value).append("\r\n");
+                }
+            }
+            if (streaming) {
+                text.append("Transfer-Encoding: chunked\r\n");
+            } else if (length > 0 && !noContent) {
+                text.append("Content-Length: ").append(length).append("\r\n");
+            } else if (!noContent && !head) {
+                text.append("Content-Length: 0\r\n");
+            }
+            if (!keepAlive) {
+                text.append("Connection: close\r\n");
+            } else if (!"HTTP/1.1".equals(protocol)) {
+                text.append("Connection: keep-alive\r\n");
+            }
+            text.append("\r\n");
+            
+            put(text.toString().getBytes(StandardCharsets.ISO_8859_1), 0, text.length());
+            if (streaming) {
+                // Streaming responses get their headers out now; the body may be a long time coming
+                handOff(false, false);
+                chunked = true;
+            }
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+        
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            if (!started) {
+                throw new IOException("response headers not sent yet");
+            }
+            if (finished || connection.isClosed()) {
+                throw new IOException("stream is closed");
+            }
+            if (!bodyAllowed) {
+                return; // HEAD, 204 and 304 responses have no body
+            }
+            if (!chunked) {
+                if (length > remaining) {
+                    throw new IOException("too many bytes to write to stream");
+                }
+                remaining -= length;
+            }
+            put(bytes, offset, length);
+        }
+        
+        @Override
+        public synchronized void flush() throws IOException {
+            if (finished || connection.isClosed()) {
+                throw new IOException("stream is closed");
+            }
+            if (buffer != null && buffer.position() > 0) {
+                handOff(chunked, false);
+            }
+        }
+        
+        @Override
+        public synchronized void close() throws IOException {
+            if (finished) {
+                return;
+            }
+            if (!started) {
+                // Closed without a response: nothing sensible can follow on this connection
+                finished = true;
+                connection.send(new ByteBuffer[0], true, false);
+                return;
+            }
+            boolean complete = remaining == 0;
+            if (!complete) {
+                keepAlive = false;
+            }
+            handOff(chunked, true);
+            if (!complete) {
+                throw new IOException("insufficient bytes written to stream");
+            }
+        }
+        
+        synchronized void abort() {
+            if (finished) {
+                return;
+            }
+            if (!started) {
+                responseHeaders.clear();
+                responseHeaders.set("Connection", "close");
+                try {
+                    start(500, -1);
+                    handOff(false, true);
+                } catch (IOException e) {
+                    // The connection is already gone
+                }
+                return;
+            }
+            // Part of the response is out: drop the rest, and the connection with it
+            server.buffers().release(buffer);
+            buffer = null;
+            finished = true;
+            connection.send(new ByteBuffer[0], true, false);
+        }
+        
+        /**
+         * Copy bytes into pooled buffers, passing each full one to the connection
+         */
+        private void put(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (buffer == null) {
+                    buffer = server.buffers().acquire();
+                }
+                int n = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, n);
+                offset += n;
+                length -= n;
+                if (!buffer.hasRemaining()) {
+                    handOff(chunked, false);
+                }
+            }
+        }
+        
+        /**
+         * Pass the buffered bytes to the connection, framed as a chunk if asked
+         * @param last whether this ends the response
+         * @throws IOException if the client has stopped reading and was disconnected
+         */
+        private void handOff(boolean asChunk, boolean last) throws IOException {
+            ByteBuffer data = buffer;
+            buffer = null;
+            boolean hasData = data != null && data.position() > 0;
+            if (data != null) {
+                data.flip();
+            }
+            if (hasData && !last && data.remaining() <= data.capacity() / 4) {
+                // May wait in the queue for a long time: keep an exact copy, not a whole pooled buffer
+                ByteBuffer copy = ByteBuffer.allocate(data.remaining());
+                copy.put(data).flip();
+                server.buffers().release(data);
+                data = copy;
+            }
+            ByteBuffer[] buffers;
+            if (asChunk && hasData) {
+                byte[] size = (Integer.toHexString(data.remaining()) + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+                buffers = last
+                    ? new ByteBuffer[] {ByteBuffer.wrap(size), data, ByteBuffer.wrap(CRLF), ByteBuffer.wrap(LAST_CHUNK)}
+                    : new ByteBuffer[] {ByteBuffer.wrap(size), data, ByteBuffer.wrap(CRLF)};
+            } else if (hasData) {
+                buffers = last && chunked ? new ByteBuffer[] {data, ByteBuffer.wrap(LAST_CHUNK)} : new ByteBuffer[] {data};
+            } else {
+                server.buffers().release(data);
+                buffers = last && chunked ? new ByteBuffer[] {ByteBuffer.wrap(LAST_CHUNK)} : new ByteBuffer[0];
+            }
+            if (last) {
+                finished = true;
+            }
+            if (!connection.send(buffers, last, keepAlive)) {
+                finished = true;
+                throw new IOException("client is not reading the response; connection closed");
+            }
+        }
+    }
+    
+    private static String reason(int code) {
+        switch (code) {
+            case 200: return "OK";
+            case 201: return "Created";
+            case 204: return "No Content";
+            case 304: return "Not Modified";
+            case 400: return "Bad Request";
+            case 401: return "Unauthorized";
+            case 403: return "Forbidden";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 409: return "Conflict";
+            case 413: return "Payload Too Large";
+            case 429: return "Too Many Requests";
+            case 500: return "Internal Server Error";
+            case 503: return "Service Unavailable";
+            default: return "Status";
+        }
+    }
+}
\ No newline at end of file
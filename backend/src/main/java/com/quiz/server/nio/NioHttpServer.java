@@ -0,0 +1,421 @@
+package com.quiz.server.nio;
+
+import com.quiz.logging.Log;
+import com.quiz.server.ServerConfig;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NioHttpServer is an HttpServer built on non-blocking sockets and a few selector event loops
+ * It stands in for the JDK's HttpServer (contexts, filters and handlers behave the same, so the quiz
+ * handlers run on either engine unchanged) while exposing what the JDK server keeps fixed: the
+ * number of event loops, the accept backlog, a cap on open connections, keep-alive timeout and
+ * request count, and the size of the pooled I/O buffers. Memory held for clients is bounded: request
+ * bodies being received share one byte budget, and each connection's unwritten response bytes are capped.
+ * The first loop also accepts connections and deals them round-robin to all loops. At the
+ * connection cap it stops accepting, leaving new clients in the kernel's backlog until a slot
+ * frees up. Handlers run on the executor set with setExecutor, or on the loop thread without one.
+ */
+public class NioHttpServer extends HttpServer {
+    private static final int POOLED_BUFFERS = 1024;
+    
+    private final int eventLoops;
+    private final int maxConnections;
+    private final long keepAliveNanos;
+    private final int maxKeepAliveRequests;
+    private final int maxRequestBytes;
+    private final long requestBufferBytes;
+    private final long maxOutboundBytes;
+    private final AtomicLong requestBytesReserved = new AtomicLong();
+    private final BufferPool buffers;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger activeExchanges = new AtomicInteger();
+    private final AtomicBoolean acceptPaused = new AtomicBoolean();
+    private volatile NioHttpContext[] contexts = new NioHttpContext[0]; // longest path first
+    private volatile Executor executor;
+    private volatile boolean stopping;
+    private ServerSocketChannel acceptor;
+    private SelectionKey acceptKey;
+    private EventLoop[] loops;
+    private int nextLoop;
+    
+    /**
+     * @param eventLoops selector threads
+     * @param maxConnections open connections allowed before accepting pauses
+     * @param keepAliveSeconds how long an idle connection is kept open
+     * @param maxKeepAliveRequests requests served on one connection before it is closed
+     * @param bufferSize bytes per pooled I/O buffer, which also bounds the request head
+     * @param maxRequestBytes largest request body accepted (413 above it)
+     * @param requestBufferBytes request body bytes buffered across all connections at once (503 above it)
+     * @param maxOutboundBytes response bytes queued for one connection before it is closed as not reading
+     */
+    public NioHttpServer(int eventLoops, int maxConnections, int keepAliveSeconds, int maxKeepAliveRequests,
+                         int bufferSize, int maxRequestBytes, long requestBufferBytes, long maxOutboundBytes) {
+        this.eventLoops = Math.max(1, eventLoops);
+        this.maxConnections = Math.max(1, maxConnections);
+        this.keepAliveNanos = TimeUnit.SECONDS.toNanos(Math.max(1, keepAliveSeconds));
+        this.maxKeepAliveRequests = Math.max(1, maxKeepAliveRequests);
+        this.maxRequestBytes = Math.max(0, maxRequestBytes);
+        this.requestBufferBytes = Math.max(this.maxRequestBytes, requestBufferBytes);
+        this.maxOutboundBytes = Math.max(64 * 1024, maxOutboundBytes);
+        this.buffers = new BufferPool(Math.max(1024, bufferSize), POOLED_BUFFERS);
+    }
+    
+    /**
+     * Build an unbound server from --event-loops/QUIZ_EVENT_LOOPS, --max-connections/QUIZ_MAX_CONNECTIONS,
+     * --keep-alive-timeout/QUIZ_KEEP_ALIVE_TIMEOUT, --keep-alive-requests/QUIZ_KEEP_ALIVE_REQUESTS,
+     * --io-buffer-kb/QUIZ_IO_BUFFER_KB, --max-request-kb/QUIZ_MAX_REQUEST_KB,
+     * --request-buffer-mb/QUIZ_REQUEST_BUFFER_MB and --max-outbound-kb/QUIZ_MAX_OUTBOUND_KB
+     */
+    public static NioHttpServer fromConfig(ServerConfig config) {
+        return new NioHttpServer(
+            config.getInt("event-loops", "QUIZ_EVENT_LOOPS", Runtime.getRuntime().availableProcessors()),
+            config.getInt("max-connections", "QUIZ_MAX_CONNECTIONS", 10_000),
+            config.getInt("keep-alive-timeout", "QUIZ_KEEP_ALIVE_TIMEOUT", 30),
+            config.getInt("keep-alive-requests", "QUIZ_KEEP_ALIVE_REQUESTS", 1000),
+            config.getInt("io-buffer-kb", "QUIZ_IO_BUFFER_KB", 16) * 1024,
+            config.getInt("max-request-kb", "QUIZ_MAX_REQUEST_KB", 16 * 1024) * 1024,
+            config.getInt("request-buffer-mb", "QUIZ_REQUEST_BUFFER_MB", 64) * 1024L * 1024,
+            config.getInt("max-outbound-kb", "QUIZ_MAX_OUTBOUND_KB", 4096) * 1024L
+        );
+    }
+    
+    @Override
+    public synchronized void bind(InetSocketAddress address, int backlog) throws IOException {
+        if (acceptor != null) {
+            throw new IllegalStateException("server already bound");
+        }
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.bind(address, backlog);
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        acceptor = channel;
+    }
+    
+    @Override
+    public synchronized void start() {
+        if (acceptor == null) {
+            throw new IllegalStateException("server not bound");
+        }
+        if (loops != null) {
+            throw new IllegalStateException("server already started");
+        }
+        try {
+            EventLoop[] created = new EventLoop[eventLoops];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new EventLoop(this, i + 1);
+            }
+            acceptKey = acceptor.register(created[0].selector(), SelectionKey.OP_ACCEPT);
+            loops = created;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open event loops", e);
+        }
+        for (EventLoop loop : loops) {
+            loop.start();
+        }
+    }
+    
+    @Override
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+    
+    @Override
+    public Executor getExecutor() {
+        return executor;
+    }
+    
+    /**
+     * Stop accepting, give in-flight exchanges up to delay seconds to finish, then close every connection
+     */
+    @Override
+    public void stop(int delay) {
+        EventLoop[] running;
+        synchronized (this) {
+            if (stopping || loops == null) {
+                return;
+            }
+            stopping = true;
+            running = loops;
+        }
+        running[0].execute(() -> {
+            acceptKey.cancel();
+            try {
+                acceptor.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(0, delay));
+        while (activeExchanges.get() > 0 && System.nanoTime() - deadline < 0) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (EventLoop loop : running) {
+            loop.shutdown();
+        }
+        for (EventLoop loop : running) {
+            try {
+                loop.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    @Override
+    public synchronized HttpContext createContext(String path, HttpHandler handler) {
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException("Illegal value for path or protocol");
+        }
+        List<NioHttpContext> updated = new ArrayList<>(List.of(contexts));
+        for (NioHttpContext context : updated) {
+            if (context.getPath().equals(path)) {
+                throw new IllegalArgumentException("cannot add context to list");
+            }
+        }
+        NioHttpContext context = new NioHttpContext(path, handler, this);
+        updated.add(context);
+        updated.sort(Comparator.comparingInt((NioHttpContext c) -> c.getPath().length()).reversed());
+        contexts = updated.toArray(new NioHttpContext[0]);
+        return context;
+    }
+    
+    @Override
+    public HttpContext createContext(String path) {
+        return createContext(path, null);
+    }
+    
+    @Override
+    public synchronized void removeContext(String path) {
+        List<NioHttpContext> updated = new ArrayList<>(List.of(contexts));
+        if (!updated.removeIf(context -> context.getPath().equals(path))) {
+            throw new IllegalArgumentException("cannot remove element from list");
+        }
+        contexts = updated.toArray(new NioHttpContext[0]);
+    }
+    
+    @Override
+    public void removeContext(HttpContext context) {
+        removeContext(context.getPath());
+    }
+    
+    @Override
+    public InetSocketAddress getAddress() {
+        try {
+            return acceptor != null ? (InetSocketAddress) acceptor.getLocalAddress() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Get number of open client connections
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+    
+    public int getEventLoops() {
+        return eventLoops;
+    }
+    
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+    
+    @Override
+    public String toString() {
+        return "NioHttpServer{eventLoops=" + eventLoops + ", maxConnections=" + maxConnections
+            + ", keepAlive=" + TimeUnit.NANOSECONDS.toSeconds(keepAliveNanos) + "s"
+            + ", bufferSize=" + buffers.getBufferSize() + '}';
+    }
+    
+    /**
+     * Accept pending connections on the first loop, pausing at the connection cap
+     */
+    void onAcceptable(SelectionKey key) {
+        while (!stopping) {
+            if (connections.get() >= maxConnections) {
+                key.interestOps(0);
+                acceptPaused.set(true);
+                // A connection may have closed between the check and the pause
+                if (connections.get() < maxConnections) {
+                    resumeAccept();
+                }
+                return;
+            }
+            SocketChannel channel;
+            try {
+                channel = acceptor.accept();
+            } catch (IOException e) {
+                Log.warn("Accept failed: {}", e.getMessage());
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                closeQuietly(channel);
+                continue;
+            }
+            connections.incrementAndGet();
+            EventLoop loop = loops[nextLoop];
+            nextLoop = (nextLoop + 1) % loops.length;
+            if (loop == loops[0]) {
+                loop.register(channel);
+            } else {
+                loop.execute(() -> loop.register(channel));
+            }
+        }
+    }
+    
+    /**
+     * Hand a parsed request to its context's filters and handler
+     */
+    void dispatch(NioHttpExchange exchange) {
+        activeExchanges.incrementAndGet();
+        NioHttpContext context = findContext(exchange.getRequestURI().getPath());
+        if (context == null || context.getHandler() == null) {
+            exchange.setContext(context);
+            sendNotFound(exchange);
+            return;
+        }
+        exchange.setContext(context);
+        Executor current = executor;
+        if (current == null) {
+            handle(exchange, context);
+        } else {
+            current.execute(() -> handle(exchange, context));
+        }
+    }
+    
+    void exchangeFinished() {
+        activeExchanges.decrementAndGet();
+    }
+    
+    void connectionClosed() {
+        if (connections.decrementAndGet() < maxConnections && acceptPaused.get()) {
+            loops[0].execute(this::resumeAccept);
+        }
+    }
+    
+    BufferPool buffers() {
+        return buffers;
+    }
+    
+    long getKeepAliveNanos() {
+        return keepAliveNanos;
+    }
+    
+    int getMaxKeepAliveRequests() {
+        return maxKeepAliveRequests;
+    }
+    
+    int getMaxRequestBytes() {
+        return maxRequestBytes;
+    }
+    
+    long getMaxOutboundBytes() {
+        return maxOutboundBytes;
+    }
+    
+    /**
+     * Take bytes from the request buffer budget
+     * @return false, taking nothing, if the budget does not have them
+     */
+    boolean reserveRequestBytes(long bytes) {
+        if (requestBytesReserved.addAndGet(bytes) > requestBufferBytes) {
+            requestBytesReserved.addAndGet(-bytes);
+            return false;
+        }
+        return true;
+    }
+    
+    void releaseRequestBytes(long bytes) {
+        requestBytesReserved.addAndGet(-bytes);
+    }
+    
+    boolean isStopping() {
+        return stopping;
+    }
+    
+    private void handle(NioHttpExchange exchange, NioHttpContext context) {
+        try {
+            new Filter.Chain(context.getFilters(), context.getHandler()).doFilter(exchange);
+        } catch (IOException e) {
+            Log.debug("Exchange on {} failed: {}", context.getPath(), e.getMessage());
+            exchange.abort();
+        } catch (RuntimeException e) {
+            Log.error("Unhandled exception in handler for {}", context.getPath(), e);
+            exchange.abort();
+        }
+    }
+    
+    private NioHttpContext findContext(String path) {
+        if (path == null) {
+            return null;
+        }
+        for (NioHttpContext context : contexts) {
+            if (path.startsWith(context.getPath())) {
+                return context;
+            }
+        }
+        return null;
+    }
+    
+    private void sendNotFound(NioHttpExchange exchange) {
+        try {
+            byte[] body = "<h1>404 Not Found</h1>No context found for request".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html");
+            exchange.sendResponseHeaders(404, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        } catch (IOException e) {
+            exchange.abort();
+        }
+    }
+    
+    private void resumeAccept() {
+        if (!stopping && acceptKey.isValid() && acceptPaused.compareAndSet(true, false)) {
+            acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+    
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing to do
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.quiz.services;
+
+import com.quiz.datastructures.QuizRankTree;
+import com.quiz.models.CompletedQuiz;
+import com.quiz.models.LeaderboardEntry;
+import com.quiz.server.ServerConfig;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leaderboard ranks every completed quiz by final score, then total time, then completion order
+ * Entries are spread round-robin over independently locked shards, each an order-statistic tree
+ * (QuizRankTree), so concurrent inserts almost never wait on each other and there is no global lock.
+ * A rank is the sum of per-shard counts and the top k is a merge of each shard's first k, both
+ * O(shards * log n). Entries outlive their sessions, so a reset never removes a result. Above the
+ * capacity the lowest-ranked entry is dropped.
+ */
+public class Leaderboard {
+    private static final int SHARDS = 16; // power of two
+    private static final Comparator<LeaderboardEntry> ORDER = Comparator.naturalOrder();
+    
+    private final QuizRankTree<LeaderboardEntry>[] shards;
+    private final ConcurrentHashMap<String, LeaderboardEntry> bySession = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int capacity;
+    private final LongAdder evictedCount = new LongAdder();
+    
+    public Leaderboard() {
+        this(1_000_000);
+    }
+    
+    /**
+     * @param capacity maximum number of entries kept (0 or less = unlimited)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Leaderboard(int capacity) {
+        this.capacity = capacity;
+        this.shards = new QuizRankTree[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new QuizRankTree<>(ORDER);
+        }
+    }
+    
+    /**
+     * Build a leaderboard from --leaderboard-capacity/QUIZ_LEADERBOARD_CAPACITY
+     */
+    public static Leaderboard fromConfig(ServerConfig config) {
+        return new Leaderboard(config.getInt("leaderboard-capacity", "QUIZ_LEADERBOARD_CAPACITY", 1_000_000));
+    }
+    
+    /**
+     * Record a completed quiz; a session is only ever recorded once, so replaying the results log is safe
+     * @return the session's entry (the existing one if it was already recorded)
+     */
+    public LeaderboardEntry record(CompletedQuiz result) {
+        LeaderboardEntry existing = bySession.get(result.getSessionId());
+        if (existing != null) {
+            return existing;
+        }
+        LeaderboardEntry entry = new LeaderboardEntry(result, sequence.getAndIncrement());
+        existing = bySession.putIfAbsent(entry.getSessionId(), entry);
+        if (existing != null) {
+            return existing;
+        }
+        QuizRankTree<LeaderboardEntry> shard = shardOf(entry);
+        synchronized (shard) {
+            shard.add(entry);
+        }
+        if (capacity > 0 && bySession.size() > capacity) {
+            evictLowest();
+        }
+        return entry;
+    }
+    
+    /**
+     * Get the 1-based rank of a session, or 0 if it is not on the leaderboard
+     */
+    public int rank(String sessionId) {
+        LeaderboardEntry entry = sessionId != null ? bySession.get(sessionId) : null;
+        if (entry == null) {
+            return 0;
+        }
+        int ahead = 0;
+        for (QuizRankTree<LeaderboardEntry> shard : shards) {
+            synchronized (shard) {
+                ahead += shard.countBefore(entry);
+            }
+        }
+        return ahead + 1;
+    }
+    
+    /**
+     * Get a session's entry, or null if it is not on the leaderboard
+     */
+    public LeaderboardEntry getEntry(String sessionId) {
+        return sessionId != null ? bySession.get(sessionId) : null;
+    }
+    
+    /**
+     * Get the best entries, best first
+     */
+    public LeaderboardEntry[] top(int limit) {
+        if (limit <= 0) {
+            return new LeaderboardEntry[0];
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<LeaderboardEntry>[] heads = new List[SHARDS];
+        int available = 0;
+        for (int i = 0; i < SHARDS; i++) {
+            synchronized (shards[i]) {
+                heads[i] = shards[i].first(limit);
+            }
+            available += heads[i].size();
+        }
+        
+        // Merge the per-shard prefixes, taking the best remaining head each time
+        LeaderboardEntry[] top = new LeaderboardEntry[Math.min(limit, available)];
+        int[] next = new int[SHARDS];
+        for (int n = 0; n < top.length; n++) {
+            int best = -1;
+            for (int i = 0; i < SHARDS; i++) {
+                if (next[i] < heads[i].size()
+                        && (best < 0 || heads[i].get(next[i]).compareTo(heads[best].get(next[best])) < 0)) {
+                    best = i;
+                }
+            }
+            top[n] = heads[best].get(next[best]++);
+        }
+        return top;
+    }
+    
+    /**
+     * Get number of entries on the leaderboard
+     */
+    public int size() {
+        return bySession.size();
+    }
+    
+    /**
+     * Get number of entries dropped because the leaderboard was full
+     */
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Drop the lowest-ranked entry: find the shard whose last entry ranks lowest, then remove it
+     * if no other thread got there first
+     */
+    private void evictLowest() {
+        LeaderboardEntry lowest = null;
+        for (QuizRankTree<LeaderboardEntry> shard : shards) {
+            LeaderboardEntry last;
+            synchronized (shard) {
+                last = shard.last();
+            }
+            if (last != null && (lowest == null || last.compareTo(lowest) > 0)) {
+                lowest = last;
+            }
+        }
+        if (lowest == null) {
+            return;
+        }
+        QuizRankTree<LeaderboardEntry> shard = shardOf(lowest);
+        boolean removed;
+        synchronized (shard) {
+            removed = shard.remove(lowest);
+        }
+        if (removed) {
+            bySession.remove(lowest.getSessionId(), lowest);
+            evictedCount.increment();
+        }
+    }
+    
+    private QuizRankTree<LeaderboardEntry> shardOf(LeaderboardEntry entry) {
+        return shards[(int) (entry.getSequence() & (SHARDS - 1))];
+    }
+    
+    @Override
+    public String toString() {
+        return "Leaderboard{entries=" + size() + ", capacity=" + (capacity > 0 ? capacity : "unlimited") + "}";
+    }
+}
\ No newline at end of file
@@ -1,356 +1,362 @@
 package com.quiz.services;
 
-import com.quiz.datastructures.QuizLinkedList;
-import com.quiz.datastructures.QuizStack;
+import com.quiz.analytics.AnswerAnalytics;
+import com.quiz.logging.Log;
+import com.quiz.models.AnswerHistory;
+import com.quiz.models.AnswerResult;
+import com.quiz.models.AnswerSubmission;
+import com.quiz.models.CompletedQuiz;
+import com.quiz.models.EpochNanos;
 import com.quiz.models.Question;
 import com.quiz.models.QuizSession;
 import com.quiz.models.UserAnswer;
+import com.quiz.questions.BuiltInQuestions;
+import com.quiz.questions.QuestionBank;
+import com.quiz.questions.QuestionCatalog;
+import com.quiz.questions.QuestionSampler;
+import com.quiz.questions.QuestionSnapshot;
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * QuizService handles all quiz logic using custom data structures
- * Uses QuizLinkedList (Priority 2) for questions and QuizStack (Priority 1) for user navigation
+ * Questions come from a QuestionCatalog snapshot (built-in, loaded from JSON/CSV, or memory-mapped)
+ * with O(1) indexed lookup, and each session's AnswerHistory stack tracks user navigation and undo
+ * Each session is pinned to the snapshot it started with, so reloading the bank never changes a running quiz,
+ * and holds only the bank positions of its own questions as chosen by the QuestionSampler
+ * Every operation is scoped to a session ID so many players can run quizzes at once
  */
-public class QuizService {
-    private QuizLinkedList<Question> questions;
-    private QuizStack<UserAnswer> userAnswers;
-    private QuizSession currentSession;
+public class QuizService implements Closeable {
+    private final QuestionCatalog catalog;
+    private final QuestionSampler sampler;
+    private final SessionRegistry sessions;
+    private final Leaderboard leaderboard;
+    private final AnswerAnalytics analytics = new AnswerAnalytics();
+    private final List<Consumer<CompletedQuiz>> completionListeners = new CopyOnWriteArrayList<>();
     
     public QuizService() {
-        this.questions = new QuizLinkedList<>();
-        this.userAnswers = new QuizStack<>();
-        initializeQuestions();
+        this(new SessionRegistry());
     }
     
-    /**
-     * Initialize Java-related quiz questions
-     */
-    private void initializeQuestions() {
-        // Question 1 - Easy
-        questions.add(new Question(1,
-            "What is the correct syntax for the main method in Java?",
-            new String[]{
-                "public static void main(String args[])",
-                "static public void main(String[] args)",
-                "public static void main(String[] args)",
-                "public void main(String[] args)"
-            },
-            2, // Correct answer index
-            "Fun Fact: The main method is the entry point of any Java application. The JVM calls this method when you run a Java program!",
-            "Easy",
-            "Think about the standard Java main method signature with 'public static void' and String array parameter."
-        ));        // Question 2 - Easy
-        questions.add(new Question(2,
-            "Which of the following is NOT a Java primitive data type?",
-            new String[]{
-                "int",
-                "String",
-                "boolean",
-                "char"
-            },
-            1, // Correct answer index
-            "Fun Fact: String is actually a class in Java, not a primitive type. It's stored in the heap memory and has many useful methods!",
-            "Easy",
-            "Remember: primitives are basic data types like int, char, boolean. String is a reference type."
-        ));
-        
-        // Question 3 - Medium
-        questions.add(new Question(3,
-            "What will be the output of: System.out.println(10 + 20 + \"Hello\" + 30 + 40);",
-            new String[]{
-                "30Hello3040",
-                "10203040Hello",
-                "30Hello70",
-                "1020Hello3040"
-            },
-            0, // Correct answer index
-            "Fun Fact: In Java, string concatenation is evaluated left to right. Numbers are added until a string is encountered, then everything becomes string concatenation!",
-            "Medium",
-            "Java evaluates expressions left to right. Numbers are added first, then concatenated with strings."
-        ));
-        
-        // Question 4 - Medium
-        questions.add(new Question(4,
-            "Which keyword is used to prevent inheritance in Java?",
-            new String[]{
-                "static",
-                "final",
-                "private",
-                "abstract"
-            },
-            1, // Correct answer index
-            "Fun Fact: The 'final' keyword can be used with classes, methods, and variables. Final classes like String cannot be extended!",
-            "Medium",
-            "Think about which keyword stops a class from being extended by other classes."
-        ));
-        
-        // Question 5 - Hard
-        questions.add(new Question(5,
-            "What is the time complexity of adding an element to a HashMap in Java?",
-            new String[]{
-                "O(1) average case",
-                "O(log n)",
-                "O(n)",
-                "O(n^2)"
-            },
-            0, // Correct answer index
-            "Fun Fact: HashMap uses hash tables internally. In the best case, it offers O(1) insertion, but in worst case (when all keys hash to same bucket), it can degrade to O(n)!",
-            "Hard",
-            "HashMap uses hashing for fast lookups. What's the ideal performance of hash table operations?"
-        ));
-        
-        // Question 6 - Easy
-        questions.add(new Question(6,
-            "Which method is used to compare two strings in Java?",
-            new String[]{
-                "compare()",
-                "equals()",
-                "==",
-                "compareTo()"
-            },
-            1, // Correct answer index
-            "Fun Fact: Always use equals() for string comparison! The == operator compares references, not actual string content.",
-            "Easy",
-            "Remember: == compares references, but you want to compare the actual string content."
-        ));
-        
-        // Question 7 - Medium
-        questions.add(new Question(7,
-            "What is the default value of a boolean variable in Java?",
-            new String[]{
-                "true",
-                "false",
-                "0",
-                "null"
-            },
-            1, // Correct answer index
-            "Fun Fact: All boolean instance variables are automatically initialized to false. Local boolean variables must be explicitly initialized!",
-            "Medium"
-        ));
-        
-        // Question 8 - Hard
-        questions.add(new Question(8,
-            "Which design pattern is implemented by the String class in Java?",
-            new String[]{
-                "Singleton",
-                "Factory",
-                "Immutable Object",
-                "Observer"
-            },
-            2, // Correct answer index
-            "Fun Fact: String objects are immutable in Java. Once created, they cannot be changed. This makes them thread-safe and allows for string pooling!",
-            "Hard"
-        ));
-        
-        // Question 9 - Medium
-        questions.add(new Question(9,
-            "What is the correct way to create a thread in Java?",
-            new String[]{
-                "Extend Thread class only",
-                "Implement Runnable interface only",
-                "Both extending Thread and implementing Runnable",
-                "Use ThreadGroup class"
-            },
-            2, // Correct answer index
-            "Fun Fact: Implementing Runnable is generally preferred over extending Thread because Java supports single inheritance, and you might want to extend another class!",
-            "Medium"
-        ));
-        
-        // Question 10 - Hard
-        questions.add(new Question(10,
-            "What happens when you call System.gc() in Java?",
-            new String[]{
-                "Forces immediate garbage collection",
-                "Suggests JVM to run garbage collection",
-                "Throws an exception",
-                "Clears all static variables"
-            },
-            1, // Correct answer index
-            "Fun Fact: System.gc() is just a suggestion to the JVM. The JVM may choose to ignore it! Modern JVMs are very efficient at managing memory automatically.",
-            "Hard"
-        ));
+    public QuizService(SessionRegistry sessions) {
+        this(sessions, BuiltInQuestions.create());
+    }
+    
+    public QuizService(SessionRegistry sessions, QuestionBank questions) {
+        this(sessions, new QuestionCatalog(questions));
+    }
+    
+    public QuizService(SessionRegistry sessions, QuestionCatalog catalog) {
+        this(sessions, catalog, QuestionSampler.sequential());
+    }
+    
+    public QuizService(SessionRegistry sessions, QuestionCatalog catalog, QuestionSampler sampler) {
+        this(sessions, catalog, sampler, new Leaderboard());
+    }
+    
+    public QuizService(SessionRegistry sessions, QuestionCatalog catalog, QuestionSampler sampler, Leaderboard leaderboard) {
+        this.catalog = catalog;
+        this.sampler = sampler;
+        this.sessions = sessions;
+        this.leaderboard = leaderboard;
     }
     
     /**
-     * Start a new quiz session
+     * Start a new quiz session and register it so later requests can find it
      */
     public QuizSession startQuiz(String playerName) {
-        currentSession = new QuizSession(playerName);
-        currentSession.setTotalQuestions(questions.size());
-        userAnswers.clear(); // Clear previous answers using our custom stack
-        return currentSession;
+        QuizSession session = new QuizSession(playerName);
+        QuestionSnapshot questions = catalog.current();
+        int[] questionOrder = sampler.select(questions);
+        session.setQuestions(questions);
+        session.setQuestionOrder(questionOrder);
+        session.setTotalQuestions(questionOrder.length);
+        sessions.register(session);
+        return session;
     }
     
     /**
-     * Get current question using LinkedList
+     * Get current question for a session (O(1) indexed lookup)
      */
-    public Question getCurrentQuestion() {
-        System.out.println("=== getCurrentQuestion called ===");
-        System.out.println("currentSession: " + (currentSession != null ? "exists" : "null"));
-        
-        if (currentSession == null) {
-            System.out.println("Returning null: currentSession is null");
+    public Question getCurrentQuestion(String sessionId) {
+        QuizSession session = sessions.get(sessionId);
+        if (session == null) {
+            Log.debug("getCurrentQuestion: no session {}", sessionId);
             return null;
         }
         
-        int currentIndex = currentSession.getCurrentQuestionIndex();
-        int totalQuestions = questions.size();
-        System.out.println("Current question index: " + currentIndex);
-        System.out.println("Total questions available: " + totalQuestions);
+        return getCurrentQuestion(session);
+    }
+    
+    private Question getCurrentQuestion(QuizSession session) {
+        int currentIndex = session.getCurrentQuestionIndex();
+        int totalQuestions = session.getTotalQuestions();
         
         if (currentIndex >= totalQuestions) {
-            System.out.println("Returning null: currentIndex (" + currentIndex + ") >= totalQuestions (" + totalQuestions + ")");
+            Log.debug("getCurrentQuestion: index {} past last question ({} total)", currentIndex, totalQuestions);
             return null;
         }
         
-        Question question = questions.get(currentIndex);
-        System.out.println("Retrieved question: " + (question != null ? question.getId() : "null"));
-        return question;
+        return session.getQuestions().get(session.getQuestionOrder()[currentIndex]);
     }
     
     /**
      * Submit answer and move to next question
+     * Synchronizes on the session only, so different players never block each other
      */
-    public boolean submitAnswer(int selectedAnswerIndex, long timeSpent) {
-        System.out.println("=== submitAnswer called ===");
-        System.out.println("selectedAnswerIndex: " + selectedAnswerIndex);
-        System.out.println("timeSpent: " + timeSpent);
-        
-        if (currentSession == null) {
-            System.out.println("Returning false: currentSession is null");
-            return false;
+    public boolean submitAnswer(String sessionId, int selectedAnswerIndex, long timeSpent) {
+        AnswerResult result = answerCurrentQuestion(sessionId, selectedAnswerIndex, timeSpent);
+        return result != null && result.isCorrect();
+    }
+    
+    /**
+     * Submit an answer to whatever the current question is, returning the graded result
+     * @return null if the session does not exist or has no current question
+     */
+    public AnswerResult answerCurrentQuestion(String sessionId, int selectedAnswerIndex, long timeSpent) {
+        QuizSession session = sessions.get(sessionId);
+        if (session == null) {
+            Log.debug("submitAnswer: no session {}", sessionId);
+            return null;
         }
         
-        Question currentQuestion = getCurrentQuestion();
-        if (currentQuestion == null) {
-            System.out.println("Returning false: currentQuestion is null");
-            return false;
+        synchronized (session) {
+            Question currentQuestion = getCurrentQuestion(session);
+            if (currentQuestion == null) {
+                Log.debug("submitAnswer: session {} has no current question", sessionId);
+                return null;
+            }
+            int position = session.getQuestionOrder()[session.getCurrentQuestionIndex()];
+            boolean isCorrect = grade(session, currentQuestion, selectedAnswerIndex, timeSpent);
+            AnswerSubmission submission = new AnswerSubmission(currentQuestion.getId(), selectedAnswerIndex, timeSpent);
+            return AnswerResult.graded(submission, currentQuestion, position, isCorrect);
+        }
+    }
+    
+    /**
+     * Submit several answers in order under a single session lock
+     * Each answer must name the session's current question. An answer to a question the session
+     * already answered is reported as a duplicate and not graded again, so a client can safely retry
+     * a batch whose response it never received. Any other mismatch is rejected, and later answers
+     * are still checked against the (unchanged) current question.
+     * @return one result per submission, in order, or null if the session does not exist
+     */
+    public AnswerResult[] submitAnswers(String sessionId, AnswerSubmission[] submissions) {
+        QuizSession session = sessions.get(sessionId);
+        if (session == null) {
+            Log.debug("submitAnswers: no session {}", sessionId);
+            return null;
         }
         
-        System.out.println("Current question ID: " + currentQuestion.getId());
-        System.out.println("Current session index before increment: " + currentSession.getCurrentQuestionIndex());
-        
+        AnswerResult[] results = new AnswerResult[submissions.length];
+        synchronized (session) {
+            for (int i = 0; i < submissions.length; i++) {
+                AnswerSubmission submission = submissions[i];
+                Question currentQuestion = getCurrentQuestion(session);
+                if (currentQuestion != null && currentQuestion.getId() == submission.getQuestionId()) {
+                    int position = session.getQuestionOrder()[session.getCurrentQuestionIndex()];
+                    boolean isCorrect = grade(session, currentQuestion, submission.getSelectedAnswerIndex(), submission.getTimeSpent());
+                    results[i] = AnswerResult.graded(submission, currentQuestion, position, isCorrect);
+                    continue;
+                }
+                
+                AnswerHistory answered = session.getUserAnswers();
+                int previous = answered.indexOf(submission.getQuestionId());
+                results[i] = previous >= 0
+                    ? AnswerResult.duplicate(submission, answered.isCorrect(previous))
+                    : AnswerResult.rejected(submission);
+            }
+        }
+        Log.debug("submitAnswers: session {} processed {} answers", sessionId, submissions.length);
+        return results;
+    }
+    
+    /**
+     * Record an answer to the current question, score it and advance; caller holds the session lock
+     */
+    private boolean grade(QuizSession session, Question currentQuestion, int selectedAnswerIndex, long timeSpent) {
         boolean isCorrect = currentQuestion.isCorrectAnswer(selectedAnswerIndex);
-        System.out.println("Answer is correct: " + isCorrect);
         
-        // Create user answer and push to our custom stack
-        UserAnswer userAnswer = new UserAnswer(
-            currentQuestion.getId(),
-            selectedAnswerIndex,
-            isCorrect,
-            timeSpent
-        );
-        userAnswers.push(userAnswer);
-        System.out.println("User answer pushed to stack");
+        // Push the answer onto the session's packed history (no UserAnswer is allocated)
+        session.getUserAnswers().push(currentQuestion.getId(), selectedAnswerIndex, isCorrect, timeSpent, EpochNanos.now());
+        analytics.record(currentQuestion, selectedAnswerIndex, isCorrect, timeSpent);
         
         // Update session score
         if (isCorrect) {
-            currentSession.addScore(currentQuestion.getPoints());
-            System.out.println("Score updated. New score: " + currentSession.getScore());
+            session.addScore(currentQuestion.getPoints());
         }
+        Log.debug("submitAnswer: session {} question {} correct={}", session.getSessionId(), currentQuestion.getId(), isCorrect);
         
         // Move to next question
-        currentSession.nextQuestion();
-        System.out.println("Current session index after increment: " + currentSession.getCurrentQuestionIndex());
+        session.nextQuestion();
         
         // Check if quiz is completed
-        if (currentSession.getCurrentQuestionIndex() >= questions.size()) {
-            currentSession.completeQuiz();
-            System.out.println("Quiz completed!");
+        if (session.getCurrentQuestionIndex() >= session.getTotalQuestions()) {
+            session.completeQuiz();
+            CompletedQuiz result = CompletedQuiz.of(session);
+            leaderboard.record(result);
+            for (Consumer<CompletedQuiz> listener : completionListeners) {
+                listener.accept(result);
+            }
+            Log.debug("submitAnswer: session {} completed", session.getSessionId());
         }
         
         return isCorrect;
     }
     
+    /**
+     * Register a listener called with every completed quiz, after it is on the leaderboard
+     * Listeners run on the request thread with the session lock held, so they must not block for long
+     */
+    public void addCompletionListener(Consumer<CompletedQuiz> listener) {
+        completionListeners.add(listener);
+    }
+    
     /**
      * Get previous answer (using stack peek)
      */
-    public UserAnswer getPreviousAnswer() {
-        if (!userAnswers.isEmpty()) {
-            return userAnswers.peek();
+    public UserAnswer getPreviousAnswer(String sessionId) {
+        QuizSession session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            return session.getUserAnswers().peek();
         }
-        return null;
     }
     
     /**
      * Undo last answer (using stack pop)
      */
-    public UserAnswer undoLastAnswer() {
-        if (!userAnswers.isEmpty()) {
-            UserAnswer lastAnswer = userAnswers.pop();
-            
-            // Move back one question if possible
-            if (currentSession.getCurrentQuestionIndex() > 0) {
-                currentSession.setCurrentQuestionIndex(currentSession.getCurrentQuestionIndex() - 1);
+    public UserAnswer undoLastAnswer(String sessionId) {
+        QuizSession session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        
+        synchronized (session) {
+            AnswerHistory userAnswers = session.getUserAnswers();
+            if (!userAnswers.isEmpty()) {
+                UserAnswer lastAnswer = userAnswers.pop();
                 
-                // Subtract points if it was correct
-                Question question = questions.get(lastAnswer.getQuestionId() - 1);
-                if (lastAnswer.isCorrect()) {
-                    currentSession.setScore(currentSession.getScore() - question.getPoints());
-                    currentSession.setCorrectAnswers(currentSession.getCorrectAnswers() - 1);
+                // Move back one question if possible
+                if (session.getCurrentQuestionIndex() > 0) {
+                    session.setCurrentQuestionIndex(session.getCurrentQuestionIndex() - 1);
+                    
+                    // Subtract points if it was correct (the undone question is current again)
+                    Question question = getCurrentQuestion(session);
+                    if (lastAnswer.isCorrect() && question != null) {
+                        session.setScore(session.getScore() - question.getPoints());
+                        session.setCorrectAnswers(session.getCorrectAnswers() - 1);
+                    }
                 }
+                
+                return lastAnswer;
             }
-            
-            return lastAnswer;
+            return null;
         }
-        return null;
     }
     
     /**
      * Get quiz results
      */
-    public QuizSession getResults() {
-        return currentSession;
+    public QuizSession getResults(String sessionId) {
+        return sessions.get(sessionId);
+    }
+    
+    /**
+     * Reset quiz by discarding the session
+     */
+    public void resetQuiz(String sessionId) {
+        sessions.remove(sessionId);
+    }
+    
+    /**
+     * Get the catalog new sessions draw their questions from
+     */
+    public QuestionCatalog getQuestionCatalog() {
+        return catalog;
+    }
+    
+    /**
+     * Get the leaderboard completed sessions are ranked on
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
     }
     
     /**
-     * Reset quiz for new session
+     * Get per-question statistics of every answer graded since startup
      */
-    public void resetQuiz() {
-        currentSession = null;
-        userAnswers.clear();
+    public AnswerAnalytics getAnswerAnalytics() {
+        return analytics;
     }
     
     /**
-     * Get total number of questions
+     * Get number of questions in a quiz started now
      */
     public int getTotalQuestions() {
-        return questions.size();
+        return sampler.quizLength(catalog.current());
     }
     
     /**
-     * Get all answered questions (convert stack to array)
+     * Get all answered questions for a session, oldest first
+     * Reads the history as a single array snapshot without popping or re-pushing
      */
-    public UserAnswer[] getAllAnswers() {
-        UserAnswer[] answers = new UserAnswer[userAnswers.size()];
-        QuizStack<UserAnswer> tempStack = new QuizStack<>();
-        
-        // Pop all answers to temporary stack (to maintain order)
-        int index = userAnswers.size() - 1;
-        while (!userAnswers.isEmpty()) {
-            UserAnswer answer = userAnswers.pop();
-            answers[index--] = answer;
-            tempStack.push(answer);
+    public UserAnswer[] getAllAnswers(String sessionId) {
+        QuizSession session = sessions.get(sessionId);
+        if (session == null) {
+            return new UserAnswer[0];
         }
         
-        // Restore original stack
-        while (!tempStack.isEmpty()) {
-            userAnswers.push(tempStack.pop());
+        synchronized (session) {
+            return session.getUserAnswers().toArray();
         }
-        
-        return answers;
     }
     
     /**
-     * Get current session
+     * Get session by ID
+     */
+    public QuizSession getSession(String sessionId) {
+        return sessions.get(sessionId);
+    }
+    
+    /**
+     * Check a session is live without refreshing its idle timer
+     */
+    public boolean hasSession(String sessionId) {
+        return sessions.contains(sessionId);
+    }
+    
+    /**
+     * Get number of active sessions
+     */
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+    
+    /**
+     * Get the session store (for expiry statistics)
+     */
+    public SessionRegistry getSessionRegistry() {
+        return sessions;
+    }
+    
+    /**
+     * Stop the session reaper; sessions stay readable until the process exits
      */
-    public QuizSession getCurrentSession() {
-        return currentSession;
+    @Override
+    public void close() {
+        sessions.close();
     }
     
     /**
-     * Check if quiz is in progress
+     * Check if quiz is in progress for a session
      */
-    public boolean isQuizInProgress() {
-        return currentSession != null && !currentSession.isCompleted();
+    public boolean isQuizInProgress(String sessionId) {
+        QuizSession session = sessions.get(sessionId);
+        return session != null && !session.isCompleted();
     }
 }
\ No newline at end of file
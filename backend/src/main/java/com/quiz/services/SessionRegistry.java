@@ -0,0 +1,374 @@
+package com.quiz.services;
+
+import com.quiz.logging.Log;
+import com.quiz.models.QuizSession;
+import com.quiz.server.ServerConfig;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SessionRegistry keeps every active quiz session keyed by its session ID
+ * Backed by a ConcurrentHashMap so lookups stay O(1) and players never contend on a global lock
+ *
+ * Sessions expire after an idle TTL (no requests) or an absolute TTL (since start).
+ * Expiry is enforced lazily on lookup and by a background reaper driving a hashed timing wheel:
+ * each session sits in the wheel slot of its expected deadline, and a lookup only records a
+ * timestamp - the reaper re-slots a session when it finds it was used since being scheduled.
+ * With a session cap, the reaper also evicts the least recently used sessions, walking the
+ * wheel from the soonest deadline forward. Request threads never wait for the reaper, which starts
+ * with the first session and runs until close().
+ */
+public class SessionRegistry implements Closeable {
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int WHEEL_SLOTS = 4096; // ~68 minutes per rotation at one-second ticks
+    
+    private final ConcurrentHashMap<String, Entry> sessions;
+    private final long idleTtlNanos;
+    private final long absoluteTtlNanos;
+    private final int maxSessions;
+    
+    private final ConcurrentLinkedQueue<Entry>[] wheel;
+    private final long startNanos;
+    private long processedTick; // only touched by the reaper thread
+    private volatile Thread reaper; // started by the first register()
+    private volatile boolean closed;
+    
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    
+    /**
+     * Registry entry; lastAccessNanos is the only field written on the request path
+     */
+    private static final class Entry {
+        final String sessionId;
+        final long createdNanos;
+        volatile QuizSession session; // cleared on removal so the answer graph can be collected
+        volatile long lastAccessNanos;
+        
+        Entry(QuizSession session, long now) {
+            this.sessionId = session.getSessionId();
+            this.session = session;
+            this.createdNanos = now;
+            this.lastAccessNanos = now;
+        }
+    }
+    
+    /**
+     * Registry with a 30 minute idle TTL, 4 hour absolute TTL and no session cap
+     */
+    public SessionRegistry() {
+        this(TimeUnit.MINUTES.toSeconds(30), TimeUnit.HOURS.toSeconds(4), 0);
+    }
+    
+    /**
+     * @param idleTtlSeconds expire sessions with no requests for this long
+     * @param absoluteTtlSeconds expire sessions this long after they started, regardless of activity
+     * @param maxSessions evict least recently used sessions above this count (0 = unlimited)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SessionRegistry(long idleTtlSeconds, long absoluteTtlSeconds, int maxSessions) {
+        if (idleTtlSeconds <= 0 || absoluteTtlSeconds <= 0) {
+            throw new IllegalArgumentException("Session TTLs must be positive");
+        }
+        this.sessions = new ConcurrentHashMap<>();
+        this.idleTtlNanos = TimeUnit.SECONDS.toNanos(idleTtlSeconds);
+        this.absoluteTtlNanos = TimeUnit.SECONDS.toNanos(absoluteTtlSeconds);
+        this.maxSessions = Math.max(0, maxSessions);
+        
+        this.wheel = new ConcurrentLinkedQueue[WHEEL_SLOTS];
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.processedTick = 0;
+    }
+    
+    /**
+     * Build a registry from --session-idle-ttl/QUIZ_SESSION_IDLE_TTL, --session-max-age/QUIZ_SESSION_MAX_AGE
+     * (both in seconds) and --max-sessions/QUIZ_MAX_SESSIONS
+     */
+    public static SessionRegistry fromConfig(ServerConfig config) {
+        return new SessionRegistry(
+            config.getInt("session-idle-ttl", "QUIZ_SESSION_IDLE_TTL", (int) TimeUnit.MINUTES.toSeconds(30)),
+            config.getInt("session-max-age", "QUIZ_SESSION_MAX_AGE", (int) TimeUnit.HOURS.toSeconds(4)),
+            config.getInt("max-sessions", "QUIZ_MAX_SESSIONS", 0)
+        );
+    }
+    
+    /**
+     * Register a newly started session
+     */
+    public void register(QuizSession session) {
+        long now = System.nanoTime();
+        Entry entry = new Entry(session, now);
+        Entry previous = sessions.put(entry.sessionId, entry);
+        if (previous != null) {
+            previous.session = null;
+        }
+        scheduleAt(entry, tickOf(deadline(entry)));
+        if (reaper == null) {
+            startReaper();
+        }
+        
+        if (maxSessions > 0 && sessions.size() > maxSessions) {
+            // Over the cap: let the reaper evict instead of doing it on this request
+            LockSupport.unpark(reaper);
+        }
+    }
+    
+    /**
+     * Look up a session by ID (null if unknown, expired or no ID given) and mark it as used
+     */
+    public QuizSession get(String sessionId) {
+        if (sessionId == null || sessionId.isEmpty()) {
+            return null;
+        }
+        Entry entry = sessions.get(sessionId);
+        if (entry == null) {
+            return null;
+        }
+        
+        long now = System.nanoTime();
+        if (deadline(entry) - now <= 0) {
+            // Expired but not yet reaped
+            if (expire(entry)) {
+                expiredCount.increment();
+            }
+            return null;
+        }
+        entry.lastAccessNanos = now;
+        return entry.session;
+    }
+    
+    /**
+     * Check a session is live without counting as activity (unlike get, its idle timer is not reset)
+     */
+    public boolean contains(String sessionId) {
+        Entry entry = sessionId != null ? sessions.get(sessionId) : null;
+        return entry != null && deadline(entry) - System.nanoTime() > 0;
+    }
+    
+    /**
+     * Remove a session, returning it if it was present
+     */
+    public QuizSession remove(String sessionId) {
+        if (sessionId == null || sessionId.isEmpty()) {
+            return null;
+        }
+        Entry entry = sessions.remove(sessionId);
+        if (entry == null) {
+            return null;
+        }
+        QuizSession session = entry.session;
+        entry.session = null; // the wheel drops the entry when its slot comes due
+        return session;
+    }
+    
+    /**
+     * Get number of active sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+    
+    /**
+     * Remove all sessions
+     */
+    public void clear() {
+        for (Entry entry : sessions.values()) {
+            entry.session = null;
+        }
+        sessions.clear();
+    }
+    
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+    
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+    
+    /**
+     * Stop the reaper thread (idempotent; sessions remain readable and lookups still expire lazily)
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = reaper;
+        }
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Expiry internals
+    
+    private long deadline(Entry entry) {
+        return Math.min(entry.lastAccessNanos + idleTtlNanos, entry.createdNanos + absoluteTtlNanos);
+    }
+    
+    private long tickOf(long nanos) {
+        return Math.max(0, (nanos - startNanos + TICK_NANOS - 1) / TICK_NANOS);
+    }
+    
+    private void scheduleAt(Entry entry, long tick) {
+        wheel[(int) (tick & (WHEEL_SLOTS - 1))].offer(entry);
+    }
+    
+    /**
+     * Remove the entry only if it is still the mapped one; true if this call removed it
+     */
+    private boolean expire(Entry entry) {
+        if (sessions.remove(entry.sessionId, entry)) {
+            entry.session = null;
+            return true;
+        }
+        return false;
+    }
+    
+    private synchronized void startReaper() {
+        if (reaper != null || closed) {
+            return;
+        }
+        Thread thread = new Thread(this::reapLoop, "quiz-session-reaper");
+        thread.setDaemon(true);
+        reaper = thread;
+        thread.start();
+    }
+    
+    private void reapLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(TICK_NANOS);
+            try {
+                long currentTick = tickOf(System.nanoTime());
+                // Catch up on every slot that came due since the last pass (at most one rotation)
+                long firstTick = Math.max(processedTick + 1, currentTick - WHEEL_SLOTS + 1);
+                for (long tick = firstTick; tick <= currentTick; tick++) {
+                    expireSlot(tick);
+                }
+                processedTick = currentTick;
+                
+                if (maxSessions > 0 && sessions.size() > maxSessions) {
+                    evictLeastRecentlyUsed(currentTick);
+                }
+            } catch (RuntimeException e) {
+                Log.error("Session reaper pass failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Expire due entries in one slot and re-slot the ones that were used since being scheduled
+     */
+    private void expireSlot(long tick) {
+        long now = System.nanoTime();
+        for (Entry entry : drain(tick)) {
+            if (entry.session == null) {
+                continue; // removed by reset or already expired
+            }
+            long deadline = deadline(entry);
+            if (deadline - now <= 0) {
+                if (expire(entry)) {
+                    expiredCount.increment();
+                }
+            } else {
+                // Never re-slot into the slot being drained, or it would wait a full rotation
+                scheduleAt(entry, Math.max(tickOf(deadline), tick + 1));
+            }
+        }
+    }
+    
+    /**
+     * Walk slots from the soonest deadline forward, evicting sessions with the oldest deadlines
+     * (least recently used when the idle TTL is the binding limit) until back under the cap
+     * No deadline is further off than the shorter TTL, so the walk stops there, and at one rotation:
+     * a TTL longer than the wheel puts some deadlines a turn or more ahead of their slot, and those
+     * entries are set aside and, if the walk alone did not get under the cap, evicted in deadline
+     * order rather than by walking the wheel again.
+     */
+    private void evictLeastRecentlyUsed(long currentTick) {
+        long horizonTicks = Math.min(Math.min(idleTtlNanos, absoluteTtlNanos) / TICK_NANOS + 1, WHEEL_SLOTS);
+        long lastTick = currentTick + horizonTicks;
+        List<Entry> beyond = new ArrayList<>();
+        long evicted = 0;
+        for (long tick = currentTick + 1; tick <= lastTick && sessions.size() > maxSessions; tick++) {
+            long tickEndNanos = startNanos + tick * TICK_NANOS;
+            for (Entry entry : drain(tick)) {
+                if (entry.session == null) {
+                    continue;
+                }
+                long deadline = deadline(entry);
+                if (deadline - tickEndNanos <= 0 && sessions.size() > maxSessions) {
+                    if (expire(entry)) {
+                        evicted++;
+                    }
+                } else if (tickOf(deadline) > lastTick) {
+                    beyond.add(entry);
+                } else {
+                    // Used since it was slotted: due later in this walk, in its new slot
+                    scheduleAt(entry, Math.max(tickOf(deadline), currentTick + 1));
+                }
+            }
+        }
+        evicted += evictEarliest(beyond);
+        if (evicted > 0) {
+            evictedCount.add(evicted);
+            Log.info("Evicted {} least recently used sessions (cap {})", evicted, maxSessions);
+        }
+    }
+    
+    /**
+     * Evict entries in deadline order while over the cap, then put the rest back in the wheel
+     * @return number evicted
+     */
+    private long evictEarliest(List<Entry> entries) {
+        long[] deadlines = new long[entries.size()];
+        Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = deadline(entries.get(i)) - startNanos; // fixed copies: lookups keep moving deadlines
+            order[i] = i;
+        }
+        long evicted = 0;
+        if (sessions.size() > maxSessions) {
+            Arrays.sort(order, (a, b) -> Long.compare(deadlines[a], deadlines[b]));
+        }
+        for (int i : order) {
+            Entry entry = entries.get(i);
+            if (sessions.size() > maxSessions && expire(entry)) {
+                evicted++;
+            } else if (entry.session != null) {
+                scheduleAt(entry, tickOf(deadline(entry)));
+            }
+        }
+        return evicted;
+    }
+    
+    /**
+     * Take everything currently in a slot; entries re-slotted during processing wait for their next turn
+     */
+    private List<Entry> drain(long tick) {
+        ConcurrentLinkedQueue<Entry> slot = wheel[(int) (tick & (WHEEL_SLOTS - 1))];
+        List<Entry> entries = new ArrayList<>();
+        Entry entry;
+        while ((entry = slot.poll()) != null) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.quiz.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the sketch's 2% relative error bound, merging, and that concurrent recording loses no counts
+ */
+class QuantileSketchTest {
+    
+    @Test
+    void estimatesQuantilesWithinTwoPercent() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (long value = 1; value <= 100_000; value++) {
+            sketch.record(value);
+        }
+        double[] quantiles = {0.01, 0.5, 0.9, 0.99, 1};
+        long[] estimates = sketch.quantiles(quantiles);
+        
+        assertEquals(100_000, sketch.count());
+        for (int i = 0; i < quantiles.length; i++) {
+            double exact = 1 + quantiles[i] * 99_999;
+            assertTrue(Math.abs(estimates[i] - exact) <= exact * 0.02 + 1, quantiles[i] + " -> " + estimates[i]);
+        }
+    }
+    
+    @Test
+    void clampsOutOfRangeValues() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.record(-5);
+        sketch.record(Long.MAX_VALUE);
+        
+        long[] estimates = sketch.quantiles(0, 1);
+        assertEquals(0, estimates[0]);
+        assertTrue(Math.abs(estimates[1] - 3_600_000) <= 3_600_000 * 0.02, String.valueOf(estimates[1]));
+        assertArrayEquals(new long[] {0, 0}, new QuantileSketch().quantiles(0.5, 0.99));
+    }
+    
+    @Test
+    void mergeAddsEveryBucket() {
+        QuantileSketch low = new QuantileSketch();
+        QuantileSketch high = new QuantileSketch();
+        for (int i = 0; i < 1000; i++) {
+            low.record(100);
+            high.record(10_000);
+        }
+        low.merge(high);
+        
+        assertEquals(2000, low.count());
+        long[] estimates = low.quantiles(0.25, 0.75);
+        assertTrue(Math.abs(estimates[0] - 100) <= 2, String.valueOf(estimates[0]));
+        assertTrue(Math.abs(estimates[1] - 10_000) <= 200, String.valueOf(estimates[1]));
+        assertEquals(1000, high.count());
+    }
+    
+    @Test
+    void concurrentRecordsAreAllCounted() throws InterruptedException {
+        QuantileSketch sketch = new QuantileSketch();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    sketch.record(1000 + i % 50); // a handful of hot buckets, as when many players answer alike
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(400_000, sketch.count());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.quiz.datastructures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs random inserts and removes against a TreeSet and checks that sizes, ranks, prefixes and the
+ * last element agree after every step, so subtree sizes stay right through every rotation
+ */
+class QuizRankTreeTest {
+    
+    @Test
+    void matchesSortedSetThroughRandomInsertsAndRemoves() {
+        Random random = new Random(42);
+        QuizRankTree<Integer> tree = new QuizRankTree<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int step = 0; step < 5000; step++) {
+            int value = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), tree.remove(value), "remove " + value);
+            } else {
+                assertEquals(expected.add(value), tree.add(value), "add " + value);
+            }
+            assertEquals(expected.size(), tree.size());
+            
+            int probe = random.nextInt(520) - 10;
+            assertEquals(expected.headSet(probe).size(), tree.countBefore(probe), "countBefore " + probe);
+            assertEquals(expected.contains(probe), tree.contains(probe), "contains " + probe);
+            assertEquals(expected.isEmpty() ? null : expected.last(), tree.last());
+        }
+        
+        List<Integer> all = new ArrayList<>(expected);
+        for (int k : new int[] {0, 1, 10, all.size(), all.size() + 5}) {
+            assertEquals(all.subList(0, Math.min(k, all.size())), tree.first(k), "first " + k);
+        }
+    }
+    
+    @Test
+    void ranksByComparatorAndKeepsEqualElementsOnce() {
+        QuizRankTree<String> tree = new QuizRankTree<>(Comparator.comparing(String::length));
+        assertTrue(tree.add("ccc"));
+        assertTrue(tree.add("a"));
+        assertFalse(tree.add("b")); // same length as "a"
+        assertTrue(tree.add("dd"));
+        
+        assertEquals(List.of("a", "dd", "ccc"), tree.first(5));
+        assertEquals(2, tree.countBefore("xyz"));
+        assertEquals(3, tree.countBefore("longest"));
+        assertTrue(tree.remove("z")); // removes "a", which compares equal
+        assertEquals(List.of("dd", "ccc"), tree.first(5));
+    }
+    
+    @Test
+    void emptyTreeHasNoRanks() {
+        QuizRankTree<Integer> tree = new QuizRankTree<>(Comparator.naturalOrder());
+        tree.add(1);
+        tree.clear();
+        
+        assertTrue(tree.isEmpty());
+        assertNull(tree.last());
+        assertEquals(0, tree.countBefore(5));
+        assertEquals(List.of(), tree.first(3));
+        assertFalse(tree.remove(1));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.quiz.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.quiz.models.CompletedQuiz;
+import com.quiz.models.UserAnswer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Writes results through a real log directory, then replays it with a fresh instance, as a restart
+ * would: results come back whole and in order, a torn tail is cut so appends continue cleanly, and a
+ * corrupt record in an older segment loses only the rest of that segment
+ */
+class ResultsLogTest {
+    @TempDir
+    Path directory;
+    
+    @Test
+    void replaysEveryResultInOrder() throws IOException {
+        write(1 << 20, result(1), result(2), result(3));
+        
+        List<CompletedQuiz> replayed = replay(1 << 20);
+        assertEquals(3, replayed.size());
+        for (int i = 0; i < 3; i++) {
+            assertSameResult(result(i + 1), replayed.get(i));
+        }
+    }
+    
+    @Test
+    void truncatesTornTailAndKeepsAppending() throws IOException {
+        write(1 << 20, result(1), result(2));
+        Path segment = segments().get(0);
+        long cleanSize = Files.size(segment);
+        // A crash mid-write: a record header promising more payload than ever reached the disk
+        Files.write(segment, new byte[] {0, 0, 0, 100, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+        
+        ResultsLog log = new ResultsLog(directory, 1 << 20);
+        List<CompletedQuiz> replayed = new ArrayList<>();
+        assertEquals(2, log.open(replayed::add));
+        assertEquals(cleanSize, Files.size(segment));
+        log.append(result(3));
+        log.close();
+        
+        List<CompletedQuiz> afterRestart = replay(1 << 20);
+        assertEquals(3, afterRestart.size());
+        assertSameResult(result(3), afterRestart.get(2));
+    }
+    
+    @Test
+    void skipsRestOfCorruptOlderSegment() throws IOException {
+        // A tiny segment size starts a new segment for every batch, and each write() is one batch
+        write(1, result(1));
+        write(1, result(2));
+        write(1, result(3));
+        List<Path> segments = segments();
+        assertEquals(3, segments.size());
+        
+        byte[] first = Files.readAllBytes(segments.get(0));
+        first[first.length - 1] ^= 0x55; // fails the record's CRC
+        Files.write(segments.get(0), first);
+        
+        List<CompletedQuiz> replayed = replay(1);
+        assertEquals(2, replayed.size());
+        assertSameResult(result(2), replayed.get(0));
+        assertSameResult(result(3), replayed.get(1));
+    }
+    
+    @Test
+    void refusesFilesThatAreNotSegments() throws IOException {
+        Files.write(directory.resolve("results-00000001.log"), "not a log file".getBytes(StandardCharsets.UTF_8));
+        
+        assertThrows(IOException.class, () -> new ResultsLog(directory, 1 << 20).open(result -> { }));
+    }
+    
+    @Test
+    void countsResultsAppendedAfterClose() throws IOException {
+        ResultsLog log = new ResultsLog(directory, 1 << 20);
+        log.open(result -> { });
+        log.append(result(1));
+        log.close();
+        log.append(result(2));
+        
+        assertEquals(1, log.getWrittenCount());
+        assertEquals(1, log.getLostCount());
+        assertEquals(1, replay(1 << 20).size());
+    }
+    
+    private void write(long segmentBytes, CompletedQuiz... results) throws IOException {
+        ResultsLog log = new ResultsLog(directory, segmentBytes);
+        log.open(result -> { });
+        for (CompletedQuiz result : results) {
+            log.append(result);
+        }
+        log.close();
+        assertEquals(results.length, log.getWrittenCount());
+    }
+    
+    private List<CompletedQuiz> replay(long segmentBytes) throws IOException {
+        List<CompletedQuiz> replayed = new ArrayList<>();
+        ResultsLog log = new ResultsLog(directory, segmentBytes);
+        log.open(replayed::add);
+        log.close();
+        return replayed;
+    }
+    
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+    
+    private static CompletedQuiz result(int n) {
+        UserAnswer[] answers = new UserAnswer[n];
+        for (int i = 0; i < n; i++) {
+            answers[i] = new UserAnswer(100 + i, i % 4, i % 2 == 0, 1000L * i, 0);
+        }
+        return new CompletedQuiz("session-" + n, n == 2 ? null : "Player " + n + " ü", n * 10, n * 12, n, n + 1,
+            5000L * n, 1_700_000_000_000L + n, 1_700_000_060_000L + n, 7, answers);
+    }
+    
+    private static void assertSameResult(CompletedQuiz expected, CompletedQuiz actual) {
+        assertEquals(expected.getSessionId(), actual.getSessionId());
+        assertEquals(expected.getPlayerName(), actual.getPlayerName());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getFinalScore(), actual.getFinalScore());
+        assertEquals(expected.getCorrectAnswers(), actual.getCorrectAnswers());
+        assertEquals(expected.getTotalQuestions(), actual.getTotalQuestions());
+        assertEquals(expected.getTotalTimeSpent(), actual.getTotalTimeSpent());
+        assertEquals(expected.getStartedAt(), actual.getStartedAt());
+        assertEquals(expected.getCompletedAt(), actual.getCompletedAt());
+        assertEquals(expected.getQuestionBankVersion(), actual.getQuestionBankVersion());
+        assertArrayEquals(describe(expected.getAnswers()), describe(actual.getAnswers()));
+    }
+    
+    private static String[] describe(UserAnswer[] answers) {
+        String[] described = new String[answers.length];
+        for (int i = 0; i < answers.length; i++) {
+            UserAnswer answer = answers[i];
+            described[i] = answer.getQuestionId() + ":" + answer.getSelectedAnswerIndex() + ":" + answer.isCorrect()
+                + ":" + answer.getTimeSpent();
+        }
+        return described;
+    }
+}
\ No newline at end of file
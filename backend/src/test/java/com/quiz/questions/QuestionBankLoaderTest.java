@@ -0,0 +1,156 @@
+package com.quiz.questions;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.quiz.models.Difficulty;
+import com.quiz.models.Question;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Loads JSON, CSV and compiled .qbin banks from files and checks both the questions that come out and
+ * the malformed files that must be refused rather than loaded with shifted or clashing answers
+ */
+class QuestionBankLoaderTest {
+    @TempDir
+    Path directory;
+    
+    @Test
+    void readsJsonObjectOrBareArray() throws IOException {
+        String question = "{\"id\": 7, \"text\": \"2 + 2?\", \"options\": [\"3\", \"4\"], \"correctAnswer\": 1,"
+            + " \"difficulty\": \"hard\", \"funFact\": \"Even\", \"unknown\": [1, 2]}";
+        for (String json : new String[] {"{\"questions\": [" + question + "]}", "[" + question + "]"}) {
+            QuestionBank bank = QuestionBankLoader.load(write("bank.json", json));
+            
+            assertEquals(1, bank.size());
+            Question loaded = bank.get(0);
+            assertEquals(7, loaded.getId());
+            assertEquals("2 + 2?", loaded.getQuestionText());
+            assertArrayEquals(new String[] {"3", "4"}, loaded.getOptions());
+            assertEquals(1, loaded.getCorrectAnswerIndex());
+            assertEquals(Difficulty.HARD, loaded.getDifficultyLevel());
+            assertEquals("Even", loaded.getFunFact());
+        }
+    }
+    
+    @Test
+    void rejectsJsonWithDuplicateIds() throws IOException {
+        // The second question has no id and defaults to its position, 2, which the first one already took
+        Path file = write("bank.json", "[{\"id\": 2, \"text\": \"a\", \"options\": [\"x\", \"y\"], \"correctAnswer\": 0},\n"
+            + "{\"text\": \"b\", \"options\": [\"x\", \"y\"], \"correctAnswer\": 0}]");
+        
+        IOException error = assertThrows(IOException.class, () -> QuestionBankLoader.load(file));
+        assertTrue(error.getMessage().contains("same ID"), error.getMessage());
+    }
+    
+    @Test
+    void readsCsvWithQuotedFieldsInAnyColumnOrder() throws IOException {
+        Path file = write("bank.csv", "\uFEFFtext,correctAnswer,option1,option2,option3,id,difficulty\n"
+            + "\"Which, of these?\",2,a,b,\"c \"\"quoted\"\"\nacross lines\",5,Easy\n"
+            + "\n"
+            + "Second,0,x,y,,,\n");
+        QuestionBank bank = QuestionBankLoader.load(file);
+        
+        assertEquals(2, bank.size());
+        Question first = bank.get(0);
+        assertEquals(5, first.getId());
+        assertEquals("Which, of these?", first.getQuestionText());
+        assertArrayEquals(new String[] {"a", "b", "c \"quoted\"\nacross lines"}, first.getOptions());
+        assertEquals(2, first.getCorrectAnswerIndex());
+        assertEquals(Difficulty.EASY, first.getDifficultyLevel());
+        
+        Question second = bank.get(1);
+        assertEquals(2, second.getId());
+        assertArrayEquals(new String[] {"x", "y"}, second.getOptions()); // trailing blank options are dropped
+        assertEquals(Difficulty.MEDIUM, second.getDifficultyLevel());
+    }
+    
+    @Test
+    void ordersCsvOptionsByNumberNotHeaderPosition() throws IOException {
+        Path file = write("bank.csv", "id,text,option2,Option1,optional_note,correctAnswer\n"
+            + "1,Pick the first,second,first,not an option,0\n");
+        Question question = QuestionBankLoader.load(file).get(0);
+        
+        assertArrayEquals(new String[] {"first", "second"}, question.getOptions());
+        assertEquals("first", question.getCorrectAnswer());
+    }
+    
+    @Test
+    void rejectsCsvBlankOptionBeforeAFilledOne() throws IOException {
+        Path file = write("bank.csv", "id,text,option1,option2,option3,correctAnswer\n"
+            + "1,Gap,a,,c,1\n");
+        
+        IOException error = assertThrows(IOException.class, () -> QuestionBankLoader.load(file));
+        assertTrue(error.getMessage().contains("option3 but option2 is blank"), error.getMessage());
+    }
+    
+    @Test
+    void rejectsCsvHeaderWithMissingOrRepeatedOptionNumbers() throws IOException {
+        String[] headers = {"id,text,option1,option3,correctAnswer", "id,text,option1,option1,correctAnswer",
+            "id,text,option0,option1,correctAnswer"};
+        for (String header : headers) {
+            Path file = write("bank.csv", header + "\n1,Question,a,b,0\n");
+            
+            assertThrows(IOException.class, () -> QuestionBankLoader.load(file), header);
+        }
+    }
+    
+    @Test
+    void rejectsCsvWithDuplicateIdsOrBadAnswers() throws IOException {
+        Path duplicate = write("duplicate.csv", "id,text,option1,option2,correctAnswer\n1,a,x,y,0\n1,b,x,y,0\n");
+        Path outOfRange = write("range.csv", "id,text,option1,option2,correctAnswer\n1,a,x,y,2\n");
+        Path notNumber = write("number.csv", "id,text,option1,option2,correctAnswer\none,a,x,y,0\n");
+        
+        assertTrue(assertThrows(IOException.class, () -> QuestionBankLoader.load(duplicate)).getMessage().contains("line 2"));
+        assertThrows(IOException.class, () -> QuestionBankLoader.load(outOfRange));
+        assertThrows(IOException.class, () -> QuestionBankLoader.load(notNumber));
+    }
+    
+    @Test
+    void compiledBankMatchesItsSource() throws IOException {
+        QuestionBank source = QuestionBankLoader.load(write("bank.csv", "id,text,option1,option2,option3,correctAnswer,difficulty,funFact,hint\n"
+            + "10,First,a,b,c,2,Hard,Fact,Hint\n"
+            + "20,Second,ü,ß,,1,Easy,,\n"));
+        Path compiled = directory.resolve("bank" + MappedQuestionBank.FILE_EXTENSION);
+        MappedQuestionBank.write(source, compiled);
+        
+        QuestionBank bank = QuestionBankLoader.load(compiled);
+        assertInstanceOf(MappedQuestionBank.class, bank);
+        assertEquals(source.size(), bank.size());
+        for (int i = 0; i < bank.size(); i++) {
+            Question expected = source.get(i);
+            Question actual = bank.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getQuestionText(), actual.getQuestionText());
+            assertArrayEquals(expected.getOptions(), actual.getOptions());
+            assertEquals(expected.getCorrectAnswerIndex(), actual.getCorrectAnswerIndex());
+            assertEquals(expected.getDifficultyLevel(), bank.getDifficulty(i));
+            assertEquals(expected.getFunFact(), actual.getFunFact());
+            assertEquals(expected.getHint(), actual.getHint());
+        }
+    }
+    
+    @Test
+    void rejectsTruncatedCompiledBank() throws IOException {
+        QuestionBank source = QuestionBankLoader.load(write("bank.csv", "text,option1,option2,correctAnswer\nOnly,a,b,0\n"));
+        Path compiled = directory.resolve("bank" + MappedQuestionBank.FILE_EXTENSION);
+        MappedQuestionBank.write(source, compiled);
+        byte[] bytes = Files.readAllBytes(compiled);
+        Files.write(compiled, Arrays.copyOf(bytes, bytes.length / 2));
+        
+        assertThrows(IOException.class, () -> QuestionBankLoader.load(compiled));
+    }
+    
+    private Path write(String name, String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
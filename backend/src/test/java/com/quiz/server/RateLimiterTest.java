@@ -0,0 +1,125 @@
+package com.quiz.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the GCRA buckets: a burst, then one request per interval, independent clients, the untracked
+ * overflow past maxClients, no over-admission under contention, and the 429 the filter answers with
+ */
+class RateLimiterTest {
+    
+    @Test
+    void admitsBurstThenReportsWaitUntilNextToken() {
+        RateLimiter limiter = new RateLimiter(1, 5, 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.acquire("client"), "request " + i);
+        }
+        long wait = limiter.acquire("client");
+        
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1), String.valueOf(wait));
+        assertEquals(1, limiter.getRejectedCount());
+        assertEquals(0, limiter.acquire("other"));
+        assertEquals(2, limiter.getTrackedClients());
+    }
+    
+    @Test
+    void refillsOneTokenPerInterval() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(10, 1, 100); // one token every 100 ms
+        assertEquals(0, limiter.acquire("client"));
+        assertTrue(limiter.acquire("client") > 0);
+        
+        Thread.sleep(150);
+        assertEquals(0, limiter.acquire("client"));
+        assertTrue(limiter.acquire("client") > 0);
+    }
+    
+    @Test
+    void letsUnknownClientsThroughUntrackedPastTheCap() {
+        RateLimiter limiter = new RateLimiter(1, 1, 2);
+        assertEquals(0, limiter.acquire("a"));
+        assertEquals(0, limiter.acquire("b"));
+        
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("c"));
+        }
+        assertEquals(3, limiter.getUntrackedCount());
+        assertEquals(2, limiter.getTrackedClients());
+        assertTrue(limiter.acquire("a") > 0); // tracked clients are still limited
+    }
+    
+    @Test
+    void admitsExactlyTheBurstUnderContention() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(0.01, 100, 100); // no refill during the test
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.acquire("shared") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(100, admitted.get());
+        assertEquals(8000 - 100, limiter.getRejectedCount());
+    }
+    
+    @Test
+    void filterAnswers429WithRetryAfter() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/ping", exchange -> {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        }).getFilters().add(new RateLimitFilter(new RateLimiter(1, 1, 100), new RateLimiter(1, 2, 100),
+            exchange -> "session", false));
+        server.start();
+        try {
+            URL url = new URL("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + server.getAddress().getPort() + "/ping");
+            assertEquals(204, request(url).getResponseCode());
+            
+            // The address still has a token, but the session has spent its one
+            HttpURLConnection limited = request(url);
+            assertEquals(429, limited.getResponseCode());
+            assertEquals("1", limited.getHeaderField("Retry-After"));
+            assertEquals("application/json", limited.getHeaderField("Content-Type"));
+        } finally {
+            server.stop(0);
+        }
+    }
+    
+    private static HttpURLConnection request(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        return connection;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.quiz.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks admission: work up to the cap runs on workers, and work beyond it is flagged rejected and
+ * answered off the calling thread, which in the server is the dispatcher
+ */
+class RequestExecutorTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private RequestExecutor executor;
+    
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    void runsAdmittedWorkOnAWorker() throws Exception {
+        executor = RequestExecutor.create(RequestExecutor.Mode.POOL, 1, 0);
+        CompletableFuture<String> ran = new CompletableFuture<>();
+        executor.execute(() -> ran.complete(Thread.currentThread().getName() + " " + RequestExecutor.isRejected()));
+        
+        assertEquals("quiz-worker-1 false", ran.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void answersOverflowOnARejectionThread() throws Exception {
+        executor = RequestExecutor.create(RequestExecutor.Mode.POOL, 1, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            await(release);
+        });
+        executor.execute(() -> await(release)); // waits in the queue
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getInFlight());
+        
+        CompletableFuture<String> rejected = new CompletableFuture<>();
+        executor.execute(() -> rejected.complete(Thread.currentThread().getName() + " " + RequestExecutor.isRejected()));
+        
+        assertTrue(rejected.get(5, TimeUnit.SECONDS).matches("quiz-rejector-\\d+ true"), rejected.get());
+        assertFalse(RequestExecutor.isRejected());
+    }
+    
+    @Test
+    void singleModeRunsInline() {
+        executor = RequestExecutor.create(RequestExecutor.Mode.SINGLE, 4, 4);
+        String[] thread = new String[1];
+        executor.execute(() -> thread[0] = Thread.currentThread().getName());
+        
+        assertEquals(Thread.currentThread().getName(), thread[0]);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
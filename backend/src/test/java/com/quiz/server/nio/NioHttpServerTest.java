@@ -0,0 +1,264 @@
+package com.quiz.server.nio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives NioHttpServer with raw bytes over real sockets, so request framing, rejections and
+ * connection handling are checked exactly as a client sees them
+ */
+class NioHttpServerTest {
+    private static final int MAX_REQUEST_BYTES = 4096;
+    private static final int BUFFER_SIZE = 1024;
+    
+    private final List<Socket> sockets = new ArrayList<>();
+    private NioHttpServer server;
+    
+    @AfterEach
+    void stop() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+    
+    @Test
+    void answersPipelinedRequestsInOrder() throws IOException {
+        start(10, 100);
+        Socket socket = connect();
+        send(socket, "GET /echo?first HTTP/1.1\r\nHost: test\r\n\r\n"
+            + "POST /echo?second HTTP/1.1\r\nHost: test\r\nContent-Length: 5\r\n\r\nhello");
+        
+        Response first = Response.read(socket.getInputStream());
+        Response second = Response.read(socket.getInputStream());
+        assertEquals(200, first.status);
+        assertEquals("GET /echo?first 0:", first.body);
+        assertNull(first.header("connection")); // HTTP/1.1 keeps the connection open by default
+        assertEquals(200, second.status);
+        assertEquals("POST /echo?second 5:hello", second.body);
+    }
+    
+    @Test
+    void treatsRequestWithoutContentLengthAsEmpty() throws IOException {
+        start(10, 100);
+        Socket socket = connect();
+        send(socket, "POST /echo HTTP/1.1\r\nHost: test\r\n\r\n");
+        
+        Response response = Response.read(socket.getInputStream());
+        assertEquals(200, response.status);
+        assertEquals("POST /echo 0:", response.body);
+    }
+    
+    @Test
+    void rejectsMalformedOrConflictingContentLength() throws IOException {
+        start(10, 100);
+        String[] lengths = {
+            "Content-Length: abc\r\n",
+            "Content-Length: -1\r\n",
+            "Content-Length: +5\r\n",
+            "Content-Length: 5\r\nContent-Length: 6\r\n",
+            "Content-Length: 5, 6\r\n"
+        };
+        for (String length : lengths) {
+            Socket socket = connect();
+            send(socket, "POST /echo HTTP/1.1\r\nHost: test\r\n" + length + "\r\nhello!");
+            
+            Response response = Response.read(socket.getInputStream());
+            assertEquals(400, response.status, length);
+            assertEquals("close", response.header("connection"), length);
+            assertEquals(-1, socket.getInputStream().read(), length);
+        }
+    }
+    
+    @Test
+    void acceptsRepeatedMatchingContentLength() throws IOException {
+        start(10, 100);
+        Socket socket = connect();
+        send(socket, "POST /echo HTTP/1.1\r\nHost: test\r\nContent-Length: 5\r\nContent-Length: 5\r\n\r\nhello");
+        
+        assertEquals("POST /echo 5:hello", Response.read(socket.getInputStream()).body);
+    }
+    
+    @Test
+    void rejectsBodyOverLimitWith413() throws IOException {
+        start(10, 100);
+        Socket socket = connect();
+        send(socket, "POST /echo HTTP/1.1\r\nHost: test\r\nContent-Length: " + (MAX_REQUEST_BYTES + 1) + "\r\n\r\n");
+        
+        assertEquals(413, Response.read(socket.getInputStream()).status);
+        assertEquals(-1, socket.getInputStream().read());
+    }
+    
+    @Test
+    void rejectsHeadLargerThanBufferWith431() throws IOException {
+        start(10, 100);
+        Socket socket = connect();
+        send(socket, "GET /echo HTTP/1.1\r\nHost: test\r\nX-Padding: " + "a".repeat(BUFFER_SIZE) + "\r\n\r\n");
+        
+        assertEquals(431, Response.read(socket.getInputStream()).status);
+        assertEquals(-1, socket.getInputStream().read());
+    }
+    
+    @Test
+    void rejectsChunkedUploadWith501() throws IOException {
+        start(10, 100);
+        Socket socket = connect();
+        send(socket, "POST /echo HTTP/1.1\r\nHost: test\r\nTransfer-Encoding: chunked\r\n\r\n5\r\nhello\r\n0\r\n\r\n");
+        
+        assertEquals(501, Response.read(socket.getInputStream()).status);
+        assertEquals(-1, socket.getInputStream().read());
+    }
+    
+    @Test
+    void sendsContinueBeforeReadingExpectedBody() throws IOException {
+        start(10, 100);
+        Socket socket = connect();
+        send(socket, "POST /echo HTTP/1.1\r\nHost: test\r\nContent-Length: 5\r\nExpect: 100-continue\r\n\r\n");
+        
+        assertEquals(100, Response.read(socket.getInputStream()).status);
+        send(socket, "hello");
+        assertEquals("POST /echo 5:hello", Response.read(socket.getInputStream()).body);
+    }
+    
+    @Test
+    void closesAfterMaxKeepAliveRequests() throws IOException {
+        start(10, 2);
+        Socket socket = connect();
+        send(socket, "GET /echo?1 HTTP/1.1\r\nHost: test\r\n\r\n");
+        assertNull(Response.read(socket.getInputStream()).header("connection"));
+        
+        send(socket, "GET /echo?2 HTTP/1.1\r\nHost: test\r\n\r\n");
+        Response last = Response.read(socket.getInputStream());
+        assertEquals(200, last.status);
+        assertEquals("close", last.header("connection"));
+        assertEquals(-1, socket.getInputStream().read());
+    }
+    
+    @Test
+    void resumesAcceptingWhenAConnectionFreesUp() throws IOException {
+        start(1, 100);
+        Socket first = connect();
+        send(first, "GET /echo?first HTTP/1.1\r\nHost: test\r\n\r\n");
+        assertEquals(200, Response.read(first.getInputStream()).status);
+        
+        // Connects through the kernel backlog, but is not accepted while the first connection is open
+        Socket second = connect();
+        send(second, "GET /echo?second HTTP/1.1\r\nHost: test\r\n\r\n");
+        second.setSoTimeout(300);
+        assertThrows(SocketTimeoutException.class, () -> second.getInputStream().read());
+        assertEquals(1, server.getConnectionCount());
+        
+        first.close();
+        second.setSoTimeout(5000);
+        Response response = Response.read(second.getInputStream());
+        assertNotNull(response);
+        assertEquals("GET /echo?second 0:", response.body);
+    }
+    
+    @Test
+    void answersUnknownPathWith404() throws IOException {
+        start(10, 100);
+        Socket socket = connect();
+        send(socket, "GET /missing HTTP/1.1\r\nHost: test\r\n\r\n");
+        
+        assertEquals(404, Response.read(socket.getInputStream()).status);
+        send(socket, "GET /echo HTTP/1.1\r\nHost: test\r\n\r\n");
+        assertEquals(200, Response.read(socket.getInputStream()).status);
+    }
+    
+    private void start(int maxConnections, int maxKeepAliveRequests) throws IOException {
+        server = new NioHttpServer(1, maxConnections, 30, maxKeepAliveRequests, BUFFER_SIZE, MAX_REQUEST_BYTES,
+            MAX_REQUEST_BYTES * 4L, 64 * 1024);
+        server.createContext("/echo", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            byte[] reply = (exchange.getRequestMethod() + " " + exchange.getRequestURI() + " " + body.length + ":"
+                + new String(body, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, reply.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(reply);
+            }
+        });
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16);
+        server.start();
+    }
+    
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getAddress().getPort());
+        socket.setSoTimeout(5000);
+        sockets.add(socket);
+        return socket;
+    }
+    
+    private static void send(Socket socket, String request) throws IOException {
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.ISO_8859_1));
+        socket.getOutputStream().flush();
+    }
+    
+    /**
+     * A response read off the wire; bodies are framed by Content-Length, which is all the echo handler sends
+     */
+    private static final class Response {
+        final int status;
+        final Map<String, String> headers;
+        final String body;
+        
+        private Response(int status, Map<String, String> headers, String body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+        
+        String header(String name) {
+            return headers.get(name);
+        }
+        
+        /**
+         * @return null if the connection closed before a response started
+         */
+        static Response read(InputStream in) throws IOException {
+            ByteArrayOutputStream head = new ByteArrayOutputStream();
+            int matched = 0;
+            while (matched < 4) {
+                int b = in.read();
+                if (b < 0) {
+                    if (head.size() == 0) {
+                        return null;
+                    }
+                    throw new IOException("Connection closed inside a response head");
+                }
+                head.write(b);
+                matched = (b == (matched % 2 == 0 ? '\r' : '\n')) ? matched + 1 : (b == '\r' ? 1 : 0);
+            }
+            String[] lines = head.toString(StandardCharsets.ISO_8859_1).split("\r\n");
+            int status = Integer.parseInt(lines[0].split(" ")[1]);
+            Map<String, String> headers = new HashMap<>();
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                headers.put(lines[i].substring(0, colon).trim().toLowerCase(), lines[i].substring(colon + 1).trim());
+            }
+            String length = headers.get("content-length");
+            byte[] body = length == null ? new byte[0] : in.readNBytes(Integer.parseInt(length));
+            return new Response(status, headers, new String(body, StandardCharsets.UTF_8));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.quiz.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.quiz.models.CompletedQuiz;
+import com.quiz.models.LeaderboardEntry;
+import com.quiz.models.UserAnswer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks ranks and the top list across the leaderboard's shards against a plain sort: score first,
+ * then time, then completion order, with replays recorded once and the lowest dropped past capacity
+ */
+class LeaderboardTest {
+    
+    @Test
+    void ranksAcrossShardsMatchASortedList() {
+        Leaderboard leaderboard = new Leaderboard(0);
+        Random random = new Random(7);
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) { // many more entries than shards, with plenty of tied scores
+            entries.add(leaderboard.record(result("s" + i, random.nextInt(20) * 10, random.nextInt(5) * 1000L)));
+        }
+        entries.sort(null);
+        
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i + 1, leaderboard.rank(entries.get(i).getSessionId()));
+        }
+        LeaderboardEntry[] top = leaderboard.top(25);
+        assertArrayEquals(entries.subList(0, 25).toArray(), top);
+        assertEquals(500, leaderboard.top(1000).length);
+        assertEquals(0, leaderboard.rank("unknown"));
+    }
+    
+    @Test
+    void breaksTiesByTimeThenCompletionOrder() {
+        Leaderboard leaderboard = new Leaderboard(0);
+        leaderboard.record(result("slow", 100, 9000));
+        leaderboard.record(result("first", 100, 5000));
+        leaderboard.record(result("second", 100, 5000));
+        leaderboard.record(result("best", 120, 20_000));
+        
+        assertEquals(1, leaderboard.rank("best"));
+        assertEquals(2, leaderboard.rank("first"));
+        assertEquals(3, leaderboard.rank("second"));
+        assertEquals(4, leaderboard.rank("slow"));
+    }
+    
+    @Test
+    void recordsEachSessionOnce() {
+        Leaderboard leaderboard = new Leaderboard(0);
+        LeaderboardEntry entry = leaderboard.record(result("s", 50, 1000));
+        
+        assertSame(entry, leaderboard.record(result("s", 90, 1000)));
+        assertEquals(1, leaderboard.size());
+        assertEquals(50, leaderboard.getEntry("s").getFinalScore());
+    }
+    
+    @Test
+    void dropsLowestEntryPastCapacity() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.record(result("a", 30, 1000));
+        leaderboard.record(result("b", 10, 1000));
+        leaderboard.record(result("c", 20, 1000));
+        leaderboard.record(result("d", 40, 1000));
+        
+        assertEquals(3, leaderboard.size());
+        assertEquals(1, leaderboard.getEvictedCount());
+        assertNull(leaderboard.getEntry("b"));
+        assertEquals(0, leaderboard.rank("b"));
+        assertEquals(3, leaderboard.rank("c"));
+    }
+    
+    private static CompletedQuiz result(String sessionId, int finalScore, long timeSpent) {
+        return new CompletedQuiz(sessionId, "Player", finalScore, finalScore, finalScore / 10, 10, timeSpent,
+            0, timeSpent, 1, new UserAnswer[0]);
+    }
+}
\ No newline at end of file
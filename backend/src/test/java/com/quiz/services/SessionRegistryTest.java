@@ -0,0 +1,105 @@
+package com.quiz.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.quiz.models.QuizSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the real reaper against short TTLs and small caps: idle sessions expire, sessions over the cap
+ * are evicted least recently used first, and close() stops the reaper thread
+ */
+class SessionRegistryTest {
+    private SessionRegistry registry;
+    
+    @AfterEach
+    void close() {
+        if (registry != null) {
+            registry.close();
+        }
+    }
+    
+    @Test
+    void expiresIdleSessions() throws InterruptedException {
+        registry = new SessionRegistry(1, 60, 0);
+        QuizSession session = new QuizSession();
+        registry.register(session);
+        assertNotNull(registry.get(session.getSessionId()));
+        
+        awaitTrue(() -> registry.size() == 0);
+        assertEquals(1, registry.getExpiredCount());
+        assertNull(registry.get(session.getSessionId()));
+    }
+    
+    @Test
+    void evictsLeastRecentlyUsedOverTheCap() throws InterruptedException {
+        registry = new SessionRegistry(60, 600, 3);
+        evictsOldestTwoOfFive();
+    }
+    
+    @Test
+    void evictsLeastRecentlyUsedWhenTtlOutlastsTheWheel() throws InterruptedException {
+        // Deadlines more than one rotation away sit in slots that come round before they are due
+        registry = new SessionRegistry(10_000, 20_000, 3);
+        evictsOldestTwoOfFive();
+    }
+    
+    @Test
+    void startsReaperWithFirstSessionAndStopsItOnClose() {
+        registry = new SessionRegistry(60, 600, 0);
+        assertFalse(reaperRunning());
+        
+        registry.register(new QuizSession());
+        assertTrue(reaperRunning());
+        registry.close();
+        assertFalse(reaperRunning());
+        
+        QuizSession late = new QuizSession();
+        registry.register(late);
+        assertFalse(reaperRunning());
+        assertNotNull(registry.get(late.getSessionId()));
+    }
+    
+    private void evictsOldestTwoOfFive() throws InterruptedException {
+        List<QuizSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sessions.add(new QuizSession());
+        }
+        for (int i = 0; i < 3; i++) {
+            registry.register(sessions.get(i));
+        }
+        Thread.sleep(1100); // eviction order is exact to the one-second tick
+        registry.get(sessions.get(0).getSessionId()); // the oldest session is now among the most recently used
+        registry.register(sessions.get(3));
+        registry.register(sessions.get(4));
+        
+        awaitTrue(() -> registry.size() == 3);
+        assertEquals(2, registry.getEvictedCount());
+        assertTrue(registry.contains(sessions.get(0).getSessionId()));
+        assertFalse(registry.contains(sessions.get(1).getSessionId()));
+        assertFalse(registry.contains(sessions.get(2).getSessionId()));
+        assertTrue(registry.contains(sessions.get(3).getSessionId()));
+        assertTrue(registry.contains(sessions.get(4).getSessionId()));
+    }
+    
+    private static boolean reaperRunning() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .anyMatch(thread -> thread.getName().equals("quiz-session-reaper") && thread.isAlive());
+    }
+    
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
\ No newline at end of file
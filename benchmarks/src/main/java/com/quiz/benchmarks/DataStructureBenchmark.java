@@ -0,0 +1,117 @@
+package com.quiz.benchmarks;
+
+import com.quiz.datastructures.QuizArrayList;
+import com.quiz.datastructures.QuizLinkedList;
+import com.quiz.datastructures.QuizRankTree;
+import com.quiz.datastructures.QuizStack;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custom data structure operations at question-bank sizes from the current 10 up to 100k
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Thread)
+public class DataStructureBenchmark {
+    
+    @Param({"10", "1000", "100000"})
+    public int size;
+    
+    private QuizLinkedList<Integer> linkedList;
+    private QuizArrayList<Integer> arrayList;
+    private QuizStack<Integer> stack;
+    private QuizRankTree<Integer> rankTree;
+    private int middle;
+    private Integer missing;
+    
+    @Setup
+    public void setUp() {
+        linkedList = new QuizLinkedList<>();
+        arrayList = new QuizArrayList<>();
+        stack = new QuizStack<>();
+        rankTree = new QuizRankTree<>(Comparator.naturalOrder());
+        for (int i = 0; i < size; i++) {
+            linkedList.add(i);
+            arrayList.add(i);
+            stack.push(i);
+            rankTree.add(i * 2); // even values, so odd values are never present
+        }
+        middle = size / 2;
+        missing = -1; // forces contains() to scan every element
+    }
+    
+    @Benchmark
+    public int rankTreeCountBeforeMiddle() {
+        return rankTree.countBefore(middle * 2);
+    }
+    
+    @Benchmark
+    public boolean rankTreeAddRemoveMiddle() {
+        rankTree.add(middle * 2 + 1);
+        return rankTree.remove(middle * 2 + 1);
+    }
+    
+    @Benchmark
+    public List<Integer> rankTreeFirst100() {
+        return rankTree.first(100);
+    }
+    
+    @Benchmark
+    public Integer linkedListGetMiddle() {
+        return linkedList.get(middle);
+    }
+    
+    @Benchmark
+    public Integer arrayListGetMiddle() {
+        return arrayList.get(middle);
+    }
+    
+    @Benchmark
+    public Integer linkedListAddRemoveTail() {
+        linkedList.add(middle);
+        return linkedList.remove(linkedList.size() - 1);
+    }
+    
+    @Benchmark
+    public Integer linkedListAddRemoveMiddle() {
+        linkedList.add(middle, middle);
+        return linkedList.remove(middle);
+    }
+    
+    @Benchmark
+    public boolean linkedListContainsMissing() {
+        return linkedList.contains(missing);
+    }
+    
+    @Benchmark
+    public boolean arrayListContainsMissing() {
+        return arrayList.contains(missing);
+    }
+    
+    @Benchmark
+    public Integer stackPushPop() {
+        stack.push(middle);
+        return stack.pop();
+    }
+    
+    @Benchmark
+    public Object[] stackSnapshot() {
+        return stack.toArray(new Integer[0]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.quiz.benchmarks;
+
+import com.quiz.controllers.QuizController;
+import com.quiz.server.StaticAssetCache;
+import com.quiz.services.QuizService;
+import com.quiz.services.SessionRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QuizController handlers end to end over an in-memory exchange (no sockets):
+ * session lookup, form parsing, service call, JSON encoding and static asset negotiation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Thread)
+public class HandlerBenchmark {
+    
+    private Path staticDirectory;
+    private QuizService quizService;
+    private QuizController controller;
+    
+    private String activeSessionId;
+    private int answersInActiveSession;
+    
+    private StubHttpExchange questionExchange;
+    private StubHttpExchange answerExchange;
+    private StubHttpExchange resultsExchange;
+    private StubHttpExchange indexGzipExchange;
+    private StubHttpExchange indexNotModifiedExchange;
+    
+    @Setup
+    public void setUp() throws IOException {
+        staticDirectory = Files.createTempDirectory("quiz-bench-static");
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>Quiz</title></head><body>");
+        for (int i = 0; i < 200; i++) {
+            html.append("<div class=\"option\">Option ").append(i).append("</div>");
+        }
+        html.append("</body></html>");
+        Files.write(staticDirectory.resolve("index.html"), html.toString().getBytes(StandardCharsets.UTF_8));
+        
+        StaticAssetCache assets = StaticAssetCache.load(staticDirectory, 300);
+        quizService = new QuizService(new SessionRegistry(5, TimeUnit.HOURS.toSeconds(1), 0));
+        controller = new QuizController(quizService, assets);
+        
+        String readOnlySessionId = quizService.startQuiz("Benchmark Player").getSessionId();
+        questionExchange = new StubHttpExchange("GET", "/api/quiz/question", null)
+            .header("X-Session-Id", readOnlySessionId);
+        resultsExchange = new StubHttpExchange("GET", "/api/quiz/results", null)
+            .header("X-Session-Id", readOnlySessionId);
+        
+        startActiveSession();
+        
+        indexGzipExchange = new StubHttpExchange("GET", "/", null)
+            .header("Accept-Encoding", "gzip, deflate, br");
+        indexNotModifiedExchange = new StubHttpExchange("GET", "/index.html", null)
+            .header("Accept-Encoding", "gzip")
+            .header("If-None-Match", assets.get("/index.html").getEtag(true));
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        quizService.close();
+        try (Stream<Path> paths = Files.walk(staticDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+    
+    private void startActiveSession() {
+        if (activeSessionId != null) {
+            quizService.resetQuiz(activeSessionId);
+        }
+        activeSessionId = quizService.startQuiz("Benchmark Player").getSessionId();
+        answersInActiveSession = 0;
+        answerExchange = new StubHttpExchange("POST", "/api/quiz/answer", "selectedAnswer=1&timeSpent=1500")
+            .header("X-Session-Id", activeSessionId);
+    }
+    
+    @Benchmark
+    public int getQuestion() throws IOException {
+        controller.getCurrentQuestion(questionExchange.reset());
+        return questionExchange.getResponseSize();
+    }
+    
+    /**
+     * One graded answer; a fresh session is started every ten answers (amortized into the score)
+     */
+    @Benchmark
+    public int submitAnswer() throws IOException {
+        if (answersInActiveSession == quizService.getTotalQuestions()) {
+            startActiveSession();
+        }
+        answersInActiveSession++;
+        controller.submitAnswer(answerExchange.reset());
+        return answerExchange.getResponseSize();
+    }
+    
+    @Benchmark
+    public int getResults() throws IOException {
+        controller.getResults(resultsExchange.reset());
+        return resultsExchange.getResponseSize();
+    }
+    
+    @Benchmark
+    public int staticIndexGzip() throws IOException {
+        controller.serveStaticFiles(indexGzipExchange.reset());
+        return indexGzipExchange.getResponseSize();
+    }
+    
+    @Benchmark
+    public int staticIndexNotModified() throws IOException {
+        controller.serveStaticFiles(indexNotModifiedExchange.reset());
+        return indexNotModifiedExchange.getResponseCode();
+    }
+}
\ No newline at end of file
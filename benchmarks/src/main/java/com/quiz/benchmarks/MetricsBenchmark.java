@@ -0,0 +1,56 @@
+package com.quiz.benchmarks;
+
+import com.quiz.metrics.RouteMetrics;
+import com.quiz.metrics.ServerMetrics;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request metrics recording with every thread hitting the same route, as under load,
+ * plus a full Prometheus scrape for scale
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    
+    private ServerMetrics metrics;
+    private RouteMetrics route;
+    
+    @Setup
+    public void setUp() {
+        metrics = new ServerMetrics();
+        route = metrics.route("/api/quiz/answer");
+        for (String path : new String[] {"/api/quiz/start", "/api/quiz/question", "/api/quiz/results", "/"}) {
+            metrics.route(path).record(200, 400_000);
+        }
+        metrics.addGauge("active_sessions", "Live quiz sessions", () -> 1000);
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public void recordRequest() {
+        route.record(200, 750_000);
+        metrics.answersGraded(1);
+    }
+    
+    @Benchmark
+    public int scrape() {
+        StringBuilder text = new StringBuilder(8192);
+        metrics.writePrometheus(text);
+        return text.length();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.quiz.benchmarks;
+
+import com.quiz.models.QuizSession;
+import com.quiz.models.UserAnswer;
+import com.quiz.services.QuizService;
+import com.quiz.services.SessionRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QuizService hot paths: answer submission, result reads and a full ten-question quiz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Thread)
+public class QuizServiceBenchmark {
+    
+    private QuizService quizService;
+    private String answeredSessionId;
+    private String activeSessionId;
+    private int answersInActiveSession;
+    
+    @Setup
+    public void setUp() {
+        // Short idle TTL so the reaper drains reset sessions from the timing wheel during measurement
+        quizService = new QuizService(new SessionRegistry(5, TimeUnit.HOURS.toSeconds(1), 0));
+        
+        QuizSession answered = quizService.startQuiz("Benchmark Player");
+        answeredSessionId = answered.getSessionId();
+        for (int i = 0; i < quizService.getTotalQuestions(); i++) {
+            quizService.submitAnswer(answeredSessionId, i % 4, 1500);
+        }
+        
+        startActiveSession();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        quizService.close();
+    }
+    
+    private void startActiveSession() {
+        if (activeSessionId != null) {
+            quizService.resetQuiz(activeSessionId);
+        }
+        activeSessionId = quizService.startQuiz("Benchmark Player").getSessionId();
+        answersInActiveSession = 0;
+    }
+    
+    @Benchmark
+    public UserAnswer[] getAllAnswers() {
+        return quizService.getAllAnswers(answeredSessionId);
+    }
+    
+    /**
+     * One graded answer; a fresh session is started every ten answers (amortized into the score)
+     */
+    @Benchmark
+    public boolean submitAnswer() {
+        if (answersInActiveSession == quizService.getTotalQuestions()) {
+            startActiveSession();
+        }
+        answersInActiveSession++;
+        return quizService.submitAnswer(activeSessionId, answersInActiveSession % 4, 1500);
+    }
+    
+    /**
+     * start, ten question/answer pairs, results and reset - one complete player
+     */
+    @Benchmark
+    public int fullQuiz() {
+        String sessionId = quizService.startQuiz("Benchmark Player").getSessionId();
+        int total = quizService.getTotalQuestions();
+        for (int i = 0; i < total; i++) {
+            quizService.getCurrentQuestion(sessionId);
+            quizService.submitAnswer(sessionId, i % 4, 1500);
+        }
+        int answers = quizService.getAllAnswers(sessionId).length;
+        quizService.resetQuiz(sessionId);
+        return answers;
+    }
+}
\ No newline at end of file
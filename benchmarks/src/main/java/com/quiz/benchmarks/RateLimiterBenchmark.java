@@ -0,0 +1,56 @@
+package com.quiz.benchmarks;
+
+import com.quiz.server.RateLimiter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rate limit admission as run on every request: many clients spread over the map, and one hot client
+ * whose bucket every thread CASes (the worst case for contention)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+    private static final int CLIENTS = 10_000;
+    
+    private RateLimiter limiter;
+    private String[] clients;
+    
+    @Setup
+    public void setUp() {
+        // High enough that nothing is rejected: admission cost, not the 429 path
+        limiter = new RateLimiter(1_000_000_000, 1_000_000, CLIENTS * 2);
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "QUIZ_" + Integer.toHexString(0x10000000 + i * 7919);
+            limiter.acquire(clients[i]);
+        }
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public long manyClients() {
+        return limiter.acquire(clients[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public long oneHotClient() {
+        return limiter.acquire(clients[0]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.quiz.benchmarks;
+
+import com.quiz.controllers.QuestionJsonCache;
+import com.quiz.controllers.QuizResponses;
+import com.quiz.json.JsonWriter;
+import com.quiz.models.AnswerResult;
+import com.quiz.models.AnswerSubmission;
+import com.quiz.models.Question;
+import com.quiz.models.QuizSession;
+import com.quiz.models.UserAnswer;
+import com.quiz.services.QuizService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON response encoding for each API body, through the pooled JsonWriter the handlers use
+ * The *Cached variants splice pre-encoded question fragments from QuestionJsonCache, as the handlers do
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Thread)
+public class ResponseEncodingBenchmark {
+    
+    private QuizService quizService;
+    private QuizSession session;
+    private QuizSession openSession; // never answered, so it always has a current question
+    private Question question;
+    private AnswerResult answerResult;
+    private UserAnswer[] answers;
+    private QuestionJsonCache questionJson;
+    
+    @Setup
+    public void setUp() {
+        quizService = new QuizService();
+        session = quizService.startQuiz("Benchmark Player");
+        openSession = quizService.startQuiz("Benchmark Player");
+        question = quizService.getCurrentQuestion(session.getSessionId());
+        answerResult = AnswerResult.graded(new AnswerSubmission(question.getId(), 0, 1500), question, 0, true);
+        questionJson = new QuestionJsonCache();
+        for (int i = 0; i < quizService.getTotalQuestions(); i++) {
+            quizService.submitAnswer(session.getSessionId(), i % 4, 1500);
+        }
+        answers = quizService.getAllAnswers(session.getSessionId());
+    }
+    
+    @TearDown
+    public void tearDown() {
+        quizService.close();
+    }
+    
+    @Benchmark
+    public int started() {
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeStarted(json, session);
+        return finish(json);
+    }
+    
+    @Benchmark
+    public int question() {
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeQuestion(json, question, session);
+        return finish(json);
+    }
+    
+    @Benchmark
+    public int questionCached() {
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeQuestion(json, openSession, questionJson);
+        return finish(json);
+    }
+    
+    @Benchmark
+    public int answerResult() {
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeAnswerResult(json, question, true, session);
+        return finish(json);
+    }
+    
+    @Benchmark
+    public int answerResultCached() {
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeAnswerResult(json, answerResult, session, questionJson);
+        return finish(json);
+    }
+    
+    @Benchmark
+    public int results() {
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeResults(json, session, answers);
+        return finish(json);
+    }
+    
+    @Benchmark
+    public int error() {
+        JsonWriter json = JsonWriter.acquire();
+        QuizResponses.writeError(json, "No active quiz session or quiz completed");
+        return finish(json);
+    }
+    
+    private int finish(JsonWriter json) {
+        int size = json.size();
+        JsonWriter.release(json);
+        return size;
+    }
+}
\ No newline at end of file
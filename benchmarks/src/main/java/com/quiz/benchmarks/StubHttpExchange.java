@@ -0,0 +1,139 @@
+package com.quiz.benchmarks;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * In-memory HttpExchange so QuizController handlers can be benchmarked without sockets
+ * The same instance is reused across invocations via reset()
+ */
+public class StubHttpExchange extends HttpExchange {
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 8080);
+    
+    private final Headers requestHeaders = new Headers();
+    private final Headers responseHeaders = new Headers();
+    private final ByteArrayOutputStream responseBody = new ByteArrayOutputStream(4096);
+    private String method;
+    private URI uri;
+    private byte[] requestBody;
+    private InputStream requestStream;
+    private int responseCode;
+    
+    public StubHttpExchange(String method, String uri, String body) {
+        this.method = method;
+        this.uri = URI.create(uri);
+        this.requestBody = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        reset();
+    }
+    
+    /**
+     * Clear the response side and rewind the request body for the next invocation
+     */
+    public StubHttpExchange reset() {
+        responseHeaders.clear();
+        responseBody.reset();
+        responseCode = -1;
+        requestStream = new ByteArrayInputStream(requestBody);
+        return this;
+    }
+    
+    public StubHttpExchange header(String name, String value) {
+        requestHeaders.set(name, value);
+        return this;
+    }
+    
+    public int getResponseSize() {
+        return responseBody.size();
+    }
+    
+    @Override
+    public Headers getRequestHeaders() {
+        return requestHeaders;
+    }
+    
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+    
+    @Override
+    public URI getRequestURI() {
+        return uri;
+    }
+    
+    @Override
+    public String getRequestMethod() {
+        return method;
+    }
+    
+    @Override
+    public HttpContext getHttpContext() {
+        return null;
+    }
+    
+    @Override
+    public void close() {
+    }
+    
+    @Override
+    public InputStream getRequestBody() {
+        return requestStream;
+    }
+    
+    @Override
+    public OutputStream getResponseBody() {
+        return responseBody;
+    }
+    
+    @Override
+    public void sendResponseHeaders(int rCode, long responseLength) {
+        this.responseCode = rCode;
+    }
+    
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return ADDRESS;
+    }
+    
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+    
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return ADDRESS;
+    }
+    
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+    
+    @Override
+    public Object getAttribute(String name) {
+        return null;
+    }
+    
+    @Override
+    public void setAttribute(String name, Object value) {
+    }
+    
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+    }
+    
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+}
\ No newline at end of file
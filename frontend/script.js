@@ -16,6 +16,9 @@ class QuizApp {
         this.isQuizCompleted = false; // Track quiz completion status
         this.fiftyFiftyUsed = false; // Track if 50-50 lifeline has been used
         this.reviewData = []; // Store quiz data for review
+        this.bundle = null; // All questions of the session, prefetched after start
+        this.events = null; // EventSource pushing progress, question changes and timer ticks
+        this.pushedQuestion = null; // Latest question pushed by the server
         
         // API base URL
         this.apiBase = '/api/quiz';
@@ -172,6 +175,8 @@ class QuizApp {
                 this.currentQuestionIndex = 0;
                 this.score = 0;
                 this.showScreen('quiz-screen');
+                await this.loadBundle();
+                this.openEvents();
                 this.loadCurrentQuestion();
                 this.showToast(`Welcome ${playerName}! Quiz started successfully!`, 'success');
             } else {
@@ -185,6 +190,56 @@ class QuizApp {
         }
     }
     
+    // Fetch every question of the session at once; on failure questions are fetched one by one
+    async loadBundle() {
+        this.bundle = null;
+        try {
+            const response = await fetch(`${this.apiBase}/bundle`, { cache: 'no-store' });
+            if (response.ok) {
+                const data = await response.json();
+                if (data.success && Array.isArray(data.questions)) {
+                    this.bundle = data;
+                    this.currentQuestionIndex = data.answeredQuestions;
+                }
+            }
+        } catch (error) {
+            console.warn('Could not prefetch questions, loading them one at a time:', error);
+        }
+    }
+    
+    // Subscribe to the session's server-sent events; while connected, the server's ticks drive the countdown
+    openEvents() {
+        this.closeEvents();
+        if (!window.EventSource) return;
+        
+        const events = new EventSource(`${this.apiBase}/events`);
+        events.addEventListener('progress', (e) => {
+            this.updateScore(JSON.parse(e.data).score);
+        });
+        events.addEventListener('question', (e) => {
+            this.pushedQuestion = JSON.parse(e.data).question;
+        });
+        events.addEventListener('tick', () => {
+            if (this.timer === 'server') this.countdown();
+        });
+        // The server ends the stream after these; close it so the browser does not reconnect
+        events.addEventListener('complete', () => this.closeEvents());
+        events.addEventListener('reset', () => this.closeEvents());
+        events.onerror = () => {
+            if (events.readyState === EventSource.CLOSED) this.closeEvents();
+        };
+        this.events = events;
+    }
+    
+    closeEvents() {
+        if (!this.events) return;
+        this.events.close();
+        this.events = null;
+        this.pushedQuestion = null;
+        // Keep a running countdown going locally
+        if (this.timer === 'server') this.runTimer();
+    }
+    
     async loadCurrentQuestion() {
         // Prevent double-triggering
         if (this.isLoadingQuestion) {
@@ -192,6 +247,23 @@ class QuizApp {
             return;
         }
         
+        // Serve from the prefetched bundle when we have it
+        if (this.bundle && this.currentQuestionIndex < this.bundle.questions.length) {
+            this.showQuestion({
+                ...this.bundle.questions[this.currentQuestionIndex],
+                questionNumber: this.currentQuestionIndex + 1,
+                totalQuestions: this.bundle.totalQuestions,
+                currentScore: this.score
+            });
+            return;
+        }
+        
+        // Or from the question the server pushed after the last answer
+        if (this.pushedQuestion && this.pushedQuestion.questionNumber === this.currentQuestionIndex + 1) {
+            this.showQuestion(this.pushedQuestion);
+            return;
+        }
+        
         this.isLoadingQuestion = true;
         this.showLoading(true);
         
@@ -224,18 +296,8 @@ class QuizApp {
             console.log('API Response:', data); // Debug log
             
             if (data.success && data.question) {
-                this.currentQuestion = data.question;
-                this.displayQuestion(data.question);
-                this.updateProgress(data.question.questionNumber, data.question.totalQuestions);
-                this.updateScore(data.question.currentScore);
-                this.startTimer();
-                this.selectedAnswer = null;
-                this.isAnswerSubmitted = false;
-                
-                // Reset submit button
-                const submitBtn = document.getElementById('submit-btn');
-                submitBtn.disabled = true;
-                submitBtn.innerHTML = '<i class="fas fa-arrow-right"></i> Submit Answer';
+                this.currentQuestionIndex = data.question.questionNumber - 1;
+                this.showQuestion(data.question);
             } else {
                 console.error('API Response Error:', data); // Debug log
                 if (data.error === 'No active quiz session or quiz completed') {
@@ -254,6 +316,21 @@ class QuizApp {
         }
     }
     
+    showQuestion(question) {
+        this.currentQuestion = question;
+        this.displayQuestion(question);
+        this.updateProgress(question.questionNumber, question.totalQuestions);
+        this.updateScore(question.currentScore);
+        this.startTimer();
+        this.selectedAnswer = null;
+        this.isAnswerSubmitted = false;
+        
+        // Reset submit button
+        const submitBtn = document.getElementById('submit-btn');
+        submitBtn.disabled = true;
+        submitBtn.innerHTML = '<i class="fas fa-arrow-right"></i> Submit Answer';
+    }
+    
     displayQuestion(question) {
         console.log('displayQuestion called with:', question); // Debug log
         
@@ -322,6 +399,7 @@ class QuizApp {
             console.log('Answer submission response:', data); // Debug log
             
             if (data.success) {
+                this.currentQuestionIndex++;
                 this.showAnswerResult(data);
                 this.updateScore(data.score);
                 
@@ -336,12 +414,12 @@ class QuizApp {
                     }, 2000); // Reduced timeout to 2 seconds
                 }
                 
-                // Fallback: Check if we just completed question 10
-                if (this.currentQuestion && this.currentQuestion.questionNumber >= 10) {
-                    console.log('Detected question 10 completion, marking as completed...');
+                // Fallback: Check if we just completed the last question
+                if (this.currentQuestion && this.currentQuestion.questionNumber >= this.currentQuestion.totalQuestions) {
+                    console.log('Detected last question completion, marking as completed...');
                     this.isQuizCompleted = true;
                     setTimeout(() => {
-                        console.log('Loading results after question 10...');
+                        console.log('Loading results after the last question...');
                         this.loadResults();
                     }, 2000);
                 }
@@ -398,7 +476,7 @@ class QuizApp {
         
         // Change button text if this is the final question
         const nextBtn = document.getElementById('next-question-btn');
-        if (this.currentQuestion && this.currentQuestion.questionNumber >= 10) {
+        if (this.currentQuestion && this.currentQuestion.questionNumber >= this.currentQuestion.totalQuestions) {
             nextBtn.innerHTML = '<i class="fas fa-flag-checkered"></i> View Results';
             
             // Auto-close modal and show results after 3 seconds for final question
@@ -441,8 +519,8 @@ class QuizApp {
             return;
         }
         
-        // Don't increment currentQuestionIndex here - the backend already handles this
-        // when the answer is submitted
+        // Don't increment currentQuestionIndex here - submitAnswer already advanced it
+        // when the backend accepted the answer
         this.loadCurrentQuestion();
     }
     
@@ -498,18 +576,25 @@ class QuizApp {
     
     // Timer Management
     startTimer() {
+        this.stopTimer();
         this.timeLeft = 30;
         this.questionStartTime = Date.now();
         this.updateTimerDisplay();
+        this.runTimer();
+    }
+    
+    // Count down on the server's tick events while the event stream is open, otherwise on a local interval
+    runTimer() {
+        this.timer = this.events ? 'server' : setInterval(() => this.countdown(), 1000);
+    }
+    
+    countdown() {
+        this.timeLeft--;
+        this.updateTimerDisplay();
         
-        this.timer = setInterval(() => {
-            this.timeLeft--;
-            this.updateTimerDisplay();
-            
-            if (this.timeLeft <= 0) {
-                this.timeUp();
-            }
-        }, 1000);
+        if (this.timeLeft <= 0) {
+            this.timeUp();
+        }
     }
     
     stopTimer() {
@@ -671,6 +756,8 @@ class QuizApp {
             this.isQuizCompleted = false; // Reset completion status
             this.fiftyFiftyUsed = false; // Reset lifeline
             this.reviewData = []; // Clear review data
+            this.bundle = null;
+            this.closeEvents();
             this.stopTimer();
             
             // Reset lifeline button
@@ -42,11 +42,9 @@ Write-Host "✓ Output directory created" -ForegroundColor Green
 Write-Host ""
 Write-Host "[3/4] Compiling Java source files..." -ForegroundColor Green
 
-$compileCommand = @"
-javac -d bin -cp "src\main\java" "src\main\java\com\quiz\QuizApplication.java" "src\main\java\com\quiz\controllers\QuizController.java" "src\main\java\com\quiz\datastructures\QuizLinkedList.java" "src\main\java\com\quiz\datastructures\QuizStack.java" "src\main\java\com\quiz\models\Question.java" "src\main\java\com\quiz\models\QuizSession.java" "src\main\java\com\quiz\models\UserAnswer.java" "src\main\java\com\quiz\services\QuizService.java"
-"@
+$javaFiles = Get-ChildItem -Path "src\main\java" -Recurse -Filter *.java | ForEach-Object { $_.FullName }
 
-$result = Invoke-Expression $compileCommand 2>&1
+$result = & javac -encoding UTF-8 -d bin -cp "src\main\java" $javaFiles 2>&1
 if ($LASTEXITCODE -ne 0) {
     Write-Host "ERROR: Compilation failed!" -ForegroundColor Red
     Write-Host $result -ForegroundColor Red
@@ -60,20 +60,15 @@ def compile_java():
     """Compile all Java source files"""
     print("\n[3/4] Compiling Java source files...")
     
-    # Java source files to compile
-    java_files = [
-        "src/main/java/com/quiz/QuizApplication.java",
-        "src/main/java/com/quiz/controllers/QuizController.java",
-        "src/main/java/com/quiz/datastructures/QuizLinkedList.java",
-        "src/main/java/com/quiz/datastructures/QuizStack.java",
-        "src/main/java/com/quiz/models/Question.java",
-        "src/main/java/com/quiz/models/QuizSession.java",
-        "src/main/java/com/quiz/models/UserAnswer.java",
-        "src/main/java/com/quiz/services/QuizService.java"
-    ]
+    # Java source files to compile (every .java file under src/main/java)
+    java_files = []
+    for root, _, files in os.walk("src/main/java"):
+        for name in files:
+            if name.endswith(".java"):
+                java_files.append(os.path.join(root, name))
     
     # Compile command
-    compile_cmd = ['javac', '-d', 'bin', '-cp', 'src/main/java'] + java_files
+    compile_cmd = ['javac', '-encoding', 'UTF-8', '-d', 'bin', '-cp', 'src/main/java'] + java_files
     
     try:
         result = subprocess.run(compile_cmd, capture_output=True, text=True, check=True)
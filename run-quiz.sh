@@ -39,15 +39,7 @@ echo "✓ Output directory created"
 
 echo
 echo "[3/4] Compiling Java source files..."
-javac -d bin -cp "src/main/java" \
-    "src/main/java/com/quiz/QuizApplication.java" \
-    "src/main/java/com/quiz/controllers/QuizController.java" \
-    "src/main/java/com/quiz/datastructures/QuizLinkedList.java" \
-    "src/main/java/com/quiz/datastructures/QuizStack.java" \
-    "src/main/java/com/quiz/models/Question.java" \
-    "src/main/java/com/quiz/models/QuizSession.java" \
-    "src/main/java/com/quiz/models/UserAnswer.java" \
-    "src/main/java/com/quiz/services/QuizService.java"
+javac -encoding UTF-8 -d bin -cp "src/main/java" $(find src/main/java -name "*.java")
 
 if [ $? -ne 0 ]; then
     echo "ERROR: Compilation failed! Check the error messages above."